@@ -27,6 +27,7 @@ import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.WorldIdentifiers;
 import com.viaversion.viaversion.api.protocol.version.BlockedProtocolVersions;
+import java.util.Map;
 
 public interface ViaVersionConfig extends Config {
 
@@ -184,6 +185,13 @@ public interface ViaVersionConfig extends Config {
      */
     String getMaxWarningsKickMessage();
 
+    /**
+     * Get the maximum number of packets per second a client can send of single packet types, by packet type name.
+     *
+     * @return unmodifiable map of packet type names to their limit per second
+     */
+    Map<String, Integer> getPacketTypeLimits();
+
     /**
      * Send supported versions in the status response packet
      *
@@ -457,4 +465,69 @@ public interface ViaVersionConfig extends Config {
      * @return the value sent to 1.19+ clients on join
      */
     boolean enforceSecureChat();
+
+    /**
+     * Converts chunk data packets for 1.13+ clients on older servers on a separate worker pool instead of the network threads.
+     * Packets following a chunk are held back until it has been converted to keep the original order.
+     *
+     * @return true if enabled
+     */
+    boolean isAsyncChunkConversion();
+
+    /**
+     * Returns the number of worker threads used for async chunk conversion.
+     *
+     * @return number of chunk conversion threads
+     */
+    int getAsyncChunkConversionThreads();
+
+    /**
+     * Returns the maximum amount of chunk packets waiting for conversion before they are converted on the network threads again.
+     *
+     * @return maximum chunk conversion queue size
+     */
+    int getAsyncChunkConversionQueueSize();
+
+    /**
+     * Returns whether the entity trackers of all protocols in a pipeline should share a single entity table.
+     *
+     * @return true if enabled
+     */
+    boolean isSharedEntityTracker();
+
+    /**
+     * Returns the maximum number of entities tracked per connection, after which the least recently used entities are dropped.
+     *
+     * @return maximum number of tracked entities, or -1 if unlimited
+     */
+    int getMaxTrackedEntities();
+
+    /**
+     * Returns the number of converted 1.20.5 items cached per connection.
+     *
+     * @return item conversion cache size, or 0 if disabled
+     */
+    int getItemConversionCacheSize();
+
+    /**
+     * Returns the number of original item tags kept per connection, instead of sending them to 1.20.5 clients as custom data.
+     *
+     * @return item tag stash size, or 0 if disabled
+     */
+    int getItemTagStashSize();
+
+    /**
+     * Returns the maximum number of characters held by the global cache of converted json components.
+     *
+     * @return component cache size in characters, or 0 if disabled
+     */
+    int getComponentCacheSize();
+
+    /**
+     * Returns the maximum number of bytes of packets held back per 1.20.2+ player on older servers while they are
+     * switched to the configuration state. Players exceeding it are disconnected.
+     *
+     * @return maximum configuration queue size in bytes, or -1 if unlimited
+     */
+    int getConfigurationQueueMaxBytes();
 }
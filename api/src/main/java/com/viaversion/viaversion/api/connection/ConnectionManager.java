@@ -22,9 +22,11 @@
  */
 package com.viaversion.viaversion.api.connection;
 
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -97,6 +99,32 @@ public interface ConnectionManager {
      */
     Map<UUID, UserConnection> getConnectedClients();
 
+    /**
+     * Returns the frontend UserConnections of clients with the given protocol version.
+     * When ViaVersion is reloaded, this method may not return some players.
+     *
+     * @param protocolVersion client protocol version
+     * @return frontend UserConnections of clients with the given version
+     */
+    default Set<UserConnection> getConnectedClients(ProtocolVersion protocolVersion) {
+        return getConnectedClients().values().stream()
+                .filter(connection -> connection.getProtocolInfo().protocolVersion() == protocolVersion)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the frontend UserConnections currently connected to a server with the given protocol version.
+     * On proxies, this is the version of the backend server a player is connected to.
+     *
+     * @param serverProtocolVersion server protocol version
+     * @return frontend UserConnections connected to a server with the given version
+     */
+    default Set<UserConnection> getConnectedClientsByServerVersion(ProtocolVersion serverProtocolVersion) {
+        return getConnectedClients().values().stream()
+                .filter(connection -> connection.getProtocolInfo().serverProtocolVersion() == serverProtocolVersion)
+                .collect(Collectors.toSet());
+    }
+
     void onLoginSuccess(UserConnection connection);
 
     void onDisconnect(UserConnection connection);
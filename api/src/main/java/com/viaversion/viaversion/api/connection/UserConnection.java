@@ -25,6 +25,7 @@ package com.viaversion.viaversion.api.connection;
 import com.viaversion.viaversion.api.configuration.ViaVersionConfig;
 import com.viaversion.viaversion.api.data.entity.EntityTracker;
 import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
 import com.viaversion.viaversion.api.protocol.packet.PacketTracker;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.exception.CancelException;
@@ -122,11 +123,25 @@ public interface UserConnection {
 
     /**
      * Send a raw packet to the player, submitted to the netty event loop.
+     * Scheduled packets are sent in batches and held back while the channel is not writable.
      *
      * @param packet raw packet to send
      */
     void scheduleSendRawPacket(ByteBuf packet);
 
+    /**
+     * Queues a task sending Via-generated packets, run on the netty event loop together with other scheduled sends.
+     * Packets written to the channel wait for it to be writable. If a collapse key is given, a still queued task
+     * with the same key is dropped in favor of this one.
+     *
+     * @param task        task to run on the event loop
+     * @param direction   direction of the sent packets
+     * @param collapseKey key to replace still queued tasks of, or null to always run the task
+     */
+    default void scheduleOutbound(Runnable task, Direction direction, @Nullable Object collapseKey) {
+        getChannel().eventLoop().execute(task);
+    }
+
     /**
      * Send a raw packet to the player with returning the future.
      *
@@ -274,6 +289,8 @@ public interface UserConnection {
 
     /**
      * Returns a map of stored objects.
+     * Unlike {@link #put(StorableObject)} and {@link #remove(Class)}, changes made through the map
+     * do not call {@link StorableObject#onRemove()} on replaced or removed objects.
      *
      * @return map of stored objects
      * @see #has(Class)
@@ -334,6 +351,21 @@ public interface UserConnection {
      * transformig its contents if used together with {@link PacketWrapper#PASSTHROUGH_ID}.
      *
      * @return generated passthrough token
+     * @deprecated use {@link #generatePassthroughNonce()} together with {@link PacketWrapper#PASSTHROUGH_NONCE_ID}
      */
+    @Deprecated
     UUID generatePassthroughToken();
+
+    /**
+     * Returns a newly generated nonce that will let a packet be passed through without
+     * transforming its contents if written as a long after {@link PacketWrapper#PASSTHROUGH_NONCE_ID}.
+     * Only a limited number of nonces can be outstanding at once, so the packet should be sent right away.
+     *
+     * @return generated passthrough nonce
+     * @throws UnsupportedOperationException if the implementation does not support passthrough nonces,
+     *                                       in which case {@link #generatePassthroughToken()} has to be used
+     */
+    default long generatePassthroughNonce() {
+        throw new UnsupportedOperationException("Passthrough nonces are not supported by " + getClass().getName());
+    }
 }
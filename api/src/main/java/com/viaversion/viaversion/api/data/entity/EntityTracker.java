@@ -177,4 +177,42 @@ public interface EntityTracker {
      * @return whether the client has been tracked
      */
     boolean trackClientEntity();
+
+    /**
+     * Returns the number of currently tracked entities, including the client entity.
+     *
+     * @return number of tracked entities, or -1 if not known by the implementation
+     */
+    default int entityCount() {
+        return -1;
+    }
+
+    /**
+     * Called when the tracker is removed from its connection, or is not added because the connection
+     * already has a tracker for the protocol. The tracker is not used after this.
+     */
+    default void onRemove() {
+    }
+
+    /**
+     * Sets the world the player is currently in, clearing all tracked entities except for the client entity
+     * if it differs from the previous world. The client drops all entities in that case as well.
+     * <p>
+     * Implementations keeping additional per-entity state should remove the entities through
+     * {@link #removeEntity(int)} instead of only clearing them.
+     *
+     * @param world name of the new world
+     * @return whether the world has changed and the tracked entities have been cleared
+     */
+    default boolean trackWorld(final String world) {
+        final String currentWorld = currentWorld();
+        setCurrentWorld(world);
+        if (currentWorld == null || currentWorld.equals(world)) {
+            return false;
+        }
+
+        clearEntities();
+        trackClientEntity();
+        return true;
+    }
 }
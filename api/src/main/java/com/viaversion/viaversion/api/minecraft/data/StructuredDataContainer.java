@@ -146,6 +146,7 @@ public final class StructuredDataContainer {
     public StructuredDataContainer copy() {
         final StructuredDataContainer copy = new StructuredDataContainer(new Reference2ObjectOpenHashMap<>(data));
         copy.lookup = this.lookup;
+        copy.mappedNames = this.mappedNames;
         return copy;
     }
 
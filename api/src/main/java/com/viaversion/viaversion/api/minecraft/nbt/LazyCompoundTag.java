@@ -0,0 +1,286 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.minecraft.nbt;
+
+import com.github.steveice10.opennbt.tag.TagRegistry;
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.github.steveice10.opennbt.tag.limiter.TagLimiter;
+import com.viaversion.viaversion.api.type.types.misc.NamedCompoundTagType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compound tag kept as its raw network payload, only decoding the entries actually accessed.
+ * <p>
+ * Entries returned by {@link #get(String)} are decoded once and must be treated as read-only.
+ * To modify the tag, use {@link #tag()}, which decodes the full tree and is written instead of the raw data from then on.
+ * Unless fully decoded, the original bytes are written back as is.
+ */
+public final class LazyCompoundTag {
+
+    private static final int END_ID = 0;
+    private static final int BYTE_ID = 1;
+    private static final int SHORT_ID = 2;
+    private static final int INT_ID = 3;
+    private static final int LONG_ID = 4;
+    private static final int FLOAT_ID = 5;
+    private static final int DOUBLE_ID = 6;
+    private static final int BYTE_ARRAY_ID = 7;
+    private static final int STRING_ID = 8;
+    private static final int LIST_ID = 9;
+    private static final int COMPOUND_ID = 10;
+    private static final int INT_ARRAY_ID = 11;
+    private static final int LONG_ARRAY_ID = 12;
+    private final byte[] data;
+    private Object2IntMap<String> entryOffsets;
+    private Map<String, Tag> decodedEntries;
+    private CompoundTag tag;
+
+    private LazyCompoundTag(final byte @Nullable [] data, @Nullable final CompoundTag tag) {
+        this.data = data;
+        this.tag = tag;
+    }
+
+    /**
+     * Reads the payload of a compound tag, i.e. its entries and end tag, without decoding it.
+     * The structure and size limits are still checked.
+     *
+     * @param buffer buffer to read from
+     * @return lazily decoded compound tag
+     * @throws IOException if the data is malformed or too large
+     */
+    public static LazyCompoundTag read(final ByteBuf buffer) throws IOException {
+        final int start = buffer.readerIndex();
+        skipPayload(buffer, COMPOUND_ID, start, 0);
+
+        final byte[] data = new byte[buffer.readerIndex() - start];
+        buffer.getBytes(start, data);
+        return new LazyCompoundTag(data, null);
+    }
+
+    /**
+     * Returns a lazy tag holding an already decoded compound tag.
+     *
+     * @param tag compound tag
+     * @return lazy tag of the decoded compound tag
+     */
+    public static LazyCompoundTag of(final CompoundTag tag) {
+        return new LazyCompoundTag(null, tag);
+    }
+
+    /**
+     * Returns the entry with the given key, decoding it on first access.
+     *
+     * @param key key of the entry
+     * @return decoded entry, or null if not present
+     */
+    public @Nullable Tag get(final String key) {
+        if (tag != null) {
+            return tag.get(key);
+        }
+
+        if (decodedEntries != null) {
+            final Tag decoded = decodedEntries.get(key);
+            if (decoded != null) {
+                return decoded;
+            }
+        }
+
+        final Object2IntMap<String> offsets = entryOffsets();
+        final int offset = offsets.getInt(key);
+        if (offset == -1) {
+            return null;
+        }
+
+        final ByteBuf buffer = Unpooled.wrappedBuffer(data);
+        buffer.readerIndex(offset);
+        final int id = buffer.readByte();
+        buffer.skipBytes(buffer.readUnsignedShort());
+        final Tag decoded = decode(id, buffer);
+        if (decodedEntries == null) {
+            decodedEntries = new HashMap<>();
+        }
+        decodedEntries.put(key, decoded);
+        return decoded;
+    }
+
+    public boolean contains(final String key) {
+        return tag != null ? tag.contains(key) : entryOffsets().containsKey(key);
+    }
+
+    /**
+     * Returns the fully decoded compound tag, which is then also written instead of the original data.
+     *
+     * @return decoded compound tag
+     */
+    public CompoundTag tag() {
+        if (tag == null) {
+            tag = (CompoundTag) decode(COMPOUND_ID, Unpooled.wrappedBuffer(data));
+            entryOffsets = null;
+            decodedEntries = null;
+        }
+        return tag;
+    }
+
+    /**
+     * Returns whether the full tree has been decoded, meaning the original data is no longer used.
+     *
+     * @return whether the full tree has been decoded
+     */
+    public boolean isDecoded() {
+        return tag != null;
+    }
+
+    /**
+     * Writes the payload of the compound tag, i.e. its entries and end tag.
+     *
+     * @param buffer buffer to write to
+     * @throws IOException if the decoded tag cannot be written
+     */
+    public void write(final ByteBuf buffer) throws IOException {
+        if (tag != null) {
+            tag.write(new ByteBufOutputStream(buffer));
+        } else {
+            buffer.writeBytes(data);
+        }
+    }
+
+    private Object2IntMap<String> entryOffsets() {
+        if (entryOffsets != null) {
+            return entryOffsets;
+        }
+
+        final Object2IntMap<String> offsets = new Object2IntOpenHashMap<>();
+        offsets.defaultReturnValue(-1);
+        final ByteBuf buffer = Unpooled.wrappedBuffer(data);
+        final ByteBufInputStream in = new ByteBufInputStream(buffer);
+        try {
+            int id;
+            while ((id = buffer.readByte()) != END_ID) {
+                final int offset = buffer.readerIndex() - 1;
+                offsets.put(in.readUTF(), offset);
+                skipPayload(buffer, id, 0, 0);
+            }
+        } catch (final IOException e) {
+            // Already validated when reading
+            throw new IllegalStateException("Failed to index lazy tag", e);
+        }
+        return entryOffsets = offsets;
+    }
+
+    private static Tag decode(final int id, final ByteBuf buffer) {
+        try {
+            final TagLimiter tagLimiter = TagLimiter.create(NamedCompoundTagType.MAX_NBT_BYTES, NamedCompoundTagType.MAX_NESTING_LEVEL);
+            return TagRegistry.read(id, new ByteBufInputStream(buffer), tagLimiter, 0);
+        } catch (final IOException e) {
+            // Already validated when reading
+            throw new IllegalStateException("Failed to decode lazy tag", e);
+        }
+    }
+
+    private static void skipPayload(final ByteBuf buffer, final int id, final int start, final int nestingLevel) throws IOException {
+        if (nestingLevel > NamedCompoundTagType.MAX_NESTING_LEVEL) {
+            throw new IOException("Nesting level " + nestingLevel + " exceeds the maximum of " + NamedCompoundTagType.MAX_NESTING_LEVEL);
+        }
+
+        switch (id) {
+            case LIST_ID: {
+                final int elementId = buffer.readByte();
+                final int size = checkLength(buffer.readInt());
+                for (int i = 0; i < size; i++) {
+                    skipPayload(buffer, elementId, start, nestingLevel + 1);
+                }
+                break;
+            }
+            case COMPOUND_ID: {
+                int entryId;
+                while ((entryId = buffer.readByte()) != END_ID) {
+                    buffer.skipBytes(buffer.readUnsignedShort());
+                    skipPayload(buffer, entryId, start, nestingLevel + 1);
+                }
+                break;
+            }
+            default:
+                skipSimplePayload(buffer, id);
+                break;
+        }
+
+        if (buffer.readerIndex() - start > NamedCompoundTagType.MAX_NBT_BYTES) {
+            throw new IOException("Nbt data larger than " + NamedCompoundTagType.MAX_NBT_BYTES + " bytes");
+        }
+    }
+
+    private static void skipSimplePayload(final ByteBuf buffer, final int id) throws IOException {
+        switch (id) {
+            case BYTE_ID:
+                buffer.skipBytes(Byte.BYTES);
+                break;
+            case SHORT_ID:
+                buffer.skipBytes(Short.BYTES);
+                break;
+            case INT_ID:
+            case FLOAT_ID:
+                buffer.skipBytes(Integer.BYTES);
+                break;
+            case LONG_ID:
+            case DOUBLE_ID:
+                buffer.skipBytes(Long.BYTES);
+                break;
+            case BYTE_ARRAY_ID:
+                buffer.skipBytes(checkLength(buffer.readInt()));
+                break;
+            case STRING_ID:
+                buffer.skipBytes(buffer.readUnsignedShort());
+                break;
+            case INT_ARRAY_ID:
+                buffer.skipBytes(checkLength(buffer.readInt()) * Integer.BYTES);
+                break;
+            case LONG_ARRAY_ID:
+                buffer.skipBytes(checkLength(buffer.readInt()) * Long.BYTES);
+                break;
+            default:
+                throw new IOException("Invalid tag id: " + id);
+        }
+    }
+
+    private static int checkLength(final int length) throws IOException {
+        if (length < 0 || length > NamedCompoundTagType.MAX_NBT_BYTES) {
+            throw new IOException("Invalid array length: " + length);
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return tag != null ? tag.toString() : "LazyCompoundTag{" + data.length + " bytes}";
+    }
+}
@@ -38,7 +38,7 @@ public class ChatSession implements StorableObject {
     private final UUID uuid;
     private final PrivateKey privateKey;
     private final ProfileKey profileKey;
-    private final Signature signer;
+    private final ThreadLocal<Signature> signer = ThreadLocal.withInitial(this::createSigner);
 
     public ChatSession(final UUID uuid, final PrivateKey privateKey, final ProfileKey profileKey) {
         Objects.requireNonNull(uuid, "uuid");
@@ -48,9 +48,15 @@ public class ChatSession implements StorableObject {
         this.privateKey = privateKey;
         this.profileKey = profileKey;
 
+        // Fail early on invalid keys; signing may happen on any thread, each getting its own signer
+        this.signer.get();
+    }
+
+    private Signature createSigner() {
         try {
-            this.signer = Signature.getInstance("SHA256withRSA");
-            this.signer.initSign(this.privateKey);
+            final Signature signer = Signature.getInstance("SHA256withRSA");
+            signer.initSign(this.privateKey);
+            return signer;
         } catch (Throwable e) {
             throw new RuntimeException("Failed to initialize signature", e);
         }
@@ -64,15 +70,24 @@ public class ChatSession implements StorableObject {
         return this.profileKey;
     }
 
+    /**
+     * Signs the data passed to the given consumer. Safe to call from any thread, as every thread uses its own signer,
+     * though callers are still responsible for ordering calls that depend on each other.
+     *
+     * @param dataConsumer consumer to pass the data to sign to
+     * @return signature
+     * @throws SignatureException if signing fails
+     */
     public byte[] sign(final Consumer<DataConsumer> dataConsumer) throws SignatureException {
+        final Signature signer = this.signer.get();
         dataConsumer.accept(bytes -> {
             try {
-                this.signer.update(bytes);
+                signer.update(bytes);
             } catch (SignatureException e) {
                 throw new RuntimeException(e);
             }
         });
-        return this.signer.sign();
+        return signer.sign();
     }
 
 }
@@ -53,7 +53,9 @@ public class PacketTracker {
      * Used for incrementing the number of packets received from the client.
      *
      * @return true if the interval has reset and can now be checked for the packets sent
+     * @deprecated serverbound packets are counted and limited by the platform's packet limiter, which also updates this tracker
      */
+    @Deprecated
     public boolean incrementReceived() {
         // handle stats
         long diff = System.currentTimeMillis() - startTime;
@@ -76,7 +78,9 @@ public class PacketTracker {
      *
      * @return true if the packet should be cancelled
      * @see #incrementReceived()
+     * @deprecated serverbound packets are counted and limited by the platform's packet limiter, which also updates this tracker
      */
+    @Deprecated
     public boolean exceedsMaxPPS() {
         if (connection.isClientSide()) return false; // Don't apply PPS limiting for client-side
         ViaVersionConfig conf = Via.getConfig();
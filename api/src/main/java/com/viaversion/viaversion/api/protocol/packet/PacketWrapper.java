@@ -36,6 +36,10 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public interface PacketWrapper {
 
     int PASSTHROUGH_ID = 1000;
+    /**
+     * Packet id followed by a connection specific long nonce, letting a packet be passed through without transforming its contents.
+     */
+    int PASSTHROUGH_NONCE_ID = 1001;
 
     /**
      * Creates a new packet wrapper instance.
@@ -207,6 +211,17 @@ public interface PacketWrapper {
      */
     void scheduleSend(Class<? extends Protocol> protocol, boolean skipCurrentPipeline) throws Exception;
 
+    /**
+     * Send this packet to the connection, submitted to netty's event loop and skipping the current protocol.
+     * A still queued packet sent with the same collapse key is dropped in favor of this one,
+     * meant for packets where only the latest one matters.
+     *
+     * @param protocol    protocol to be sent through
+     * @param collapseKey key to replace still queued packets of
+     * @throws Exception if it fails to write
+     */
+    void scheduleSendCollapsing(Class<? extends Protocol> protocol, Object collapseKey) throws Exception;
+
     /**
      * Send this packet to the associated user.
      * Be careful not to send packets twice.
@@ -406,6 +421,17 @@ public interface PacketWrapper {
      */
     void scheduleSendToServer(Class<? extends Protocol> protocol, boolean skipCurrentPipeline) throws Exception;
 
+    /**
+     * Send this packet to the server, submitted to netty's event loop and skipping the current protocol.
+     * A still queued packet sent with the same collapse key is dropped in favor of this one,
+     * meant for packets where only the latest one matters.
+     *
+     * @param protocol    protocol to be sent through
+     * @param collapseKey key to replace still queued packets of
+     * @throws Exception if it fails to write
+     */
+    void scheduleSendToServerCollapsing(Class<? extends Protocol> protocol, Object collapseKey) throws Exception;
+
     /**
      * Returns the packet type.
      * Currently only non-null for manually constructed packets before transformation.
@@ -22,6 +22,9 @@
  */
 package com.viaversion.viaversion.api.scheduler;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public interface Scheduler {
@@ -52,6 +55,27 @@ public interface Scheduler {
      */
     Task scheduleRepeating(Runnable runnable, long delay, long period, TimeUnit timeUnit);
 
+    /**
+     * Creates a new named executor for blocking tasks, bounded by the given amount of threads.
+     * Implementations should not run tasks on the submitting thread once the executor is saturated,
+     * as it may be the main thread or a network thread.
+     * <p>
+     * The default implementation only uses the given maximum of threads and rejects tasks once its queue is full,
+     * which is bounded to the given size, or to four tasks per thread if 0.
+     *
+     * @param name        name of the executor
+     * @param coreThreads threads kept while there are tasks
+     * @param maxThreads  maximum amount of threads
+     * @param queueSize   maximum amount of queued tasks, 0 to only hand tasks directly to threads
+     * @return new executor, to be shut down by the caller once no longer needed
+     */
+    default ExecutorService newExecutor(final String name, final int coreThreads, final int maxThreads, final int queueSize) {
+        final int capacity = queueSize > 0 ? queueSize : maxThreads * 4;
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(capacity));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Shuts down the scheduler and awaits task termination.
      */
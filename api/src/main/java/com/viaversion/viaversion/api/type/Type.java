@@ -42,6 +42,7 @@ import com.viaversion.viaversion.api.minecraft.VillagerData;
 import com.viaversion.viaversion.api.minecraft.blockentity.BlockEntity;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.minecraft.metadata.ChunkPosition;
+import com.viaversion.viaversion.api.minecraft.nbt.LazyCompoundTag;
 import com.viaversion.viaversion.api.type.types.ArrayType;
 import com.viaversion.viaversion.api.type.types.BitSetType;
 import com.viaversion.viaversion.api.type.types.BooleanType;
@@ -90,6 +91,7 @@ import com.viaversion.viaversion.api.type.types.misc.CompoundTagType;
 import com.viaversion.viaversion.api.type.types.misc.GameProfileType;
 import com.viaversion.viaversion.api.type.types.misc.HolderSetType;
 import com.viaversion.viaversion.api.type.types.misc.HolderType;
+import com.viaversion.viaversion.api.type.types.misc.LazyCompoundTagType;
 import com.viaversion.viaversion.api.type.types.misc.NamedCompoundTagType;
 import com.viaversion.viaversion.api.type.types.misc.PlayerMessageSignatureType;
 import com.viaversion.viaversion.api.type.types.misc.ProfileKeyType;
@@ -133,8 +135,16 @@ public abstract class Type<T> implements ByteBufReader<T>, ByteBufWriter<T> {
     /* Other Types */
     public static final Type<JsonElement> COMPONENT = new ComponentType();
     public static final Type<JsonElement> OPTIONAL_COMPONENT = new ComponentType.OptionalComponentType();
+    /**
+     * Json component as its unparsed string.
+     */
+    public static final Type<String> COMPONENT_STRING = new StringType(ComponentType.MAX_LENGTH);
 
     public static final Type<String> STRING = new StringType();
+    /**
+     * String type interning short values on read, meant for frequently repeated identifiers. Compatible with {@link #STRING} values.
+     */
+    public static final Type<String> IDENTIFIER = new StringType(Short.MAX_VALUE, true);
     public static final Type<String> OPTIONAL_STRING = new StringType.OptionalStringType();
     public static final Type<String[]> STRING_ARRAY = new ArrayType<>(Type.STRING);
 
@@ -162,6 +172,8 @@ public abstract class Type<T> implements ByteBufReader<T>, ByteBufWriter<T> {
     public static final Type<CompoundTag[]> NAMED_COMPOUND_TAG_ARRAY = new ArrayType<>(Type.NAMED_COMPOUND_TAG);
     public static final Type<CompoundTag> COMPOUND_TAG = new CompoundTagType();
     public static final Type<CompoundTag> OPTIONAL_COMPOUND_TAG = new CompoundTagType.OptionalCompoundTagType();
+    public static final Type<LazyCompoundTag> LAZY_NAMED_COMPOUND_TAG = new LazyCompoundTagType(true);
+    public static final Type<LazyCompoundTag> LAZY_COMPOUND_TAG = new LazyCompoundTagType(false);
     public static final Type<Tag> TAG = new TagType();
     public static final Type<Tag[]> TAG_ARRAY = new ArrayType<>(TAG);
     public static final Type<Tag> OPTIONAL_TAG = new TagType.OptionalTagType();
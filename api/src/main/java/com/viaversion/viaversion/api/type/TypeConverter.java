@@ -30,4 +30,14 @@ public interface TypeConverter<T> {
      * @return The converted type as an object
      */
     T from(Object o);
+
+    /**
+     * Returns whether values read with the given type may be read as this type, being converted through {@link #from(Object)}.
+     *
+     * @param type type the value has been read with
+     * @return whether values of the type are converted when read as this type
+     */
+    default boolean converts(Type<?> type) {
+        return false;
+    }
 }
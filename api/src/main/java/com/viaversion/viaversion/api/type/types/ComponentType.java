@@ -31,7 +31,8 @@ import com.viaversion.viaversion.api.type.Type;
 import io.netty.buffer.ByteBuf;
 
 public class ComponentType extends Type<JsonElement> {
-    private static final StringType STRING_TAG = new StringType(262144);
+    public static final int MAX_LENGTH = 262144;
+    private static final StringType STRING_TAG = new StringType(MAX_LENGTH);
 
     public ComponentType() {
         super(JsonElement.class);
@@ -32,15 +32,29 @@ public class StringType extends Type<String> {
     // String#length() (used to limit the string in Minecraft source code) uses char[]#length
     private static final int MAX_CHAR_UTF_8_LENGTH = Character.toString(Character.MAX_VALUE)
             .getBytes(StandardCharsets.UTF_8).length;
+    private static final int MAX_INTERNED_LENGTH = 64;
+    private static final int INTERN_CACHE_SIZE = 1024;
+    private static final InternedString[] INTERN_CACHE = new InternedString[INTERN_CACHE_SIZE];
     private final int maxLength;
+    private final boolean intern;
 
     public StringType() {
         this(Short.MAX_VALUE);
     }
 
     public StringType(int maxLength) {
+        this(maxLength, false);
+    }
+
+    /**
+     * @param maxLength max length in characters
+     * @param intern    whether short strings should be looked up in a shared cache on read,
+     *                  only meant for frequently repeated values such as identifiers and channel names
+     */
+    public StringType(int maxLength, boolean intern) {
         super(String.class);
         this.maxLength = maxLength;
+        this.intern = intern;
     }
 
     @Override
@@ -50,6 +64,13 @@ public class StringType extends Type<String> {
         Preconditions.checkArgument(len <= maxLength * MAX_CHAR_UTF_8_LENGTH,
                 "Cannot receive string longer than Short.MAX_VALUE * " + MAX_CHAR_UTF_8_LENGTH + " bytes (got %s bytes)", len);
 
+        if (intern && len <= MAX_INTERNED_LENGTH && len <= maxLength) {
+            // Can't exceed the max length in characters either
+            String string = readInterned(buffer, len);
+            buffer.skipBytes(len);
+            return string;
+        }
+
         String string = buffer.toString(buffer.readerIndex(), len, StandardCharsets.UTF_8);
         buffer.skipBytes(len);
 
@@ -65,9 +86,109 @@ public class StringType extends Type<String> {
             throw new IllegalArgumentException("Cannot send string longer than Short.MAX_VALUE characters (got " + object.length() + " characters)");
         }
 
-        byte[] b = object.getBytes(StandardCharsets.UTF_8);
-        Type.VAR_INT.writePrimitive(buffer, b.length);
-        buffer.writeBytes(b);
+        int length = utf8Length(object);
+        Type.VAR_INT.writePrimitive(buffer, length);
+        writeUtf8(buffer, object, length);
+    }
+
+    private static String readInterned(ByteBuf buffer, int len) {
+        int index = buffer.readerIndex();
+        int hash = 1;
+        for (int i = 0; i < len; i++) {
+            hash = 31 * hash + buffer.getByte(index + i);
+        }
+
+        int slot = (hash ^ (hash >>> 16)) & (INTERN_CACHE_SIZE - 1);
+        InternedString interned = INTERN_CACHE[slot];
+        if (interned != null && interned.matches(buffer, index, len)) {
+            return interned.value;
+        }
+
+        byte[] bytes = new byte[len];
+        buffer.getBytes(index, bytes);
+        String string = new String(bytes, StandardCharsets.UTF_8);
+        // Races only ever replace an entry with an equally valid one
+        INTERN_CACHE[slot] = new InternedString(bytes, string);
+        return string;
+    }
+
+    /**
+     * Returns the number of bytes the string takes up in UTF-8, matching {@link String#getBytes(java.nio.charset.Charset)}.
+     *
+     * @param string string
+     * @return length of the string in UTF-8
+     */
+    public static int utf8Length(CharSequence string) {
+        int length = string.length();
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+
+            if (c < 0x800) {
+                utf8Length += 1;
+            } else if (!Character.isSurrogate(c)) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+                // 4 bytes for both chars
+                utf8Length += 2;
+                i++;
+            }
+            // Unpaired surrogates are replaced by a single '?'
+        }
+        return utf8Length;
+    }
+
+    private static void writeUtf8(ByteBuf buffer, CharSequence string, int utf8Length) {
+        buffer.ensureWritable(utf8Length);
+        int index = buffer.writerIndex();
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                buffer.setByte(index++, c);
+            } else if (c < 0x800) {
+                buffer.setByte(index++, 0xC0 | (c >> 6));
+                buffer.setByte(index++, 0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                buffer.setByte(index++, 0xE0 | (c >> 12));
+                buffer.setByte(index++, 0x80 | ((c >> 6) & 0x3F));
+                buffer.setByte(index++, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                buffer.setByte(index++, 0xF0 | (codePoint >> 18));
+                buffer.setByte(index++, 0x80 | ((codePoint >> 12) & 0x3F));
+                buffer.setByte(index++, 0x80 | ((codePoint >> 6) & 0x3F));
+                buffer.setByte(index++, 0x80 | (codePoint & 0x3F));
+            } else {
+                buffer.setByte(index++, '?');
+            }
+        }
+        buffer.writerIndex(index);
+    }
+
+    private static final class InternedString {
+        private final byte[] bytes;
+        private final String value;
+
+        private InternedString(byte[] bytes, String value) {
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        private boolean matches(ByteBuf buffer, int index, int len) {
+            if (bytes.length != len) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (bytes[i] != buffer.getByte(index + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     public static final class OptionalStringType extends OptionalType<String> {
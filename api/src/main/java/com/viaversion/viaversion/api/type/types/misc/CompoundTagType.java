@@ -23,8 +23,10 @@
 package com.viaversion.viaversion.api.type.types.misc;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.viaversion.viaversion.api.minecraft.nbt.LazyCompoundTag;
 import com.viaversion.viaversion.api.type.OptionalType;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 import java.io.IOException;
 
@@ -35,7 +37,7 @@ import java.io.IOException;
  * On the network, this is technically written as any tag, but almost always cast to and checked
  * as a CompoundTag, so we provide this type for convenience.
  */
-public class CompoundTagType extends Type<CompoundTag> {
+public class CompoundTagType extends Type<CompoundTag> implements TypeConverter<CompoundTag> {
 
     public CompoundTagType() {
         super(CompoundTag.class);
@@ -51,6 +53,19 @@ public class CompoundTagType extends Type<CompoundTag> {
         NamedCompoundTagType.write(buffer, object, null);
     }
 
+    @Override
+    public boolean converts(final Type<?> type) {
+        return type.getOutputClass() == LazyCompoundTag.class;
+    }
+
+    @Override
+    public CompoundTag from(final Object o) {
+        if (o instanceof LazyCompoundTag) {
+            return ((LazyCompoundTag) o).tag();
+        }
+        throw new IllegalArgumentException("Cannot convert " + o.getClass().getName() + " to a compound tag");
+    }
+
     public static final class OptionalCompoundTagType extends OptionalType<CompoundTag> {
 
         public OptionalCompoundTagType() {
@@ -0,0 +1,87 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.type.types.misc;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.viaversion.viaversion.api.minecraft.nbt.LazyCompoundTag;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.TypeConverter;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+
+/**
+ * Compound tag type only decoding the accessed entries, writing back the original data if not fully decoded.
+ * Values read as {@link LazyCompoundTag} can still be read as normal compound tags by later protocols and vice versa.
+ *
+ * @see NamedCompoundTagType
+ * @see CompoundTagType
+ */
+public class LazyCompoundTagType extends Type<LazyCompoundTag> implements TypeConverter<LazyCompoundTag> {
+
+    private final boolean named;
+
+    public LazyCompoundTagType(final boolean named) {
+        super(named ? "LazyNamedCompoundTag" : "LazyCompoundTag", LazyCompoundTag.class);
+        this.named = named;
+    }
+
+    @Override
+    public LazyCompoundTag read(final ByteBuf buffer) throws IOException {
+        final byte id = buffer.readByte();
+        if (id != CompoundTag.ID) {
+            throw new IOException(String.format("Expected root tag to be a CompoundTag, was %s", id));
+        }
+
+        if (named) {
+            buffer.skipBytes(buffer.readUnsignedShort());
+        }
+        return LazyCompoundTag.read(buffer);
+    }
+
+    @Override
+    public void write(final ByteBuf buffer, final LazyCompoundTag tag) throws IOException {
+        if (tag == null) {
+            buffer.writeByte(0);
+            return;
+        }
+
+        buffer.writeByte(CompoundTag.ID);
+        if (named) {
+            buffer.writeShort(0); // Empty name
+        }
+        tag.write(buffer);
+    }
+
+    @Override
+    public boolean converts(final Type<?> type) {
+        return type.getOutputClass() == CompoundTag.class;
+    }
+
+    @Override
+    public LazyCompoundTag from(final Object o) {
+        if (o instanceof CompoundTag) {
+            return LazyCompoundTag.of((CompoundTag) o);
+        }
+        throw new IllegalArgumentException("Cannot convert " + o.getClass().getName() + " to a lazy compound tag");
+    }
+}
@@ -25,15 +25,17 @@ package com.viaversion.viaversion.api.type.types.misc;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
 import com.github.steveice10.opennbt.tag.limiter.TagLimiter;
+import com.viaversion.viaversion.api.minecraft.nbt.LazyCompoundTag;
 import com.viaversion.viaversion.api.type.OptionalType;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufOutputStream;
 import java.io.IOException;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public class NamedCompoundTagType extends Type<CompoundTag> {
+public class NamedCompoundTagType extends Type<CompoundTag> implements TypeConverter<CompoundTag> {
 
     public static final int MAX_NBT_BYTES = 2097152; // 2mb
     public static final int MAX_NESTING_LEVEL = 512;
@@ -83,6 +85,19 @@ public class NamedCompoundTagType extends Type<CompoundTag> {
         tag.write(out);
     }
 
+    @Override
+    public boolean converts(final Type<?> type) {
+        return type.getOutputClass() == LazyCompoundTag.class;
+    }
+
+    @Override
+    public CompoundTag from(final Object o) {
+        if (o instanceof LazyCompoundTag) {
+            return ((LazyCompoundTag) o).tag();
+        }
+        throw new IllegalArgumentException("Cannot convert " + o.getClass().getName() + " to a compound tag");
+    }
+
     public static final class OptionalNamedCompoundTagType extends OptionalType<CompoundTag> {
 
         public OptionalNamedCompoundTagType() {
@@ -26,11 +26,18 @@ import com.viaversion.viaversion.api.minecraft.chunks.BaseChunk;
 import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionLight;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
 import java.util.ArrayList;
 import java.util.Arrays;
 
 public class ChunkUtil {
+    private static final byte[] EMPTY_LIGHT = new byte[ChunkSectionLight.LIGHT_LENGTH];
+    private static final byte[] FULL_LIGHT = new byte[ChunkSectionLight.LIGHT_LENGTH];
+
+    static {
+        Arrays.fill(FULL_LIGHT, (byte) 0xFF);
+    }
 
     public static Chunk createEmptyChunk(final int chunkX, final int chunkZ) {
         return createEmptyChunk(chunkX, chunkZ, 16, 0xFFFF);
@@ -68,4 +75,36 @@ public class ChunkUtil {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns a shared instance of the given light array if all of its nibbles are either 0 or 15.
+     * Shared light arrays must not be modified.
+     *
+     * @param light section light array
+     * @return shared light array if uniform, else the given array
+     */
+    public static byte[] sharedLight(final byte[] light) {
+        if (light.length != ChunkSectionLight.LIGHT_LENGTH) {
+            return light;
+        }
+
+        final byte first = light[0];
+        if (first != 0 && first != (byte) 0xFF) {
+            return light;
+        }
+        for (int i = 1; i < light.length; i++) {
+            if (light[i] != first) {
+                return light;
+            }
+        }
+        return first == 0 ? EMPTY_LIGHT : FULL_LIGHT;
+    }
+
+    /**
+     * Returns a shared light array with every nibble set to 15. The returned array must not be modified.
+     *
+     * @return shared full light array
+     */
+    public static byte[] fullLight() {
+        return FULL_LIGHT;
+    }
+}
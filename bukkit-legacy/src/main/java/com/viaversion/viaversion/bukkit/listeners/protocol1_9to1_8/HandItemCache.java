@@ -19,40 +19,167 @@ package com.viaversion.viaversion.bukkit.listeners.protocol1_9to1_8;
 
 import com.viaversion.viaversion.api.minecraft.item.DataItem;
 import com.viaversion.viaversion.api.minecraft.item.Item;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerPickupItemEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 
-public class HandItemCache extends BukkitRunnable {
+/**
+ * Caches the item in hand of players for access from the netty threads.
+ * <p>
+ * Players are only refreshed on the tick after an event that may have changed their hand item,
+ * or after a lookup found no cached item for them yet.
+ */
+public class HandItemCache extends BukkitRunnable implements Listener {
+
+    private final Map<UUID, CachedItem> handCache = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
 
-    private final Map<UUID, Item> handCache = new ConcurrentHashMap<>();
+    public HandItemCache() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            dirtyPlayers.add(player.getUniqueId());
+        }
+    }
 
     @Override
     public void run() {
-        List<UUID> players = new ArrayList<>(handCache.keySet());
-
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            handCache.put(p.getUniqueId(), convert(p.getItemInHand()));
-            players.remove(p.getUniqueId());
+        if (dirtyPlayers.isEmpty()) {
+            return;
         }
-        // Remove offline players
-        for (UUID uuid : players) {
-            handCache.remove(uuid);
+
+        Iterator<UUID> iterator = dirtyPlayers.iterator();
+        while (iterator.hasNext()) {
+            UUID uuid = iterator.next();
+            iterator.remove();
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                handCache.remove(uuid);
+                continue;
+            }
+
+            CachedItem cachedItem = handCache.computeIfAbsent(uuid, u -> new CachedItem());
+            cachedItem.set(player.getItemInHand());
         }
     }
 
     public Item getHandItem(UUID player) {
-        return handCache.get(player);
+        CachedItem cachedItem = handCache.get(player);
+        if (cachedItem == null) {
+            // Fill the cache on the next tick
+            dirtyPlayers.add(player);
+            return null;
+        }
+        return cachedItem.toItem();
+    }
+
+    private void markDirty(HumanEntity player) {
+        dirtyPlayers.add(player.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        handCache.remove(e.getPlayer().getUniqueId());
+        dirtyPlayers.remove(e.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent e) {
+        markDirty(e.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent e) {
+        markDirty(e.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(PlayerPickupItemEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onConsume(PlayerItemConsumeEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent e) {
+        // Buckets, flint and steel, spawn eggs...
+        markDirty(e.getPlayer());
     }
 
     public static Item convert(ItemStack itemInHand) {
         if (itemInHand == null) return new DataItem(0, (byte) 0, (short) 0, null);
         return new DataItem(itemInHand.getTypeId(), (byte) itemInHand.getAmount(), itemInHand.getDurability(), null);
     }
+
+    private static final class CachedItem {
+        // Item id, amount and data packed into a single value, so that updates don't allocate
+        private volatile long packed;
+
+        private void set(ItemStack item) {
+            if (item == null) {
+                packed = 0;
+            } else {
+                packed = ((long) item.getTypeId() << 32) | ((item.getAmount() & 0xFFL) << 16) | (item.getDurability() & 0xFFFFL);
+            }
+        }
+
+        private Item toItem() {
+            long packed = this.packed;
+            return new DataItem((int) (packed >>> 32), (byte) (packed >>> 16), (short) packed, null);
+        }
+    }
 }
@@ -22,6 +22,7 @@ import com.viaversion.viaversion.bukkit.util.NMSUtil;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
 import com.viaversion.viaversion.exception.InformativeException;
+import com.viaversion.viaversion.handlers.OrderedConversionQueue;
 import com.viaversion.viaversion.util.PipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -35,10 +36,12 @@ import java.util.List;
 @ChannelHandler.Sharable
 public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection connection;
+    private final OrderedConversionQueue conversionQueue;
     private boolean handledCompression = BukkitChannelInitializer.COMPRESSION_ENABLED_EVENT != null;
 
     public BukkitEncodeHandler(final UserConnection connection) {
         this.connection = connection;
+        this.conversionQueue = OrderedConversionQueue.create(connection);
     }
 
     @Override
@@ -55,6 +58,11 @@ public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf>
         final ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
         try {
             final boolean needsCompression = !handledCompression && handleCompressionOrder(ctx, transformedBuf);
+            if (!needsCompression && conversionQueue != null && conversionQueue.offer(ctx, transformedBuf)) {
+                // Written by the queue once converted
+                throw CancelEncoderException.generate(null);
+            }
+
             connection.transformClientbound(transformedBuf, CancelEncoderException::generate);
             if (needsCompression) {
                 recompress(ctx, transformedBuf);
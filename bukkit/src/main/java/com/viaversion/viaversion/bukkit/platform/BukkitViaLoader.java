@@ -97,7 +97,8 @@ public class BukkitViaLoader implements ViaPlatformLoader {
 
             if (plugin.getConf().isItemCache()) {
                 handItemCache = new HandItemCache();
-                tasks.add(handItemCache.runTaskTimerAsynchronously(plugin, 1L, 1L)); // Updates player's items :)
+                registerListener(handItemCache);
+                tasks.add(handItemCache.runTaskTimer(plugin, 1L, 1L)); // Updates changed player items :)
             }
         }
 
@@ -25,6 +25,10 @@ import com.viaversion.viaversion.protocols.protocol1_9to1_8.storage.MovementTrac
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import com.viaversion.viaversion.util.PipelineUtil;
@@ -41,6 +45,9 @@ public class BukkitViaMovementTransmitter extends MovementTransmitterProvider {
     private Method getHandle;
     private Field connection;
     private Method handleFlying;
+    // Connections waiting to be ticked on the main thread, each only once per tick
+    private final Set<UserConnection> pendingTicks = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean tickScheduled = new AtomicBoolean();
 
     public BukkitViaMovementTransmitter() {
         USE_NMS = Via.getConfig().isNMSPlayerTicking();
@@ -98,20 +105,10 @@ public class BukkitViaMovementTransmitter extends MovementTransmitterProvider {
     @Override
     public void sendPlayer(UserConnection info) {
         if (USE_NMS) {
-            Player player = Bukkit.getPlayer(info.getProtocolInfo().getUuid());
-            if (player != null) {
-                try {
-                    // Tick player
-                    Object entityPlayer = getHandle.invoke(player);
-                    Object pc = connection.get(entityPlayer);
-                    if (pc != null) {
-                        handleFlying.invoke(pc, (info.get(MovementTracker.class).isGround() ? idlePacket2 : idlePacket));
-                        // Tick world
-                        info.get(MovementTracker.class).incrementIdlePacket();
-                    }
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    Via.getPlatform().getLogger().log(Level.WARNING, "Failed to handle idle packet", e);
-                }
+            // Called from the event loop, collect due connections into a single main thread task
+            pendingTicks.add(info);
+            if (tickScheduled.compareAndSet(false, true)) {
+                Via.getPlatform().runSync(this::tickPending);
             }
         } else {
             ChannelHandlerContext context = PipelineUtil.getContextBefore("decoder", info.getChannel().pipeline());
@@ -125,4 +122,35 @@ public class BukkitViaMovementTransmitter extends MovementTransmitterProvider {
             }
         }
     }
+
+    private void tickPending() {
+        tickScheduled.set(false);
+        final Iterator<UserConnection> iterator = pendingTicks.iterator();
+        while (iterator.hasNext()) {
+            final UserConnection info = iterator.next();
+            iterator.remove();
+            if (info.getChannel().isOpen()) {
+                tickPlayer(info);
+            }
+        }
+    }
+
+    private void tickPlayer(UserConnection info) {
+        MovementTracker movementTracker = info.get(MovementTracker.class);
+        Player player = Bukkit.getPlayer(info.getProtocolInfo().getUuid());
+        if (player != null && movementTracker != null) {
+            try {
+                // Tick player
+                Object entityPlayer = getHandle.invoke(player);
+                Object pc = connection.get(entityPlayer);
+                if (pc != null) {
+                    handleFlying.invoke(pc, (movementTracker.isGround() ? idlePacket2 : idlePacket));
+                    // Tick world
+                    movementTracker.incrementIdlePacket();
+                }
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                Via.getPlatform().getLogger().log(Level.WARNING, "Failed to handle idle packet", e);
+            }
+        }
+    }
 }
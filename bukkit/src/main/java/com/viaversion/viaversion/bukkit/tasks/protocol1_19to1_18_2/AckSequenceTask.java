@@ -42,7 +42,7 @@ public final class AckSequenceTask implements Runnable {
         try {
             final PacketWrapper ackPacket = PacketWrapper.create(ClientboundPackets1_19.BLOCK_CHANGED_ACK, connection);
             ackPacket.write(Type.VAR_INT, sequence);
-            ackPacket.scheduleSend(Protocol1_19To1_18_2.class);
+            ackPacket.scheduleSendCollapsing(Protocol1_19To1_18_2.class, ClientboundPackets1_19.BLOCK_CHANGED_ACK); // Only the latest sequence matters
         } catch (final Exception e) {
             Via.getPlatform().getLogger().log(Level.WARNING, "Failed to send block changed ack packet", e);
         }
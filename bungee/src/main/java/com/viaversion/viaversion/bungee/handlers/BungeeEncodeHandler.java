@@ -21,6 +21,7 @@ import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.bungee.util.BungeePipelineUtil;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
+import com.viaversion.viaversion.handlers.OrderedConversionQueue;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -30,10 +31,12 @@ import java.util.List;
 @ChannelHandler.Sharable
 public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection info;
+    private final OrderedConversionQueue conversionQueue;
     private boolean handledCompression;
 
     public BungeeEncodeHandler(UserConnection info) {
         this.info = info;
+        this.conversionQueue = OrderedConversionQueue.create(info);
     }
 
     @Override
@@ -51,6 +54,11 @@ public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
         ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
         try {
             boolean needsCompress = handleCompressionOrder(ctx, transformedBuf);
+            if (!needsCompress && conversionQueue != null && conversionQueue.offer(ctx, transformedBuf)) {
+                // Written by the queue once converted
+                throw CancelEncoderException.generate(null);
+            }
+
             info.transformClientbound(transformedBuf, CancelEncoderException::generate);
 
             if (needsCompress) {
@@ -37,11 +37,12 @@ import com.viaversion.viaversion.commands.ViaCommandHandler;
 import com.viaversion.viaversion.configuration.ConfigurationProviderImpl;
 import com.viaversion.viaversion.connection.ConnectionManagerImpl;
 import com.viaversion.viaversion.debug.DebugHandlerImpl;
+import com.viaversion.viaversion.handlers.ChunkConversionExecutor;
 import com.viaversion.viaversion.protocol.ProtocolManagerImpl;
 import com.viaversion.viaversion.protocol.ServerProtocolVersionRange;
 import com.viaversion.viaversion.protocol.ServerProtocolVersionSingleton;
-import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.task.TabCompleteThread;
-import com.viaversion.viaversion.protocols.protocol1_9to1_8.ViaIdleThread;
+import com.viaversion.viaversion.rewriter.ComponentConversionCache;
+import com.viaversion.viaversion.scheduler.ConnectionTimer;
 import com.viaversion.viaversion.scheduler.TaskScheduler;
 import com.viaversion.viaversion.update.UpdateUtil;
 import java.util.ArrayList;
@@ -53,6 +54,7 @@ import java.util.SortedSet;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class ViaManagerImpl implements ViaManager {
     private final ProtocolManagerImpl protocolManager = new ProtocolManagerImpl();
@@ -68,6 +70,9 @@ public class ViaManagerImpl implements ViaManager {
     private final Set<String> subPlatforms = new HashSet<>();
     private List<Runnable> enableListeners = new ArrayList<>();
     private PlatformTask<?> mappingLoadingTask;
+    private ChunkConversionExecutor chunkConversionExecutor;
+    private ComponentConversionCache componentConversionCache;
+    private final ConnectionTimer connectionTimer = new ConnectionTimer();
     private boolean initialized;
 
     public ViaManagerImpl(ViaPlatform<?> platform, ViaInjector injector, ViaCommandHandler commandHandler, ViaPlatformLoader loader) {
@@ -84,6 +89,13 @@ public class ViaManagerImpl implements ViaManager {
     public void init() {
         configurationProvider.register(platform.getConf());
 
+        if (platform.getConf().isAsyncChunkConversion()) {
+            chunkConversionExecutor = new ChunkConversionExecutor(platform.getConf().getAsyncChunkConversionThreads(), platform.getConf().getAsyncChunkConversionQueueSize());
+        }
+        if (platform.getConf().getComponentCacheSize() > 0) {
+            componentConversionCache = new ComponentConversionCache(platform.getConf().getComponentCacheSize());
+        }
+
         if (System.getProperty("ViaVersion") != null) {
             // Reload?
             platform.onReload();
@@ -170,18 +182,6 @@ public class ViaManagerImpl implements ViaManager {
             }
         }, 10L);
 
-        final ProtocolVersion serverProtocolVersion = protocolManager.getServerProtocolVersion().lowestSupportedProtocolVersion();
-        if (serverProtocolVersion.olderThan(ProtocolVersion.v1_9)) {
-            if (Via.getConfig().isSimulatePlayerTick()) {
-                Via.getPlatform().runRepeatingSync(new ViaIdleThread(), 1L);
-            }
-        }
-        if (serverProtocolVersion.olderThan(ProtocolVersion.v1_13)) {
-            if (Via.getConfig().get1_13TabCompleteDelay() > 0) {
-                Via.getPlatform().runRepeatingSync(new TabCompleteThread(), 1L);
-            }
-        }
-
         // Refresh Versions
         protocolManager.refreshVersions();
     }
@@ -214,6 +214,10 @@ public class ViaManagerImpl implements ViaManager {
 
         loader.unload();
         scheduler.shutdown();
+        connectionTimer.stop();
+        if (chunkConversionExecutor != null) {
+            chunkConversionExecutor.shutdown();
+        }
     }
 
     private void checkJavaVersion() { // Stolen from Paper
@@ -316,6 +320,33 @@ public class ViaManagerImpl implements ViaManager {
         return configurationProvider;
     }
 
+    /**
+     * Returns the worker pool used for async chunk conversion, or null if disabled in the config.
+     *
+     * @return chunk conversion executor if enabled
+     */
+    public @Nullable ChunkConversionExecutor getChunkConversionExecutor() {
+        return chunkConversionExecutor;
+    }
+
+    /**
+     * Returns the global cache of converted json components, or null if disabled in the config.
+     *
+     * @return component conversion cache if enabled
+     */
+    public @Nullable ComponentConversionCache getComponentConversionCache() {
+        return componentConversionCache;
+    }
+
+    /**
+     * Returns the timer for per-connection tasks run on the connections' event loops.
+     *
+     * @return connection timer
+     */
+    public ConnectionTimer getConnectionTimer() {
+        return connectionTimer;
+    }
+
     /**
      * Returns a mutable set of self-added subplatform version strings.
      * This set is expanded by the subplatform itself (e.g. ViaBackwards), and may not contain all running ones.
@@ -20,11 +20,13 @@ package com.viaversion.viaversion.commands.defaultsubs;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.command.ViaCommandSender;
 import com.viaversion.viaversion.api.command.ViaSubCommand;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.connection.ConnectionManager;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
-import java.util.TreeMap;
 
 public class ListSubCmd extends ViaSubCommand {
     @Override
@@ -44,19 +46,19 @@ public class ListSubCmd extends ViaSubCommand {
 
     @Override
     public boolean execute(ViaCommandSender sender, String[] args) {
-        Map<ProtocolVersion, Set<String>> playerVersions = new TreeMap<>(ProtocolVersion::compareTo);
+        ConnectionManager connectionManager = Via.getManager().getConnectionManager();
+        List<ProtocolVersion> versions = new ArrayList<>(ProtocolVersion.getProtocols());
+        versions.sort(ProtocolVersion::compareTo);
 
-        for (ViaCommandSender p : Via.getPlatform().getOnlinePlayers()) {
-            int playerVersion = Via.getAPI().getPlayerVersion(p.getUUID());
-            ProtocolVersion key = ProtocolVersion.getProtocol(playerVersion);
-            playerVersions.computeIfAbsent(key, s -> new HashSet<>()).add(p.getName());
+        for (ProtocolVersion version : versions) {
+            Set<String> players = new HashSet<>();
+            for (UserConnection connection : connectionManager.getConnectedClients(version)) {
+                players.add(connection.getProtocolInfo().getUsername());
+            }
+            if (!players.isEmpty()) {
+                sendMessage(sender, "&8[&6%s&8] (&7%d&8): &b%s", version.getName(), players.size(), players);
+            }
         }
-
-        for (Map.Entry<ProtocolVersion, Set<String>> entry : playerVersions.entrySet()) {
-            sendMessage(sender, "&8[&6%s&8] (&7%d&8): &b%s", entry.getKey().getName(), entry.getValue().size(), entry.getValue());
-        }
-
-        playerVersions.clear();
         return true;
     }
 }
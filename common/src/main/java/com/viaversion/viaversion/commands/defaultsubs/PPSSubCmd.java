@@ -21,12 +21,14 @@ import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.command.ViaCommandSender;
 import com.viaversion.viaversion.api.command.ViaSubCommand;
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.connection.ConnectionManager;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 public class PPSSubCmd extends ViaSubCommand {
     @Override
@@ -46,26 +48,30 @@ public class PPSSubCmd extends ViaSubCommand {
 
     @Override
     public boolean execute(ViaCommandSender sender, String[] args) {
-        Map<Integer, Set<String>> playerVersions = new HashMap<>();
-        int totalPackets = 0;
-        int clients = 0;
-        long max = 0;
+        ConnectionManager connectionManager = Via.getManager().getConnectionManager();
+        List<ProtocolVersion> versions = new ArrayList<>(ProtocolVersion.getProtocols());
+        versions.sort(ProtocolVersion::compareTo);
 
-        for (ViaCommandSender p : Via.getPlatform().getOnlinePlayers()) {
-            int playerVersion = Via.getAPI().getPlayerVersion(p.getUUID());
-            if (!playerVersions.containsKey(playerVersion))
-                playerVersions.put(playerVersion, new HashSet<>());
-            UserConnection uc = Via.getManager().getConnectionManager().getConnectedClient(p.getUUID());
-            if (uc != null && uc.getPacketTracker().getPacketsPerSecond() > -1) {
-                playerVersions.get(playerVersion).add(p.getName() + " (" + uc.getPacketTracker().getPacketsPerSecond() + " PPS)");
-                totalPackets += uc.getPacketTracker().getPacketsPerSecond();
-                if (uc.getPacketTracker().getPacketsPerSecond() > max) {
-                    max = uc.getPacketTracker().getPacketsPerSecond();
+        Map<ProtocolVersion, Set<String>> playerVersions = new LinkedHashMap<>();
+        long totalPackets = 0;
+        long clients = 0;
+        long max = 0;
+        for (ProtocolVersion version : versions) {
+            Set<String> players = new HashSet<>();
+            for (UserConnection connection : connectionManager.getConnectedClients(version)) {
+                long packetsPerSecond = connection.getPacketTracker().getPacketsPerSecond();
+                if (packetsPerSecond > -1) {
+                    players.add(connection.getProtocolInfo().getUsername() + " (" + packetsPerSecond + " PPS)");
+                    totalPackets += packetsPerSecond;
+                    max = Math.max(max, packetsPerSecond);
+                    clients++;
                 }
-                clients++;
+            }
+            if (!players.isEmpty()) {
+                playerVersions.put(version, players);
             }
         }
-        Map<Integer, Set<String>> sorted = new TreeMap<>(playerVersions);
+
         sendMessage(sender, "&4Live Packets Per Second");
         if (clients > 1) {
             sendMessage(sender, "&cAverage: &f" + (totalPackets / clients));
@@ -74,9 +80,9 @@ public class PPSSubCmd extends ViaSubCommand {
         if (clients == 0) {
             sendMessage(sender, "&cNo clients to display.");
         }
-        for (Map.Entry<Integer, Set<String>> entry : sorted.entrySet())
-            sendMessage(sender, "&8[&6%s&8]: &b%s", ProtocolVersion.getProtocol(entry.getKey()).getName(), entry.getValue());
-        sorted.clear();
+        for (Map.Entry<ProtocolVersion, Set<String>> entry : playerVersions.entrySet()) {
+            sendMessage(sender, "&8[&6%s&8]: &b%s", entry.getKey().getName(), entry.getValue());
+        }
         return true;
     }
 }
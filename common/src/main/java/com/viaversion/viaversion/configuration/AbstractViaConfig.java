@@ -22,11 +22,14 @@ import com.viaversion.viaversion.api.configuration.ViaVersionConfig;
 import com.viaversion.viaversion.api.minecraft.WorldIdentifiers;
 import com.viaversion.viaversion.api.protocol.version.BlockedProtocolVersions;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.connection.PacketLimiterSettings;
 import com.viaversion.viaversion.protocol.BlockedProtocolVersionsImpl;
 import com.viaversion.viaversion.util.Config;
 import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
@@ -53,6 +56,8 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
     private int warningPPS;
     private int maxPPSWarnings;
     private String maxPPSWarningsKickMessage;
+    private Map<String, Integer> packetTypeLimits;
+    private PacketLimiterSettings packetLimiterSettings;
     private boolean sendSupportedVersions;
     private boolean simulatePlayerTick;
     private boolean itemCache;
@@ -88,6 +93,15 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
     private boolean cache1_17Light;
     private boolean translateOcelotToCat;
     private boolean enforceSecureChat;
+    private boolean asyncChunkConversion;
+    private int asyncChunkConversionThreads;
+    private int asyncChunkConversionQueueSize;
+    private boolean sharedEntityTracker;
+    private int maxTrackedEntities;
+    private int itemConversionCacheSize;
+    private int itemTagStashSize;
+    private int componentCacheSize;
+    private int configurationQueueMaxBytes;
 
     protected AbstractViaConfig(final File configFile) {
         super(configFile);
@@ -119,6 +133,7 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
         warningPPS = getInt("tracking-warning-pps", 120);
         maxPPSWarnings = getInt("tracking-max-warnings", 3);
         maxPPSWarningsKickMessage = getString("tracking-max-kick-msg", "You are sending too many packets, :(");
+        packetTypeLimits = loadPacketTypeLimits();
         sendSupportedVersions = getBoolean("send-supported-versions", false);
         simulatePlayerTick = getBoolean("simulate-pt", true);
         itemCache = getBoolean("item-cache", true);
@@ -157,6 +172,30 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
         cache1_17Light = getBoolean("cache-1_17-light", true);
         translateOcelotToCat = getBoolean("translate-ocelot-to-cat", true);
         enforceSecureChat = getBoolean("enforce-secure-chat", false);
+        asyncChunkConversion = getBoolean("async-chunk-conversion", false);
+        asyncChunkConversionThreads = Math.max(1, getInt("async-chunk-conversion-threads", 2));
+        asyncChunkConversionQueueSize = Math.max(1, getInt("async-chunk-conversion-queue-size", 512));
+        sharedEntityTracker = getBoolean("shared-entity-tracker", false);
+        maxTrackedEntities = getInt("max-tracked-entities", -1);
+        itemConversionCacheSize = Math.max(0, getInt("item-conversion-cache-size", 256));
+        itemTagStashSize = Math.max(0, getInt("item-tag-stash-size", 0));
+        componentCacheSize = Math.max(0, getInt("component-cache-size", 1048576));
+        final int queueMaxBytes = getInt("configuration-queue-max-bytes", 67108864);
+        configurationQueueMaxBytes = queueMaxBytes > 0 ? queueMaxBytes : -1; // Anything but a positive limit disables it
+        packetLimiterSettings = PacketLimiterSettings.of(this);
+    }
+
+    private Map<String, Integer> loadPacketTypeLimits() {
+        final Map<String, Object> section = get("packet-type-limits", new HashMap<>());
+        final Map<String, Integer> limits = new HashMap<>();
+        for (final Map.Entry<String, Object> entry : section.entrySet()) {
+            if (entry.getValue() instanceof Number) {
+                limits.put(entry.getKey().toUpperCase(Locale.ROOT), ((Number) entry.getValue()).intValue());
+            } else {
+                LOGGER.warning("Invalid packet type limit found in config: '" + entry.getKey() + "'");
+            }
+        }
+        return Collections.unmodifiableMap(limits);
     }
 
     private BlockedProtocolVersions loadBlockedProtocolVersions() {
@@ -328,6 +367,20 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
         return maxPPSWarningsKickMessage;
     }
 
+    @Override
+    public Map<String, Integer> getPacketTypeLimits() {
+        return packetTypeLimits;
+    }
+
+    /**
+     * Returns the packet limiter options as of the last (re)load.
+     *
+     * @return packet limiter settings
+     */
+    public PacketLimiterSettings getPacketLimiterSettings() {
+        return packetLimiterSettings;
+    }
+
     @Override
     public boolean isSendSupportedVersions() {
         return sendSupportedVersions;
@@ -533,4 +586,49 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
     public boolean enforceSecureChat() {
         return enforceSecureChat;
     }
+
+    @Override
+    public boolean isAsyncChunkConversion() {
+        return asyncChunkConversion;
+    }
+
+    @Override
+    public int getAsyncChunkConversionThreads() {
+        return asyncChunkConversionThreads;
+    }
+
+    @Override
+    public int getAsyncChunkConversionQueueSize() {
+        return asyncChunkConversionQueueSize;
+    }
+
+    @Override
+    public boolean isSharedEntityTracker() {
+        return sharedEntityTracker;
+    }
+
+    @Override
+    public int getMaxTrackedEntities() {
+        return maxTrackedEntities;
+    }
+
+    @Override
+    public int getItemConversionCacheSize() {
+        return itemConversionCacheSize;
+    }
+
+    @Override
+    public int getItemTagStashSize() {
+        return itemTagStashSize;
+    }
+
+    @Override
+    public int getComponentCacheSize() {
+        return componentCacheSize;
+    }
+
+    @Override
+    public int getConfigurationQueueMaxBytes() {
+        return configurationQueueMaxBytes;
+    }
 }
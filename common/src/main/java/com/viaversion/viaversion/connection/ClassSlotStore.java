@@ -0,0 +1,87 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.connection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Array backed store of values by class, where every class is given a dense slot on first use.
+ * <p>
+ * Reads are lock-free and cost a {@link ClassValue} lookup and an array read instead of a hash map lookup.
+ * Writes are synchronized and should be rare compared to reads.
+ *
+ * @param <V> value type
+ */
+final class ClassSlotStore<V> {
+
+    private static final int INITIAL_SIZE = 16;
+    private final Slots slots;
+    private volatile AtomicReferenceArray<V> values = new AtomicReferenceArray<>(INITIAL_SIZE);
+
+    ClassSlotStore(final Slots slots) {
+        this.slots = slots;
+    }
+
+    @Nullable V get(final Class<?> type) {
+        final int slot = slots.slot(type);
+        final AtomicReferenceArray<V> values = this.values;
+        return slot < values.length() ? values.get(slot) : null;
+    }
+
+    synchronized void set(final Class<?> type, @Nullable final V value) {
+        final int slot = slots.slot(type);
+        AtomicReferenceArray<V> values = this.values;
+        if (slot >= values.length()) {
+            if (value == null) {
+                return;
+            }
+
+            final AtomicReferenceArray<V> grown = new AtomicReferenceArray<>(Math.max(slot + 1, values.length() * 2));
+            for (int i = 0; i < values.length(); i++) {
+                grown.lazySet(i, values.get(i));
+            }
+            grown.set(slot, value);
+            this.values = grown;
+            return;
+        }
+        values.set(slot, value);
+    }
+
+    synchronized void clear() {
+        this.values = new AtomicReferenceArray<>(INITIAL_SIZE);
+    }
+
+    /**
+     * Global slot assignment for one kind of key classes.
+     */
+    static final class Slots {
+        private final AtomicInteger nextSlot = new AtomicInteger();
+        private final ClassValue<Integer> slots = new ClassValue<Integer>() {
+            @Override
+            protected Integer computeValue(final Class<?> type) {
+                return nextSlot.getAndIncrement();
+            }
+        };
+
+        int slot(final Class<?> type) {
+            return slots.get(type);
+        }
+    }
+}
@@ -20,6 +20,7 @@ package com.viaversion.viaversion.connection;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.ConnectionManager;
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import java.util.Collections;
@@ -28,11 +29,15 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class ConnectionManagerImpl implements ConnectionManager {
     protected final Map<UUID, UserConnection> clients = new ConcurrentHashMap<>();
     protected final Set<UserConnection> connections = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // Indexes of frontend connections, maintained on login, disconnect and server switches
+    private final Map<ProtocolVersion, VersionStats> versionStats = new ConcurrentHashMap<>();
+    private final Map<ProtocolVersion, Set<UserConnection>> serverVersionIndex = new ConcurrentHashMap<>();
 
     @Override
     public void onLoginSuccess(UserConnection connection) {
@@ -50,6 +55,9 @@ public class ConnectionManagerImpl implements ConnectionManager {
             if (previous != null && previous != connection) {
                 Via.getPlatform().getLogger().warning("Duplicate UUID on frontend connection! (" + id + ")");
             }
+            if (newlyAdded) {
+                index(connection);
+            }
         }
 
         if (channel != null) {
@@ -66,16 +74,74 @@ public class ConnectionManagerImpl implements ConnectionManager {
     @Override
     public void onDisconnect(UserConnection connection) {
         Objects.requireNonNull(connection, "connection is null!");
-        connections.remove(connection);
+        boolean removed = connections.remove(connection);
 
         if (isFrontEnd(connection)) {
             UUID id = connection.getProtocolInfo().getUuid();
             clients.remove(id);
+            if (removed) {
+                unindex(connection);
+            }
         }
 
         connection.clearStoredObjects();
     }
 
+    private void index(UserConnection connection) {
+        VersionStats stats = versionStats.computeIfAbsent(connection.getProtocolInfo().protocolVersion(), v -> new VersionStats());
+        stats.connections.add(connection);
+        stats.updatePacketsPerSecond(-1, connection.getPacketTracker().getPacketsPerSecond(), System.currentTimeMillis());
+        serverVersionIndex.computeIfAbsent(connection.getProtocolInfo().serverProtocolVersion(), v -> ConcurrentHashMap.newKeySet()).add(connection);
+    }
+
+    private void unindex(UserConnection connection) {
+        VersionStats stats = versionStats.get(connection.getProtocolInfo().protocolVersion());
+        if (stats != null && stats.connections.remove(connection)) {
+            stats.updatePacketsPerSecond(connection.getPacketTracker().getPacketsPerSecond(), -1, System.currentTimeMillis());
+        }
+
+        Set<UserConnection> serverConnections = serverVersionIndex.get(connection.getProtocolInfo().serverProtocolVersion());
+        if (serverConnections != null) {
+            serverConnections.remove(connection);
+        }
+    }
+
+    void onServerProtocolVersionChange(UserConnection connection, ProtocolVersion previous) {
+        Set<UserConnection> previousConnections = serverVersionIndex.get(previous);
+        if (previousConnections != null && previousConnections.remove(connection)) {
+            serverVersionIndex.computeIfAbsent(connection.getProtocolInfo().serverProtocolVersion(), v -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+    }
+
+    void onPacketsPerSecondUpdate(UserConnection connection, long previous, long current, long now) {
+        VersionStats stats = versionStats.get(connection.getProtocolInfo().protocolVersion());
+        if (stats != null && stats.connections.contains(connection)) {
+            stats.updatePacketsPerSecond(previous, current, now);
+        }
+    }
+
+    @Override
+    public Set<UserConnection> getConnectedClients(ProtocolVersion protocolVersion) {
+        VersionStats stats = versionStats.get(protocolVersion);
+        return stats != null ? stats.connections() : Collections.emptySet();
+    }
+
+    @Override
+    public Set<UserConnection> getConnectedClientsByServerVersion(ProtocolVersion serverProtocolVersion) {
+        Set<UserConnection> serverConnections = serverVersionIndex.get(serverProtocolVersion);
+        return serverConnections != null ? Collections.unmodifiableSet(serverConnections) : Collections.emptySet();
+    }
+
+    /**
+     * Returns the running statistics of frontend connections by client protocol version.
+     * Versions may be present with no connections left.
+     *
+     * @return unmodifiable map of client protocol versions to their statistics
+     */
+    public Map<ProtocolVersion, VersionStats> getVersionStats() {
+        return Collections.unmodifiableMap(versionStats);
+    }
+
     @Override
     public Map<UUID, UserConnection> getConnectedClients() {
         return Collections.unmodifiableMap(clients);
@@ -107,4 +173,69 @@ public class ConnectionManagerImpl implements ConnectionManager {
     public boolean isClientConnected(UUID playerId) {
         return clients.containsKey(playerId);
     }
+
+    /**
+     * Incrementally maintained statistics of the frontend connections of one client protocol version.
+     */
+    public static final class VersionStats {
+        private static final long PEAK_DURATION = 2000L;
+        private final Set<UserConnection> connections = ConcurrentHashMap.newKeySet();
+        private final LongAdder packetsPerSecond = new LongAdder();
+        private final LongAdder trackedConnections = new LongAdder();
+        private long peakPacketsPerSecond;
+        private long peakTime;
+
+        private void updatePacketsPerSecond(long previous, long current, long now) {
+            // -1 means no full second has been tracked yet
+            if (previous != -1) {
+                packetsPerSecond.add(-previous);
+                trackedConnections.decrement();
+            }
+            if (current != -1) {
+                packetsPerSecond.add(current);
+                trackedConnections.increment();
+                synchronized (this) {
+                    if (current >= peakPacketsPerSecond || now - peakTime > PEAK_DURATION) {
+                        peakPacketsPerSecond = current;
+                        peakTime = now;
+                    }
+                }
+            }
+        }
+
+        public Set<UserConnection> connections() {
+            return Collections.unmodifiableSet(connections);
+        }
+
+        public int connectionCount() {
+            return connections.size();
+        }
+
+        /**
+         * Returns the sum of the packets per second of the last full second of all connections that have been tracked for one.
+         *
+         * @return sum of the packets per second
+         */
+        public long packetsPerSecond() {
+            return packetsPerSecond.sum();
+        }
+
+        /**
+         * Returns the number of connections that have been tracked for a full second.
+         *
+         * @return number of connections with packets per second
+         */
+        public long trackedConnections() {
+            return trackedConnections.sum();
+        }
+
+        /**
+         * Returns the highest packets per second of a single connection reported within the last two seconds.
+         *
+         * @return highest recent packets per second of a connection
+         */
+        public synchronized long peakPacketsPerSecond() {
+            return peakPacketsPerSecond;
+        }
+    }
 }
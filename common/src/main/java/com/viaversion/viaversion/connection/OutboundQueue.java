@@ -0,0 +1,298 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.connection;
+
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Per-connection queue for packets generated by Via itself, written from the event loop in batches.
+ * <p>
+ * Submissions from any thread are collected and run by a single event loop task, in the order they have been queued.
+ * Packets queued with a collapse key replace a still pending packet of the same key, so that only the latest one is sent.
+ * While the channel is not writable, writes of such packets are held back instead of piling up in Netty's outbound buffer,
+ * up to {@link #MAX_HELD_BACK} of them, while all other packets are still sent right away.
+ */
+public final class OutboundQueue {
+
+    /**
+     * Maximum number of held back writes, after which writes go to Netty's outbound buffer regardless of writability.
+     */
+    public static final int MAX_HELD_BACK = 1024;
+    private static final String LISTENER_NAME = "via-outbound-queue";
+    private static final long UNWRITABLE_RETRY_MILLIS = 5;
+    private final Queue<Entry> writes = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> passedOn = new ConcurrentLinkedQueue<>();
+    private final Map<Object, Entry> collapsible = new ConcurrentHashMap<>();
+    // Collapsible writes held back while the channel is not writable, event loop confined
+    private final Map<Object, Entry> deferred = new LinkedHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder heldBack = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final UserConnection connection;
+    // Event loop confined
+    private boolean holdingBack;
+    private boolean listening;
+
+    OutboundQueue(final UserConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Queues the given task.
+     *
+     * @param task        task sending the packet
+     * @param collapseKey key to replace a still pending task of the same key with, or null
+     * @param onDiscard   run instead of the task if it is dropped, e.g. to release buffers, or null
+     * @param write       whether the task writes to the channel, holding back collapsible writes while it is not writable
+     */
+    public void add(final Runnable task, @Nullable final Object collapseKey, @Nullable final Runnable onDiscard, final boolean write) {
+        final Entry entry = new Entry(task, collapseKey, onDiscard);
+        pending.incrementAndGet();
+        if (write) {
+            writes.add(entry);
+        } else {
+            passedOn.add(entry);
+        }
+        if (collapseKey != null) {
+            final Entry previous = collapsible.put(collapseKey, entry);
+            if (previous != null && previous.discard()) {
+                finished(previous);
+                collapsed.increment();
+            }
+        }
+
+        final Channel channel = connection.getChannel();
+        if (channel == null) {
+            // Dummy connection without a channel
+            drain();
+        } else if (scheduled.compareAndSet(false, true)) {
+            try {
+                channel.eventLoop().execute(this::drain);
+            } catch (final Throwable t) {
+                // Event loop has been shut down
+                scheduled.set(false);
+                discardAll();
+            }
+        }
+    }
+
+    private void drain() {
+        scheduled.set(false);
+        final Channel channel = connection.getChannel();
+        if (channel != null && !channel.isOpen()) {
+            discardAll();
+            return;
+        }
+
+        Entry entry;
+        while ((entry = passedOn.poll()) != null) {
+            run(entry);
+        }
+
+        final boolean writable = channel == null || channel.isWritable();
+        if (writable && !deferred.isEmpty()) {
+            final Iterator<Entry> iterator = deferred.values().iterator();
+            while (iterator.hasNext()) {
+                entry = iterator.next();
+                iterator.remove();
+                run(entry);
+            }
+        }
+
+        while ((entry = writes.poll()) != null) {
+            if (writable || entry.collapseKey == null) {
+                run(entry);
+            } else if (deferred.size() >= MAX_HELD_BACK) {
+                overflowed.increment();
+                run(entry);
+            } else {
+                // Send the latest one once the client has caught up; a still held back entry has been collapsed by now
+                deferred.remove(entry.collapseKey);
+                deferred.put(entry.collapseKey, entry);
+            }
+        }
+
+        if (deferred.isEmpty()) {
+            holdingBack = false;
+        } else if (!holdingBack) {
+            holdingBack = true;
+            heldBack.increment();
+            awaitWritable(channel);
+        }
+    }
+
+    private void run(final Entry entry) {
+        if (entry.collapseKey != null) {
+            collapsible.remove(entry.collapseKey, entry);
+        }
+        if (!entry.claim()) {
+            return; // Collapsed
+        }
+
+        finished(entry);
+        try {
+            entry.task.run();
+        } catch (final Throwable t) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Failed to send queued packet", t);
+        }
+    }
+
+    private void awaitWritable(final Channel channel) {
+        if (!listening) {
+            try {
+                // First in the pipeline, so that no other handler can swallow the event
+                channel.pipeline().addFirst(LISTENER_NAME, new WritabilityListener());
+                listening = true;
+            } catch (final RuntimeException e) {
+                // Already taken, check back periodically instead
+                channel.eventLoop().schedule(this::wakeUp, UNWRITABLE_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+
+        if (channel.isWritable()) {
+            // Became writable in the meantime
+            channel.eventLoop().execute(this::wakeUp);
+        }
+    }
+
+    private void wakeUp() {
+        final Channel channel = connection.getChannel();
+        if (!listening && holdingBack && channel != null && channel.isOpen() && !channel.isWritable()) {
+            channel.eventLoop().schedule(this::wakeUp, UNWRITABLE_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        holdingBack = false;
+        if (scheduled.compareAndSet(false, true)) {
+            drain();
+        }
+    }
+
+    private void discardAll() {
+        Entry entry;
+        while ((entry = passedOn.poll()) != null || (entry = writes.poll()) != null) {
+            if (entry.discard()) {
+                finished(entry);
+            }
+        }
+        for (final Entry deferredEntry : deferred.values()) {
+            if (deferredEntry.discard()) {
+                finished(deferredEntry);
+            }
+        }
+        deferred.clear();
+        collapsible.clear();
+    }
+
+    private void finished(final Entry entry) {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * Returns the number of queued tasks that have not been run or dropped yet.
+     *
+     * @return number of pending tasks
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Returns the number of tasks replaced by a later task of the same collapse key.
+     *
+     * @return number of collapsed tasks
+     */
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    /**
+     * Returns the number of times queued writes have started being held back due to the channel not being writable.
+     *
+     * @return number of times the queue has been held back
+     */
+    public long heldBack() {
+        return heldBack.sum();
+    }
+
+    /**
+     * Returns the number of collapsible writes made to a non-writable channel after exceeding {@link #MAX_HELD_BACK}.
+     *
+     * @return number of writes beyond the held back maximum
+     */
+    public long overflowed() {
+        return overflowed.sum();
+    }
+
+    private final class WritabilityListener extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+            if (holdingBack && ctx.channel().isWritable()) {
+                wakeUp();
+            }
+            super.channelWritabilityChanged(ctx);
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final Runnable task;
+        private final Object collapseKey;
+        private final Runnable onDiscard;
+
+        private Entry(final Runnable task, @Nullable final Object collapseKey, @Nullable final Runnable onDiscard) {
+            this.task = task;
+            this.collapseKey = collapseKey;
+            this.onDiscard = onDiscard;
+        }
+
+        boolean claim() {
+            return done.compareAndSet(false, true);
+        }
+
+        boolean discard() {
+            if (!claim()) {
+                return false;
+            }
+            if (onDiscard != null) {
+                onDiscard.run();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.connection;
+
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.configuration.ViaVersionConfig;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
+import com.viaversion.viaversion.api.protocol.packet.PacketTracker;
+import com.viaversion.viaversion.api.protocol.packet.PacketType;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.configuration.AbstractViaConfig;
+import com.viaversion.viaversion.scheduler.ConnectionTimer;
+import java.util.List;
+
+/**
+ * Token bucket limiter for serverbound packets, with optional separate budgets for single packet types.
+ * <p>
+ * Buckets hold up to a second's worth of packets and are refilled based on the coarse clock of the
+ * {@link ConnectionTimer}, so a packet costs a few arithmetic operations instead of system clock reads.
+ * The per second statistics and warnings are still written to the connection's {@link PacketTracker}.
+ */
+public final class PacketLimiter {
+
+    // Bucket contents are stored in thousandths of a packet, so that refilling by the millisecond stays exact
+    private static final long PACKET_COST = 1000;
+    private final UserConnection connection;
+    private final PacketTracker tracker;
+    private final ConnectionTimer clock;
+    private final PacketLimiterSettings fallbackSettings;
+    private final ConnectionManagerImpl connectionManager;
+    private long tokens;
+    private long lastRefill;
+    private PacketLimiterSettings typeSettings;
+    private long[] typeTokens;
+    private long[] typeLastRefill;
+
+    public PacketLimiter(final UserConnection connection, final PacketTracker tracker) {
+        this.connection = connection;
+        this.tracker = tracker;
+        this.clock = ((ViaManagerImpl) Via.getManager()).getConnectionTimer();
+        final ViaVersionConfig config = Via.getConfig();
+        this.fallbackSettings = config instanceof AbstractViaConfig ? null : PacketLimiterSettings.of(config);
+        this.connectionManager = Via.getManager().getConnectionManager() instanceof ConnectionManagerImpl
+                ? (ConnectionManagerImpl) Via.getManager().getConnectionManager() : null;
+    }
+
+    /**
+     * Counts a received packet and checks it against the total budget of the connection.
+     *
+     * @return false if the packet should be cancelled
+     */
+    public boolean checkReceived() {
+        final PacketLimiterSettings settings = settings();
+        final long now = clock.currentTimeMillis();
+        tracker.setReceivedPackets(tracker.getReceivedPackets() + 1);
+
+        if (now - tracker.getStartTime() >= 1000) {
+            final long previousPPS = tracker.getPacketsPerSecond();
+            tracker.setPacketsPerSecond(tracker.getIntervalPackets());
+            if (connectionManager != null) {
+                connectionManager.onPacketsPerSecondUpdate(connection, previousPPS, tracker.getPacketsPerSecond(), now);
+            }
+            tracker.setStartTime(now);
+            tracker.setIntervalPackets(1);
+            if (settings.isTracking() && exceedsWarnings(settings)) {
+                return false;
+            }
+        } else {
+            tracker.setIntervalPackets(tracker.getIntervalPackets() + 1);
+        }
+
+        if (settings.isPPSLimited()) {
+            final int maxPPS = settings.maxPPS();
+            tokens = Math.min(maxPPS * PACKET_COST, tokens + (now - lastRefill) * maxPPS);
+            lastRefill = now;
+            if (tokens < PACKET_COST) {
+                final long pps = Math.max(tracker.getPacketsPerSecond(), tracker.getIntervalPackets());
+                connection.disconnect(settings.maxPPSKickMessage().replace("%pps", Long.toString(pps)));
+                return false;
+            }
+            tokens -= PACKET_COST;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the packet against the budget of its packet type, if there is one.
+     *
+     * @param state    state of the connection
+     * @param packetId packet id as sent by the client
+     * @return false if the packet should be cancelled
+     */
+    public boolean checkReceived(final State state, final int packetId) {
+        final PacketLimiterSettings settings = settings();
+        if (!settings.hasTypeLimits()) {
+            return true;
+        }
+
+        // The first non-base protocol in serverbound order holds the client's packet types
+        final ProtocolPipeline pipeline = connection.getProtocolInfo().getPipeline();
+        final List<Protocol> pipes = pipeline.pipes();
+        if (pipes.size() <= pipeline.baseProtocolCount()) {
+            return true;
+        }
+
+        final PacketType type = pipes.get(pipeline.baseProtocolCount()).getPacketTypesProvider().unmappedServerboundType(state, packetId);
+        final int index = type != null ? settings.typeIndex(type) : -1;
+        if (index == -1) {
+            return true;
+        }
+
+        if (typeSettings != settings) {
+            // Config has been reloaded
+            typeSettings = settings;
+            typeTokens = new long[settings.typeCount()];
+            typeLastRefill = new long[settings.typeCount()];
+        }
+
+        final long now = clock.currentTimeMillis();
+        final int limit = settings.typeLimit(index);
+        final long tokens = Math.min(limit * PACKET_COST, typeTokens[index] + (now - typeLastRefill[index]) * limit);
+        typeLastRefill[index] = now;
+        if (tokens < PACKET_COST) {
+            typeTokens[index] = tokens;
+            connection.disconnect(settings.maxPPSKickMessage().replace("%pps", limit + " " + settings.typeName(index)));
+            return false;
+        }
+        typeTokens[index] = tokens - PACKET_COST;
+        return true;
+    }
+
+    private boolean exceedsWarnings(final PacketLimiterSettings settings) {
+        if (tracker.getSecondsObserved() > settings.trackingPeriod()) {
+            // Reset
+            tracker.setWarnings(0);
+            tracker.setSecondsObserved(1);
+            return false;
+        }
+
+        tracker.setSecondsObserved(tracker.getSecondsObserved() + 1);
+        if (tracker.getPacketsPerSecond() >= settings.warningPPS()) {
+            tracker.setWarnings(tracker.getWarnings() + 1);
+        }
+
+        if (tracker.getWarnings() >= settings.maxWarnings()) {
+            connection.disconnect(settings.maxWarningsKickMessage().replace("%pps", Long.toString(tracker.getPacketsPerSecond())));
+            return true;
+        }
+        return false;
+    }
+
+    private PacketLimiterSettings settings() {
+        return fallbackSettings != null ? fallbackSettings : ((AbstractViaConfig) Via.getConfig()).getPacketLimiterSettings();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.connection;
+
+import com.viaversion.viaversion.api.configuration.ViaVersionConfig;
+import com.viaversion.viaversion.api.protocol.packet.PacketType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the packet limiter options, taken whenever the config is (re)loaded.
+ */
+public final class PacketLimiterSettings {
+
+    private final int maxPPS;
+    private final String maxPPSKickMessage;
+    private final int trackingPeriod;
+    private final int warningPPS;
+    private final int maxWarnings;
+    private final String maxWarningsKickMessage;
+    private final String[] typeNames;
+    private final int[] typeLimits;
+    private final Map<PacketType, Integer> typeIndexes = new ConcurrentHashMap<>();
+
+    private PacketLimiterSettings(final ViaVersionConfig config) {
+        this.maxPPS = config.getMaxPPS();
+        this.maxPPSKickMessage = config.getMaxPPSKickMessage();
+        this.trackingPeriod = config.getTrackingPeriod();
+        this.warningPPS = config.getWarningPPS();
+        this.maxWarnings = config.getMaxWarnings();
+        this.maxWarningsKickMessage = config.getMaxWarningsKickMessage();
+
+        final List<String> names = new ArrayList<>();
+        final List<Integer> limits = new ArrayList<>();
+        for (final Map.Entry<String, Integer> entry : config.getPacketTypeLimits().entrySet()) {
+            if (entry.getValue() > 0) {
+                names.add(entry.getKey());
+                limits.add(entry.getValue());
+            }
+        }
+        this.typeNames = names.toArray(new String[0]);
+        this.typeLimits = limits.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static PacketLimiterSettings of(final ViaVersionConfig config) {
+        return new PacketLimiterSettings(config);
+    }
+
+    public boolean isPPSLimited() {
+        return maxPPS > 0;
+    }
+
+    public boolean isTracking() {
+        return maxWarnings > 0 && trackingPeriod > 0;
+    }
+
+    public boolean hasTypeLimits() {
+        return typeLimits.length != 0;
+    }
+
+    /**
+     * Returns the index of the budget for the given packet type, or -1 if it is not limited on its own.
+     *
+     * @param type packet type as sent by the client
+     * @return budget index, or -1 if not limited
+     */
+    public int typeIndex(final PacketType type) {
+        return typeIndexes.computeIfAbsent(type, t -> {
+            for (int i = 0; i < typeNames.length; i++) {
+                if (typeNames[i].equals(t.getName())) {
+                    return i;
+                }
+            }
+            return -1;
+        });
+    }
+
+    public String typeName(final int index) {
+        return typeNames[index];
+    }
+
+    public int typeLimit(final int index) {
+        return typeLimits[index];
+    }
+
+    public int typeCount() {
+        return typeLimits.length;
+    }
+
+    public int maxPPS() {
+        return maxPPS;
+    }
+
+    public String maxPPSKickMessage() {
+        return maxPPSKickMessage;
+    }
+
+    public int trackingPeriod() {
+        return trackingPeriod;
+    }
+
+    public int warningPPS() {
+        return warningPPS;
+    }
+
+    public int maxWarnings() {
+        return maxWarnings;
+    }
+
+    public String maxWarningsKickMessage() {
+        return maxWarningsKickMessage;
+    }
+}
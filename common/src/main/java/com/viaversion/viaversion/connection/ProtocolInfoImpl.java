@@ -82,7 +82,11 @@ public class ProtocolInfoImpl implements ProtocolInfo {
 
     @Override
     public void setServerProtocolVersion(ProtocolVersion serverProtocolVersion) {
+        ProtocolVersion previous = this.serverProtocolVersion;
         this.serverProtocolVersion = serverProtocolVersion;
+        if (previous != serverProtocolVersion && Via.getManager().getConnectionManager() instanceof ConnectionManagerImpl) {
+            ((ConnectionManagerImpl) Via.getManager().getConnectionManager()).onServerProtocolVersionChange(connection, previous);
+        }
     }
 
     @Override
@@ -30,6 +30,7 @@ import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.exception.CancelException;
+import com.viaversion.viaversion.handlers.OrderedConversionQueue;
 import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
 import com.viaversion.viaversion.util.ChatColorUtil;
 import com.viaversion.viaversion.util.PipelineUtil;
@@ -37,33 +38,59 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import java.security.SecureRandom;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class UserConnectionImpl implements UserConnection {
     private static final AtomicLong IDS = new AtomicLong();
     private final long id = IDS.incrementAndGet();
+    private static final ClassSlotStore.Slots STORAGE_SLOTS = new ClassSlotStore.Slots();
+    private static final ClassSlotStore.Slots PROTOCOL_SLOTS = new ClassSlotStore.Slots();
+    // Maps are kept for iteration and the API views, lookups go through the slot stores
     private final Map<Class<?>, StorableObject> storedObjects = new ConcurrentHashMap<>();
+    private final ClassSlotStore<StorableObject> storedObjectSlots = new ClassSlotStore<>(STORAGE_SLOTS);
+    private final Map<Class<?>, StorableObject> storedObjectsView = new StoredObjectsView();
     private final Map<Class<? extends Protocol>, EntityTracker> entityTrackers = new HashMap<>();
+    private final ClassSlotStore<EntityTracker> entityTrackerSlots = new ClassSlotStore<>(PROTOCOL_SLOTS);
     private final PacketTracker packetTracker = new PacketTracker(this);
-    private final Set<UUID> passthroughTokens = Collections.newSetFromMap(CacheBuilder.newBuilder()
-            .expireAfterWrite(10, TimeUnit.SECONDS)
-            .<UUID, Boolean>build().asMap());
+    private PacketLimiter packetLimiter;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final int OUTSTANDING_NONCES = 64;
+    // Nonces are the counter xor'd with a secret, clients can never observe them
+    private final long passthroughSecret = SECURE_RANDOM.nextLong();
+    private final AtomicLong passthroughCounter = new AtomicLong();
+    private final AtomicLong outstandingNonces = new AtomicLong();
+    private volatile Set<UUID> passthroughTokens;
     private final ProtocolInfo protocolInfo = new ProtocolInfoImpl(this);
     private final Channel channel;
     private final boolean clientSide;
+    private final OutboundQueue outboundQueue = new OutboundQueue(this);
+    private volatile OrderedConversionQueue conversionQueue;
     private boolean active = true;
     private boolean pendingDisconnect;
     private boolean packetLimiterEnabled = true;
+    private boolean batchingWrites;
+    // Serverbound packets received while held, confined to the event loop
+    private static final int MAX_HELD_SERVERBOUND = 1024;
+    private final Queue<ByteBuf> heldServerbound = new ArrayDeque<>();
+    private int serverboundHolds;
 
     /**
      * Creates an UserConnection. When it's a client-side connection, some method behaviors are modified.
@@ -85,17 +112,21 @@ public class UserConnectionImpl implements UserConnection {
 
     @Override
     public @Nullable <T extends StorableObject> T get(Class<T> objectClass) {
-        return (T) storedObjects.get(objectClass);
+        return (T) storedObjectSlots.get(objectClass);
     }
 
     @Override
     public boolean has(Class<? extends StorableObject> objectClass) {
-        return storedObjects.containsKey(objectClass);
+        return storedObjectSlots.get(objectClass) != null;
     }
 
     @Override
     public <T extends StorableObject> @Nullable T remove(Class<T> objectClass) {
-        final StorableObject object = storedObjects.remove(objectClass);
+        final StorableObject object;
+        synchronized (storedObjectSlots) {
+            object = storedObjects.remove(objectClass);
+            storedObjectSlots.set(objectClass, null);
+        }
         if (object != null) {
             object.onRemove();
         }
@@ -104,7 +135,11 @@ public class UserConnectionImpl implements UserConnection {
 
     @Override
     public void put(StorableObject object) {
-        final StorableObject previousObject = storedObjects.put(object.getClass(), object);
+        final StorableObject previousObject;
+        synchronized (storedObjectSlots) {
+            previousObject = storedObjects.put(object.getClass(), object);
+            storedObjectSlots.set(object.getClass(), object);
+        }
         if (previousObject != null) {
             previousObject.onRemove();
         }
@@ -117,26 +152,33 @@ public class UserConnectionImpl implements UserConnection {
 
     @Override
     public @Nullable <T extends EntityTracker> T getEntityTracker(Class<? extends Protocol> protocolClass) {
-        return (T) entityTrackers.get(protocolClass);
+        return (T) entityTrackerSlots.get(protocolClass);
     }
 
     @Override
     public void addEntityTracker(Class<? extends Protocol> protocolClass, EntityTracker tracker) {
         if (!entityTrackers.containsKey(protocolClass)) {
             entityTrackers.put(protocolClass, tracker);
+            entityTrackerSlots.set(protocolClass, tracker);
+        } else {
+            // Created again by a rebuilt pipeline, the existing tracker is kept
+            tracker.onRemove();
         }
     }
 
     @Override
     public void clearStoredObjects(boolean isServerSwitch) {
         if (isServerSwitch) {
-            storedObjects.values().removeIf(storableObject -> {
-                if (storableObject.clearOnServerSwitch()) {
-                    storableObject.onRemove();
-                    return true;
-                }
-                return false;
-            });
+            synchronized (storedObjectSlots) {
+                storedObjects.values().removeIf(storableObject -> {
+                    if (storableObject.clearOnServerSwitch()) {
+                        storedObjectSlots.set(storableObject.getClass(), null);
+                        storableObject.onRemove();
+                        return true;
+                    }
+                    return false;
+                });
+            }
             for (EntityTracker tracker : entityTrackers.values()) {
                 tracker.clearEntities();
                 tracker.trackClientEntity();
@@ -145,8 +187,15 @@ public class UserConnectionImpl implements UserConnection {
             for (StorableObject object : storedObjects.values()) {
                 object.onRemove();
             }
-            storedObjects.clear();
+            synchronized (storedObjectSlots) {
+                storedObjects.clear();
+                storedObjectSlots.clear();
+            }
+            for (EntityTracker tracker : entityTrackers.values()) {
+                tracker.onRemove();
+            }
             entityTrackers.clear();
+            entityTrackerSlots.clear();
         }
     }
 
@@ -167,17 +216,102 @@ public class UserConnectionImpl implements UserConnection {
             act = () -> getChannel().pipeline()
                     .context(Via.getManager().getInjector().getDecoderName()).fireChannelRead(packet);
         } else {
-            act = () -> channel.pipeline().context(Via.getManager().getInjector().getEncoderName()).writeAndFlush(packet);
+            act = () -> {
+                final ChannelHandlerContext context = channel.pipeline().context(Via.getManager().getInjector().getEncoderName());
+                final OrderedConversionQueue conversionQueue = this.conversionQueue;
+                if (conversionQueue != null && conversionQueue.offerTransformed(context, packet, null)) {
+                    // Written behind the packets held back for a chunk conversion
+                    return;
+                }
+                if (batchingWrites) {
+                    context.write(packet);
+                } else {
+                    context.writeAndFlush(packet);
+                }
+            };
         }
         if (currentThread) {
             act.run();
         } else {
+            outboundQueue.add(act, null, packet::release, !clientSide);
+        }
+    }
+
+    @Override
+    public void scheduleOutbound(final Runnable task, final Direction direction, @Nullable final Object collapseKey) {
+        // Only packets to the other end of the channel have to wait for it to be writable
+        outboundQueue.add(task, collapseKey, null, (direction == Direction.CLIENTBOUND) != clientSide);
+    }
+
+    /**
+     * Sets the queue holding back clientbound packets during async chunk conversions, for packets sent by Via to be queued behind them.
+     *
+     * @param conversionQueue conversion queue of the connection's encoder
+     */
+    public void setConversionQueue(final OrderedConversionQueue conversionQueue) {
+        this.conversionQueue = conversionQueue;
+    }
+
+    public OutboundQueue getOutboundQueue() {
+        return outboundQueue;
+    }
+
+    /**
+     * Makes packets sent to the client on the current thread only be written, until {@link #endWriteBatch()} flushes them at once.
+     * Has to be called from the channel's event loop.
+     */
+    public void beginWriteBatch() {
+        batchingWrites = !clientSide && channel != null;
+    }
+
+    /**
+     * Ends a batch started with {@link #beginWriteBatch()}, flushing the written packets.
+     */
+    public void endWriteBatch() {
+        if (!batchingWrites) {
+            return;
+        }
+
+        batchingWrites = false;
+        channel.pipeline().context(Via.getManager().getInjector().getEncoderName()).flush();
+    }
+
+    /**
+     * Holds back all following serverbound packets until {@link #releaseServerbound()} has been called as often as this method,
+     * for packets that are sent asynchronously to still reach the server in the order they have been received.
+     * Has to be called from the channel's event loop.
+     */
+    public void holdServerbound() {
+        serverboundHolds++;
+    }
+
+    /**
+     * Releases a hold added with {@link #holdServerbound()}, transforming and sending the held packets once no hold is left.
+     * Packets that add a new hold while being transformed stop the replay again. Has to be called from the channel's event loop.
+     */
+    public void releaseServerbound() {
+        if (serverboundHolds > 0) {
+            serverboundHolds--;
+        }
+
+        ByteBuf buf;
+        while (serverboundHolds == 0 && (buf = heldServerbound.poll()) != null) {
+            if (channel == null || !channel.isActive()) {
+                buf.release();
+                continue;
+            }
+
             try {
-                channel.eventLoop().submit(act);
-            } catch (Throwable e) {
-                packet.release(); // Couldn't schedule
-                e.printStackTrace();
+                transform(buf, Direction.SERVERBOUND, t -> CancelException.generate(), true);
+            } catch (final CancelException e) {
+                buf.release();
+                continue;
+            } catch (final Exception e) {
+                buf.release();
+                Via.getPlatform().getLogger().log(Level.WARNING, "Failed to transform held serverbound packet", e);
+                continue;
             }
+            sendRawPacketToServer(buf);
         }
     }
 
@@ -188,7 +322,16 @@ public class UserConnectionImpl implements UserConnection {
             getChannel().pipeline().context(Via.getManager().getInjector().getDecoderName()).fireChannelRead(packet);
             return getChannel().newSucceededFuture();
         } else {
-            return channel.pipeline().context(Via.getManager().getInjector().getEncoderName()).writeAndFlush(packet);
+            final ChannelHandlerContext context = channel.pipeline().context(Via.getManager().getInjector().getEncoderName());
+            final OrderedConversionQueue conversionQueue = this.conversionQueue;
+            if (conversionQueue != null) {
+                final ChannelPromise promise = context.newPromise();
+                if (conversionQueue.offerTransformed(context, packet, promise)) {
+                    return promise;
+                }
+                return context.writeAndFlush(packet, promise);
+            }
+            return context.writeAndFlush(packet);
         }
     }
 
@@ -228,6 +371,12 @@ public class UserConnectionImpl implements UserConnection {
     }
 
     private void sendRawPacketToServerServerSide(final ByteBuf packet, boolean currentThread) {
+        if (!currentThread) {
+            // Only add the passthrough nonce once sent, so it can't go stale while queued
+            outboundQueue.add(() -> sendRawPacketToServerServerSide(packet, true), null, packet::release, false);
+            return;
+        }
+
         final ByteBuf buf = packet.alloc().buffer();
         try {
             // We'll use passing through because there are some encoder wrappers
@@ -237,31 +386,18 @@ public class UserConnectionImpl implements UserConnection {
             if (shouldTransformPacket()) {
                 // Bypass serverbound packet decoder transforming
                 try {
-                    Type.VAR_INT.writePrimitive(buf, PacketWrapper.PASSTHROUGH_ID);
-                    Type.UUID.write(buf, generatePassthroughToken());
+                    Type.VAR_INT.writePrimitive(buf, PacketWrapper.PASSTHROUGH_NONCE_ID);
+                    buf.writeLong(generatePassthroughNonce());
                 } catch (Exception shouldNotHappen) {
                     throw new RuntimeException(shouldNotHappen);
                 }
             }
 
             buf.writeBytes(packet);
-            Runnable act = () -> {
-                if (context != null) {
-                    context.fireChannelRead(buf);
-                } else {
-                    channel.pipeline().fireChannelRead(buf);
-                }
-            };
-            if (currentThread) {
-                act.run();
+            if (context != null) {
+                context.fireChannelRead(buf);
             } else {
-                try {
-                    channel.eventLoop().submit(act);
-                } catch (Throwable t) {
-                    // Couldn't schedule
-                    buf.release();
-                    throw t;
-                }
+                channel.pipeline().fireChannelRead(buf);
             }
         } finally {
             packet.release();
@@ -274,12 +410,7 @@ public class UserConnectionImpl implements UserConnection {
         if (currentThread) {
             act.run();
         } else {
-            try {
-                getChannel().eventLoop().submit(act);
-            } catch (Throwable e) {
-                e.printStackTrace();
-                packet.release(); // Couldn't schedule
-            }
+            outboundQueue.add(act, null, packet::release, true);
         }
     }
 
@@ -288,8 +419,14 @@ public class UserConnectionImpl implements UserConnection {
         if (pendingDisconnect) {
             return false;
         }
-        // Increment received + Check PPS
-        return !packetLimiterEnabled || !packetTracker.incrementReceived() || !packetTracker.exceedsMaxPPS();
+        if (!packetLimiterEnabled || clientSide) {
+            // Don't apply PPS limiting for client-side
+            return true;
+        }
+        if (packetLimiter == null) {
+            packetLimiter = new PacketLimiter(this, packetTracker);
+        }
+        return packetLimiter.checkReceived();
     }
 
     @Override
@@ -305,27 +442,60 @@ public class UserConnectionImpl implements UserConnection {
 
     @Override
     public void transformClientbound(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
-        transform(buf, Direction.CLIENTBOUND, cancelSupplier);
+        transform(buf, Direction.CLIENTBOUND, cancelSupplier, false);
     }
 
     @Override
     public void transformServerbound(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
-        transform(buf, Direction.SERVERBOUND, cancelSupplier);
+        transform(buf, Direction.SERVERBOUND, cancelSupplier, false);
     }
 
-    private void transform(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
+    private void transform(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier, boolean held) throws Exception {
         if (!buf.isReadable()) return;
 
+        final int readerIndex = buf.readerIndex();
         int id = Type.VAR_INT.readPrimitive(buf);
+        if (id == PacketWrapper.PASSTHROUGH_NONCE_ID) {
+            if (!consumePassthroughNonce(buf.readLong())) {
+                throw new IllegalArgumentException("Invalid token");
+            }
+            return;
+        }
         if (id == PacketWrapper.PASSTHROUGH_ID) {
-            if (!passthroughTokens.remove(Type.UUID.read(buf))) {
+            final Set<UUID> passthroughTokens = this.passthroughTokens;
+            if (passthroughTokens == null || !passthroughTokens.remove(Type.UUID.read(buf))) {
                 throw new IllegalArgumentException("Invalid token");
             }
             return;
         }
 
-        PacketWrapper wrapper = new PacketWrapperImpl(id, buf, this);
         State state = protocolInfo.getState(direction);
+        if (!held && direction == Direction.SERVERBOUND) {
+            if (packetLimiter != null && !packetLimiter.checkReceived(state, id)) {
+                throw cancelSupplier.apply(null);
+            }
+            if (serverboundHolds > 0 || !heldServerbound.isEmpty()) {
+                if (heldServerbound.size() >= MAX_HELD_SERVERBOUND) {
+                    // The client keeps sending faster than the held packets are released, don't buffer without limit
+                    ByteBuf held;
+                    while ((held = heldServerbound.poll()) != null) {
+                        held.release();
+                    }
+                    if (channel != null && channel.isActive()) {
+                        Via.getPlatform().getLogger().warning("Closing connection of " + protocolInfo.getUsername()
+                                + " after holding back more than " + MAX_HELD_SERVERBOUND + " serverbound packets");
+                        channel.close();
+                    }
+                    throw cancelSupplier.apply(null);
+                }
+
+                // Transformed and sent once released
+                heldServerbound.add(buf.copy(readerIndex, buf.writerIndex() - readerIndex));
+                throw cancelSupplier.apply(null);
+            }
+        }
+
+        PacketWrapper wrapper = new PacketWrapperImpl(id, buf, this);
         try {
             protocolInfo.getPipeline().transform(direction, state, wrapper);
         } catch (CancelException ex) {
@@ -358,7 +528,7 @@ public class UserConnectionImpl implements UserConnection {
 
     @Override
     public Map<Class<?>, StorableObject> getStoredObjects() {
-        return storedObjects;
+        return storedObjectsView;
     }
 
     @Override
@@ -402,12 +572,51 @@ public class UserConnectionImpl implements UserConnection {
     }
 
     @Override
+    @Deprecated
     public UUID generatePassthroughToken() {
+        Set<UUID> passthroughTokens = this.passthroughTokens;
+        if (passthroughTokens == null) {
+            synchronized (this) {
+                passthroughTokens = this.passthroughTokens;
+                if (passthroughTokens == null) {
+                    this.passthroughTokens = passthroughTokens = Collections.newSetFromMap(CacheBuilder.newBuilder()
+                            .expireAfterWrite(10, TimeUnit.SECONDS)
+                            .<UUID, Boolean>build().asMap());
+                }
+            }
+        }
+
         UUID token = UUID.randomUUID();
         passthroughTokens.add(token);
         return token;
     }
 
+    @Override
+    public long generatePassthroughNonce() {
+        final long counter = passthroughCounter.incrementAndGet();
+        // Marks the nonce as outstanding, implicitly expiring the one OUTSTANDING_NONCES before it
+        outstandingNonces.getAndAccumulate(1L << (counter & (OUTSTANDING_NONCES - 1)), (mask, bit) -> mask | bit);
+        return counter ^ passthroughSecret;
+    }
+
+    private boolean consumePassthroughNonce(final long nonce) {
+        final long counter = nonce ^ passthroughSecret;
+        final long current = passthroughCounter.get();
+        if (counter <= 0 || counter > current || current - counter >= OUTSTANDING_NONCES) {
+            return false;
+        }
+
+        final long bit = 1L << (counter & (OUTSTANDING_NONCES - 1));
+        long mask;
+        do {
+            mask = outstandingNonces.get();
+            if ((mask & bit) == 0) {
+                return false; // Already used
+            }
+        } while (!outstandingNonces.compareAndSet(mask, mask & ~bit));
+        return true;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -420,4 +629,99 @@ public class UserConnectionImpl implements UserConnection {
     public int hashCode() {
         return Long.hashCode(id);
     }
+
+    /**
+     * Mutable view of the stored objects, keeping the slot store in sync with changes made through it.
+     * Like the plain map it replaces, it does not call {@link StorableObject#onRemove()}.
+     */
+    private final class StoredObjectsView extends AbstractMap<Class<?>, StorableObject> {
+
+        @Override
+        public @Nullable StorableObject get(final Object key) {
+            return storedObjects.get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return storedObjects.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return storedObjects.size();
+        }
+
+        @Override
+        public @Nullable StorableObject put(final Class<?> key, final StorableObject value) {
+            synchronized (storedObjectSlots) {
+                final StorableObject previousObject = storedObjects.put(key, value);
+                storedObjectSlots.set(key, value);
+                return previousObject;
+            }
+        }
+
+        @Override
+        public @Nullable StorableObject remove(final Object key) {
+            if (!(key instanceof Class)) {
+                return null;
+            }
+
+            synchronized (storedObjectSlots) {
+                final StorableObject previousObject = storedObjects.remove(key);
+                storedObjectSlots.set((Class<?>) key, null);
+                return previousObject;
+            }
+        }
+
+        @Override
+        public void clear() {
+            synchronized (storedObjectSlots) {
+                storedObjects.clear();
+                storedObjectSlots.clear();
+            }
+        }
+
+        @Override
+        public Set<Entry<Class<?>, StorableObject>> entrySet() {
+            return new AbstractSet<Entry<Class<?>, StorableObject>>() {
+                @Override
+                public Iterator<Entry<Class<?>, StorableObject>> iterator() {
+                    final Iterator<Entry<Class<?>, StorableObject>> iterator = storedObjects.entrySet().iterator();
+                    return new Iterator<Entry<Class<?>, StorableObject>>() {
+                        private Entry<Class<?>, StorableObject> current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Class<?>, StorableObject> next() {
+                            current = iterator.next();
+                            return new SimpleEntry<Class<?>, StorableObject>(current) {
+                                @Override
+                                public StorableObject setValue(final StorableObject value) {
+                                    put(getKey(), value);
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            synchronized (storedObjectSlots) {
+                                iterator.remove();
+                                storedObjectSlots.set(current.getKey(), null);
+                            }
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return storedObjects.size();
+                }
+            };
+        }
+    }
 }
@@ -19,6 +19,7 @@
 package com.viaversion.viaversion.data.entity;
 
 import com.google.common.base.Preconditions;
+import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.entity.ClientEntityIdChangeListener;
 import com.viaversion.viaversion.api.data.entity.DimensionData;
@@ -27,6 +28,7 @@ import com.viaversion.viaversion.api.data.entity.StoredEntityData;
 import com.viaversion.viaversion.api.data.entity.TrackedEntity;
 import com.viaversion.viaversion.api.minecraft.entities.EntityType;
 import com.viaversion.viaversion.util.Key;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import java.util.Collections;
@@ -34,7 +36,11 @@ import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class EntityTrackerBase implements EntityTracker, ClientEntityIdChangeListener {
-    private final Int2ObjectMap<TrackedEntity> entities = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<TrackedEntity> entities;
+    private final SharedEntityTable sharedEntities;
+    private final int column;
+    private final int maxEntities;
+    private int evictedEntities;
     private final UserConnection connection;
     private final EntityType playerType;
     private int clientEntityId = -1;
@@ -47,6 +53,29 @@ public class EntityTrackerBase implements EntityTracker, ClientEntityIdChangeLis
     public EntityTrackerBase(UserConnection connection, @Nullable EntityType playerType) {
         this.connection = connection;
         this.playerType = playerType;
+        this.maxEntities = Via.getConfig().getMaxTrackedEntities();
+
+        final SharedEntityTable sharedEntities = Via.getConfig().isSharedEntityTracker() ? sharedEntityTable(connection) : null;
+        final int column = sharedEntities != null ? sharedEntities.addColumn(this) : -1;
+        if (column != -1) {
+            this.entities = null;
+            this.sharedEntities = sharedEntities;
+            this.column = column;
+        } else {
+            // Keep entities in access order if they may have to be evicted
+            this.entities = maxEntities > 0 ? new Int2ObjectLinkedOpenHashMap<>() : new Int2ObjectOpenHashMap<>();
+            this.sharedEntities = null;
+            this.column = -1;
+        }
+    }
+
+    private static SharedEntityTable sharedEntityTable(final UserConnection connection) {
+        SharedEntityTable table = connection.get(SharedEntityTable.class);
+        if (table == null) {
+            table = new SharedEntityTable();
+            connection.put(table);
+        }
+        return table;
     }
 
     @Override
@@ -56,46 +85,150 @@ public class EntityTrackerBase implements EntityTracker, ClientEntityIdChangeLis
 
     @Override
     public void addEntity(int id, EntityType type) {
-        entities.put(id, new TrackedEntityImpl(type));
+        putEntity(id, type);
+    }
+
+    private void putEntity(final int id, final EntityType type) {
+        if (sharedEntities != null) {
+            sharedEntities.put(column, id, type);
+            if (maxEntities > 0) {
+                evictedEntities += sharedEntities.trim(maxEntities, clientEntityId);
+            }
+        } else if (maxEntities > 0) {
+            final Int2ObjectLinkedOpenHashMap<TrackedEntity> entities = (Int2ObjectLinkedOpenHashMap<TrackedEntity>) this.entities;
+            entities.putAndMoveToLast(id, new TrackedEntityImpl(type));
+            evictedEntities += trim(entities);
+        } else {
+            entities.put(id, new TrackedEntityImpl(type));
+        }
+    }
+
+    /**
+     * Removes the least recently used entities other than the client entity until at most the configured
+     * maximum is left. Entities are removed through {@link #removeEntity(int)}, so that subclasses can drop
+     * their additionally stored entity state.
+     *
+     * @param entities entities in access order
+     * @return number of removed entities
+     */
+    private int trim(final Int2ObjectLinkedOpenHashMap<TrackedEntity> entities) {
+        int removed = 0;
+        while (entities.size() > maxEntities) {
+            final int entityId = entities.firstIntKey();
+            if (entityId == clientEntityId) {
+                if (entities.size() == 1) {
+                    break;
+                }
+                entities.getAndMoveToLast(entityId);
+                continue;
+            }
+
+            removeEntity(entityId);
+            // Make sure the entity is gone even if an override did not call super
+            entities.remove(entityId);
+            removed++;
+        }
+        return removed;
     }
 
     @Override
     public boolean hasEntity(int id) {
-        return entities.containsKey(id);
+        return sharedEntities != null ? sharedEntities.contains(column, id) : entities.containsKey(id);
     }
 
     @Override
     public @Nullable TrackedEntity entity(final int entityId) {
-        return entities.get(entityId);
+        if (sharedEntities != null) {
+            return sharedEntities.get(column, entityId);
+        }
+        // Mark the entity as recently used
+        return maxEntities > 0 ? ((Int2ObjectLinkedOpenHashMap<TrackedEntity>) entities).getAndMoveToLast(entityId) : entities.get(entityId);
     }
 
     @Override
     public @Nullable EntityType entityType(int id) {
-        final TrackedEntity entity = entities.get(id);
+        final TrackedEntity entity = entity(id);
         return entity != null ? entity.entityType() : null;
     }
 
     @Override
     public @Nullable StoredEntityData entityData(int id) {
-        final TrackedEntity entity = entities.get(id);
+        final TrackedEntity entity = entity(id);
         return entity != null ? entity.data() : null;
     }
 
     @Override
     public @Nullable StoredEntityData entityDataIfPresent(int id) {
-        final TrackedEntity entity = entities.get(id);
+        final TrackedEntity entity = entity(id);
         return entity != null && entity.hasData() ? entity.data() : null;
     }
 
-    //TODO Soft memory leak: Remove entities on respawn in protocols prior to 1.18 (1.16+ only when the worldname is different)
     @Override
     public void removeEntity(int id) {
-        entities.remove(id);
+        if (sharedEntities != null) {
+            sharedEntities.remove(column, id);
+        } else {
+            entities.remove(id);
+        }
     }
 
     @Override
     public void clearEntities() {
-        entities.clear();
+        if (sharedEntities != null) {
+            sharedEntities.clear(column);
+        } else {
+            entities.clear();
+        }
+    }
+
+    @Override
+    public void onRemove() {
+        if (sharedEntities != null) {
+            // Let another tracker of the connection use the column
+            sharedEntities.removeColumn(column);
+        }
+    }
+
+    @Override
+    public boolean trackWorld(final String world) {
+        final String currentWorld = currentWorld();
+        setCurrentWorld(world);
+        if (currentWorld == null || currentWorld.equals(world)) {
+            return false;
+        }
+
+        // Remove them one by one for subclasses to drop their additionally stored entity state
+        final int[] entityIds = sharedEntities != null ? sharedEntities.entityIds(column) : entities.keySet().toIntArray();
+        for (final int entityId : entityIds) {
+            removeEntity(entityId);
+        }
+        clearEntities();
+        trackClientEntity();
+        return true;
+    }
+
+    @Override
+    public int entityCount() {
+        // The shared table counts the entities of all protocols of the connection
+        return sharedEntities != null ? sharedEntities.size() : entities.size();
+    }
+
+    /**
+     * Returns whether the entities are stored in the connection's {@link SharedEntityTable}.
+     *
+     * @return whether the shared entity table is used
+     */
+    public boolean usesSharedTable() {
+        return sharedEntities != null;
+    }
+
+    /**
+     * Returns the number of entities dropped after reaching the configured maximum of tracked entities.
+     *
+     * @return number of evicted entities
+     */
+    public int evictedEntities() {
+        return evictedEntities;
     }
 
     @Override
@@ -106,11 +239,17 @@ public class EntityTrackerBase implements EntityTracker, ClientEntityIdChangeLis
     @Override
     public void setClientEntityId(int clientEntityId) {
         Preconditions.checkNotNull(playerType);
-        final TrackedEntity oldEntity;
-        if (this.clientEntityId != -1 && (oldEntity = entities.remove(this.clientEntityId)) != null) {
-            entities.put(clientEntityId, oldEntity);
+        if (sharedEntities != null) {
+            if (this.clientEntityId == -1 || !sharedEntities.move(column, this.clientEntityId, clientEntityId)) {
+                sharedEntities.put(column, clientEntityId, playerType);
+            }
         } else {
-            entities.put(clientEntityId, new TrackedEntityImpl(playerType));
+            final TrackedEntity oldEntity;
+            if (this.clientEntityId != -1 && (oldEntity = entities.remove(this.clientEntityId)) != null) {
+                entities.put(clientEntityId, oldEntity);
+            } else {
+                entities.put(clientEntityId, new TrackedEntityImpl(playerType));
+            }
         }
 
         this.clientEntityId = clientEntityId;
@@ -119,7 +258,7 @@ public class EntityTrackerBase implements EntityTracker, ClientEntityIdChangeLis
     @Override
     public boolean trackClientEntity() {
         if (clientEntityId != -1) {
-            entities.put(clientEntityId, new TrackedEntityImpl(playerType));
+            putEntity(clientEntityId, playerType);
             return true;
         }
         return false;
@@ -0,0 +1,370 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.data.entity;
+
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.StorableObject;
+import com.viaversion.viaversion.api.data.entity.EntityTracker;
+import com.viaversion.viaversion.api.data.entity.StoredEntityData;
+import com.viaversion.viaversion.api.data.entity.TrackedEntity;
+import com.viaversion.viaversion.api.minecraft.entities.EntityType;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Entity table shared by the entity trackers of all protocols in a connection's pipeline.
+ * <p>
+ * Every tracker gets its own column, holding the entity type as seen by its protocol. Entity data is only
+ * allocated for columns that actually use it.
+ * <p>
+ * Rows are kept in access order, so that {@link #trim(int, int)} can drop the entities that have been used the least recently.
+ */
+public final class SharedEntityTable implements StorableObject {
+    /**
+     * Maximum number of columns, bound by the bits available for the sent metadata flags.
+     */
+    public static final int MAX_COLUMNS = Long.SIZE;
+    private final Int2ObjectLinkedOpenHashMap<Row> rows = new Int2ObjectLinkedOpenHashMap<>();
+    private EntityTracker[] trackers = new EntityTracker[0];
+    private long freeColumns;
+    private int columns;
+    private boolean loggedFull;
+
+    /**
+     * Returns a column index for the given tracker, reusing a column freed by {@link #removeColumn(int)} if possible,
+     * or -1 if no more columns are available.
+     * <p>
+     * Entities evicted by {@link #trim(int, int)} are removed through the tracker owning the column.
+     *
+     * @param tracker entity tracker owning the column
+     * @return column index, or -1
+     */
+    public int addColumn(final EntityTracker tracker) {
+        if (freeColumns != 0) {
+            final int column = Long.numberOfTrailingZeros(freeColumns);
+            freeColumns &= ~(1L << column);
+            trackers[column] = tracker;
+            return column;
+        }
+
+        if (columns >= MAX_COLUMNS) {
+            if (!loggedFull) {
+                loggedFull = true;
+                Via.getPlatform().getLogger().warning("Shared entity table is out of columns, falling back to separate entity maps for "
+                        + tracker.getClass().getSimpleName() + " and further trackers of the connection");
+            }
+            return -1;
+        }
+
+        trackers = Arrays.copyOf(trackers, columns + 1);
+        trackers[columns] = tracker;
+        return columns++;
+    }
+
+    /**
+     * Removes all entities of the given column and frees it for another tracker.
+     *
+     * @param column column index
+     */
+    public void removeColumn(final int column) {
+        clear(column);
+        trackers[column] = null;
+        freeColumns |= 1L << column;
+    }
+
+    public void put(final int column, final int entityId, final EntityType type) {
+        Row row = rows.get(entityId);
+        if (row == null) {
+            row = new Row(columns);
+            rows.putAndMoveToLast(entityId, row);
+        }
+        row.set(column, type);
+    }
+
+    public boolean contains(final int column, final int entityId) {
+        final Row row = rows.get(entityId);
+        return row != null && row.type(column) != null;
+    }
+
+    public @Nullable TrackedEntity get(final int column, final int entityId) {
+        final Row row = rows.getAndMoveToLast(entityId);
+        return row != null && row.type(column) != null ? row.view(column) : null;
+    }
+
+    public void remove(final int column, final int entityId) {
+        final Row row = rows.get(entityId);
+        if (row != null && row.remove(column)) {
+            rows.remove(entityId);
+        }
+    }
+
+    /**
+     * Moves the entity of the given column to another entity id, keeping its data.
+     *
+     * @param column     column index
+     * @param fromEntity old entity id
+     * @param toEntity   new entity id
+     * @return whether the entity was present and has been moved
+     */
+    public boolean move(final int column, final int fromEntity, final int toEntity) {
+        final Row from = rows.get(fromEntity);
+        if (from == null || from.type(column) == null) {
+            return false;
+        }
+
+        final EntityType type = from.type(column);
+        final StoredEntityData data = from.data(column);
+        final boolean sentMetadata = from.sentMetadata(column);
+        remove(column, fromEntity);
+        put(column, toEntity, type);
+
+        final Row to = rows.get(toEntity);
+        to.setData(column, data);
+        to.setSentMetadata(column, sentMetadata);
+        return true;
+    }
+
+    /**
+     * Returns the ids of all entities present in the given column.
+     *
+     * @param column column index
+     * @return entity ids of the column
+     */
+    public int[] entityIds(final int column) {
+        final IntArrayList entityIds = new IntArrayList();
+        for (final Int2ObjectMap.Entry<Row> entry : rows.int2ObjectEntrySet()) {
+            if (entry.getValue().type(column) != null) {
+                entityIds.add(entry.getIntKey());
+            }
+        }
+        return entityIds.toIntArray();
+    }
+
+    public void clear(final int column) {
+        final ObjectIterator<Row> iterator = rows.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().remove(column)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used entities from all columns until at most the given number of entities is left.
+     * Every column is cleared through {@link EntityTracker#removeEntity(int)} of its tracker, so that
+     * additionally stored entity state is dropped as well.
+     *
+     * @param maxEntities  maximum number of entities
+     * @param keptEntityId entity id to never remove, usually the client entity
+     * @return number of removed entities
+     */
+    public int trim(final int maxEntities, final int keptEntityId) {
+        int removed = 0;
+        while (rows.size() > maxEntities) {
+            final int entityId = rows.firstIntKey();
+            if (entityId == keptEntityId) {
+                if (rows.size() == 1) {
+                    break;
+                }
+                rows.getAndMoveToLast(entityId);
+                continue;
+            }
+
+            final Row row = rows.get(entityId);
+            for (int column = 0; column < columns; column++) {
+                if (row.type(column) != null && trackers[column] != null) {
+                    trackers[column].removeEntity(entityId);
+                }
+            }
+
+            // Make sure the row is gone even if a tracker did not remove its column
+            rows.remove(entityId);
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of distinct entities tracked by any column.
+     *
+     * @return number of distinct tracked entities
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean clearOnServerSwitch() {
+        // Kept by the entity trackers themselves
+        return false;
+    }
+
+    private static final class Row {
+        private EntityType[] types;
+        private StoredEntityData[] data;
+        private ColumnEntity[] views;
+        private long sentMetadata;
+        private int present;
+
+        private Row(final int columns) {
+            this.types = new EntityType[columns];
+        }
+
+        @Nullable EntityType type(final int column) {
+            return column < types.length ? types[column] : null;
+        }
+
+        void set(final int column, final EntityType type) {
+            if (column >= types.length) {
+                types = Arrays.copyOf(types, column + 1);
+            }
+            if (types[column] == null) {
+                present++;
+            }
+            types[column] = type;
+            setData(column, null);
+            setSentMetadata(column, false);
+        }
+
+        /**
+         * Removes the entity from the given column.
+         *
+         * @return whether the row is now empty
+         */
+        boolean remove(final int column) {
+            if (column < types.length && types[column] != null) {
+                types[column] = null;
+                setData(column, null);
+                setSentMetadata(column, false);
+                present--;
+            }
+            return present == 0;
+        }
+
+        /**
+         * Returns the row-backed view of the given column, created once and reused for every lookup.
+         */
+        ColumnEntity view(final int column) {
+            if (views == null) {
+                views = new ColumnEntity[types.length];
+            } else if (column >= views.length) {
+                views = Arrays.copyOf(views, types.length);
+            }
+
+            ColumnEntity view = views[column];
+            if (view == null) {
+                view = new ColumnEntity(this, column);
+                views[column] = view;
+            }
+            return view;
+        }
+
+        @Nullable StoredEntityData data(final int column) {
+            return data != null && column < data.length ? data[column] : null;
+        }
+
+        StoredEntityData getOrCreateData(final int column) {
+            StoredEntityData entityData = data(column);
+            if (entityData == null) {
+                entityData = new StoredEntityDataImpl(types[column]);
+                setData(column, entityData);
+            }
+            return entityData;
+        }
+
+        void setData(final int column, @Nullable final StoredEntityData entityData) {
+            if (entityData == null) {
+                if (data != null && column < data.length) {
+                    data[column] = null;
+                }
+                return;
+            }
+
+            if (data == null) {
+                data = new StoredEntityData[types.length];
+            } else if (column >= data.length) {
+                data = Arrays.copyOf(data, types.length);
+            }
+            data[column] = entityData;
+        }
+
+        boolean sentMetadata(final int column) {
+            return (sentMetadata & (1L << column)) != 0;
+        }
+
+        void setSentMetadata(final int column, final boolean sent) {
+            if (sent) {
+                sentMetadata |= 1L << column;
+            } else {
+                sentMetadata &= ~(1L << column);
+            }
+        }
+    }
+
+    private static final class ColumnEntity implements TrackedEntity {
+        private final Row row;
+        private final int column;
+
+        private ColumnEntity(final Row row, final int column) {
+            this.row = row;
+            this.column = column;
+        }
+
+        @Override
+        public EntityType entityType() {
+            return row.types[column];
+        }
+
+        @Override
+        public StoredEntityData data() {
+            return row.getOrCreateData(column);
+        }
+
+        @Override
+        public boolean hasData() {
+            return row.data(column) != null;
+        }
+
+        @Override
+        public boolean hasSentMetadata() {
+            return row.sentMetadata(column);
+        }
+
+        @Override
+        public void sentMetadata(final boolean sentMetadata) {
+            row.setSentMetadata(column, sentMetadata);
+        }
+
+        @Override
+        public String toString() {
+            return "ColumnEntity{" +
+                    "entityType=" + entityType() +
+                    ", column=" + column +
+                    ", sentMetadata=" + hasSentMetadata() +
+                    '}';
+        }
+    }
+}
@@ -24,7 +24,7 @@ import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class StoredEntityDataImpl implements StoredEntityData {
-    private final Map<Class<?>, Object> storedObjects = new HashMap<>();
+    private Map<Class<?>, Object> storedObjects;
     private final EntityType type;
 
     public StoredEntityDataImpl(EntityType type) {
@@ -39,22 +39,26 @@ public final class StoredEntityDataImpl implements StoredEntityData {
     @Override
     public @Nullable <T> T get(Class<T> objectClass) {
         //noinspection unchecked
-        return (T) storedObjects.get(objectClass);
+        return storedObjects != null ? (T) storedObjects.get(objectClass) : null;
     }
 
     @Override
     public <T> @Nullable T remove(Class<T> objectClass) {
         //noinspection unchecked
-        return (T) storedObjects.remove(objectClass);
+        return storedObjects != null ? (T) storedObjects.remove(objectClass) : null;
     }
 
     @Override
     public boolean has(Class<?> objectClass) {
-        return storedObjects.containsKey(objectClass);
+        return storedObjects != null && storedObjects.containsKey(objectClass);
     }
 
     @Override
     public void put(Object object) {
+        if (storedObjects == null) {
+            // Most entities only ever store a single object
+            storedObjects = new HashMap<>(2);
+        }
         storedObjects.put(object.getClass(), object);
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.handlers;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.api.Via;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Bounded worker pool used to convert chunk data packets off the Netty event loops.
+ *
+ * @see OrderedConversionQueue
+ */
+public final class ChunkConversionExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public ChunkConversionExecutor(final int threads, final int queueSize) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("Via Chunk Conversion %d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits the given conversion task.
+     *
+     * @param runnable conversion task
+     * @return false if the pool is saturated and the caller has to run the task itself
+     */
+    boolean submit(final Runnable runnable) {
+        final int size = queued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                runnable.run();
+            });
+        } catch (final RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+
+        maxQueued.accumulateAndGet(size, Math::max);
+        return true;
+    }
+
+    /**
+     * Records the time between a packet being taken off the pipeline and it being written back to the channel.
+     *
+     * @param nanos added latency in nanoseconds
+     */
+    void recordLatency(final long nanos) {
+        completed.increment();
+        totalLatency.add(nanos);
+        maxLatency.accumulateAndGet(nanos, Math::max);
+    }
+
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    public JsonObject metrics() {
+        final long completed = this.completed.sum();
+        final JsonObject object = new JsonObject();
+        object.addProperty("queue-depth", queueDepth());
+        object.addProperty("max-queue-depth", maxQueued.get());
+        object.addProperty("active-threads", executor.getActiveCount());
+        object.addProperty("completed", completed);
+        object.addProperty("rejected", rejected.sum());
+        object.addProperty("average-latency-ms", completed != 0 ? totalLatency.sum() / (double) completed / 1_000_000D : 0);
+        object.addProperty("max-latency-ms", maxLatency.get() / 1_000_000D);
+        return object;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Interrupted while shutting down chunk conversion", e);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.handlers;
+
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
+import com.viaversion.viaversion.api.protocol.packet.PacketType;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.exception.CancelCodecException;
+import com.viaversion.viaversion.exception.CancelEncoderException;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
+import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.Protocol1_14To1_13_2;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Per-connection queue moving chunk data conversion off the event loop, while keeping the original packet order.
+ * <p>
+ * Once a chunk packet has been handed to the {@link ChunkConversionExecutor}, every following clientbound packet
+ * of the connection is held back untransformed until the chunk has been written, and serverbound packets are held
+ * back by the connection, so that protocol storages are still only ever touched by one packet at a time.
+ * Packets sent by Via itself in the meantime are queued behind the held packets as well.
+ * <p>
+ * Except for the conversion itself, all methods have to be called from the channel's event loop.
+ */
+public final class OrderedConversionQueue {
+
+    private static final int MAX_HELD_PACKETS = 4096;
+    private final Queue<HeldPacket> heldPackets = new ArrayDeque<>();
+    // Packets sent while converting, written before the chunk; handed over to the event loop together with the result
+    private final Queue<HeldPacket> sentByConversion = new ArrayDeque<>();
+    private volatile Thread conversionThread;
+    private final ChunkConversionExecutor executor;
+    private final UserConnectionImpl connection;
+    private boolean converting;
+    private boolean overflowed;
+
+    private OrderedConversionQueue(final ChunkConversionExecutor executor, final UserConnectionImpl connection) {
+        this.executor = executor;
+        this.connection = connection;
+    }
+
+    /**
+     * Returns a new conversion queue for the given connection, or null if async chunk conversion is disabled.
+     * The queue is registered with the connection, so that packets sent through it are kept in order.
+     *
+     * @param connection user connection
+     * @return new conversion queue, or null if disabled
+     */
+    public static @Nullable OrderedConversionQueue create(final UserConnection connection) {
+        final ChunkConversionExecutor executor = ((ViaManagerImpl) Via.getManager()).getChunkConversionExecutor();
+        if (executor == null || connection.isClientSide() || !(connection instanceof UserConnectionImpl)) {
+            return null;
+        }
+
+        final UserConnectionImpl connectionImpl = (UserConnectionImpl) connection;
+        final OrderedConversionQueue queue = new OrderedConversionQueue(executor, connectionImpl);
+        connectionImpl.setConversionQueue(queue);
+        return queue;
+    }
+
+    /**
+     * Takes over the given untransformed packet if it either has to be converted asynchronously or has to wait for a previous conversion.
+     * The packet is retained if taken over; the caller should then cancel its own write.
+     *
+     * @param ctx encoder context to write converted packets from
+     * @param buf untransformed packet buffer
+     * @return true if the packet has been taken over by the queue
+     */
+    public boolean offer(final ChannelHandlerContext ctx, final ByteBuf buf) {
+        if (converting) {
+            hold(ctx, new HeldPacket(buf.retain(), false, null));
+            return true;
+        }
+
+        if (!isChunkData(buf)) {
+            return false;
+        }
+
+        if (!submit(ctx, buf.retain())) {
+            // Saturated, just convert it on the event loop
+            buf.release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes over the given already transformed packet if it has to wait for a previous conversion.
+     * Ownership of the packet is passed to the queue if taken over. May be called from any thread.
+     *
+     * @param ctx     encoder context to write the packet from
+     * @param buf     transformed packet buffer
+     * @param promise promise to complete once written, or null
+     * @return true if the packet has been taken over by the queue
+     */
+    public boolean offerTransformed(final ChannelHandlerContext ctx, final ByteBuf buf, @Nullable final ChannelPromise promise) {
+        if (Thread.currentThread() == conversionThread) {
+            sentByConversion.add(new HeldPacket(buf, true, promise));
+            return true;
+        }
+        if (!ctx.executor().inEventLoop()) {
+            // Has to be checked on the event loop, where a conversion might have started by the time the write would have been processed
+            try {
+                ctx.executor().execute(() -> {
+                    if (!offerTransformed(ctx, buf, promise)) {
+                        write(ctx, buf, promise);
+                        ctx.flush();
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                buf.release();
+                if (promise != null) {
+                    promise.setFailure(e);
+                }
+            }
+            return true;
+        }
+
+        if (!converting) {
+            return false;
+        }
+
+        hold(ctx, new HeldPacket(buf, true, promise));
+        return true;
+    }
+
+    private void hold(final ChannelHandlerContext ctx, final HeldPacket packet) {
+        if (overflowed) {
+            packet.discard();
+            return;
+        }
+
+        if (heldPackets.size() >= MAX_HELD_PACKETS) {
+            // The server keeps sending faster than chunks are converted, don't buffer without limit
+            overflowed = true;
+            packet.discard();
+            releaseHeldPackets();
+            Via.getPlatform().getLogger().warning("Closing connection of " + connection.getProtocolInfo().getUsername()
+                    + " after holding back more than " + MAX_HELD_PACKETS + " packets during chunk conversion");
+            ctx.channel().close();
+            return;
+        }
+
+        heldPackets.add(packet);
+    }
+
+    private boolean submit(final ChannelHandlerContext ctx, final ByteBuf buf) {
+        final long start = System.nanoTime();
+        converting = true;
+        connection.holdServerbound();
+        final boolean submitted = executor.submit(() -> {
+            ByteBuf transformed = buf;
+            Throwable error = null;
+            conversionThread = Thread.currentThread();
+            try {
+                connection.transformClientbound(buf, CancelEncoderException::generate);
+            } catch (final Throwable t) {
+                buf.release();
+                transformed = null;
+                if (!(t instanceof CancelCodecException)) {
+                    error = t;
+                }
+            } finally {
+                conversionThread = null;
+            }
+
+            final ByteBuf result = transformed;
+            final Throwable cause = error;
+            try {
+                ctx.executor().execute(() -> complete(ctx, result, cause, start));
+            } catch (final Throwable t) {
+                // Event loop has been shut down
+                if (result != null) {
+                    result.release();
+                }
+            }
+        });
+        if (!submitted) {
+            converting = false;
+            connection.releaseServerbound();
+        }
+        return submitted;
+    }
+
+    private void complete(final ChannelHandlerContext ctx, @Nullable final ByteBuf transformed, @Nullable final Throwable cause, final long start) {
+        executor.recordLatency(System.nanoTime() - start);
+        converting = false;
+        // Serverbound packets received during the conversion can be handled again now that storages are no longer in use
+        connection.releaseServerbound();
+        final boolean active = ctx.channel().isActive() && !overflowed;
+        HeldPacket packet;
+        while ((packet = sentByConversion.poll()) != null) {
+            if (active) {
+                write(ctx, packet.buf, packet.promise);
+            } else {
+                packet.discard();
+            }
+        }
+        if (!active) {
+            if (transformed != null) {
+                transformed.release();
+            }
+            releaseHeldPackets();
+            return;
+        }
+
+        if (transformed != null) {
+            ctx.write(transformed);
+        } else if (cause != null) {
+            ctx.fireExceptionCaught(cause);
+        }
+
+        while ((packet = heldPackets.poll()) != null) {
+            final ByteBuf buf = packet.buf;
+            if (packet.transformed) {
+                write(ctx, buf, packet.promise);
+                continue;
+            }
+
+            if (isChunkData(buf) && submit(ctx, buf)) {
+                break;
+            }
+
+            try {
+                connection.transformClientbound(buf, CancelEncoderException::generate);
+                ctx.write(buf);
+            } catch (final CancelCodecException ignored) {
+                buf.release();
+            } catch (final Throwable t) {
+                buf.release();
+                ctx.fireExceptionCaught(t);
+            }
+        }
+        ctx.flush();
+    }
+
+    private static void write(final ChannelHandlerContext ctx, final ByteBuf buf, @Nullable final ChannelPromise promise) {
+        if (promise != null) {
+            ctx.write(buf, promise);
+        } else {
+            ctx.write(buf);
+        }
+    }
+
+    private boolean isChunkData(final ByteBuf buf) {
+        if (!buf.isReadable() || connection.getProtocolInfo().getServerState() != State.PLAY) {
+            return false;
+        }
+
+        // Only worth it for the expensive legacy chunk conversions
+        final ProtocolPipeline pipeline = connection.getProtocolInfo().getPipeline();
+        if (!pipeline.contains(Protocol1_13To1_12_2.class) && !pipeline.contains(Protocol1_14To1_13_2.class)) {
+            return false;
+        }
+
+        // The first non-base protocol in clientbound order holds the server's packet types
+        final Protocol<?, ?, ?, ?> serverProtocol = pipeline.reversedPipes().get(pipeline.baseProtocolCount());
+        final int readerIndex = buf.readerIndex();
+        final int id = Type.VAR_INT.readPrimitive(buf);
+        buf.readerIndex(readerIndex);
+
+        final PacketType type = serverProtocol.getPacketTypesProvider().unmappedClientboundType(State.PLAY, id);
+        return type != null && type.getName().equals("CHUNK_DATA");
+    }
+
+    private void releaseHeldPackets() {
+        HeldPacket packet;
+        while ((packet = heldPackets.poll()) != null) {
+            packet.discard();
+        }
+    }
+
+    public int heldPackets() {
+        return heldPackets.size();
+    }
+
+    private static final class HeldPacket {
+        private final ByteBuf buf;
+        private final boolean transformed;
+        private final ChannelPromise promise;
+
+        private HeldPacket(final ByteBuf buf, final boolean transformed, @Nullable final ChannelPromise promise) {
+            this.buf = buf;
+            this.transformed = transformed;
+            this.promise = promise;
+        }
+
+        private void discard() {
+            buf.release();
+            if (promise != null) {
+                promise.tryFailure(new IllegalStateException("Connection closed while holding back packets"));
+            }
+        }
+    }
+}
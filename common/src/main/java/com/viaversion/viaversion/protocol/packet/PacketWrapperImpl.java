@@ -149,6 +149,10 @@ public class PacketWrapperImpl implements PacketWrapper {
             && type.getOutputClass() == readType.getOutputClass())) {
             //noinspection unchecked
             return (T) readValue.value();
+        } else if (readValue.value() != null && type instanceof TypeConverter<?> && ((TypeConverter<?>) type).converts(readType)) {
+            // E.g. lazily read tags read as full tags and vice versa
+            //noinspection unchecked
+            return ((TypeConverter<T>) type).from(readValue.value());
         } else {
             throw createInformativeException(new IOException("Unable to read type " + type.getTypeName() + ", found " + readValue.type().getTypeName()), type, readableObjects.size());
         }
@@ -257,7 +261,16 @@ public class PacketWrapperImpl implements PacketWrapper {
         send0(protocol, skipCurrentPipeline, false);
     }
 
+    @Override
+    public void scheduleSendCollapsing(Class<? extends Protocol> protocol, Object collapseKey) throws Exception {
+        send0(protocol, true, false, collapseKey);
+    }
+
     private void send0(Class<? extends Protocol> protocol, boolean skipCurrentPipeline, boolean currentThread) throws Exception {
+        send0(protocol, skipCurrentPipeline, currentThread, null);
+    }
+
+    private void send0(Class<? extends Protocol> protocol, boolean skipCurrentPipeline, boolean currentThread, @Nullable Object collapseKey) throws Exception {
         if (isCancelled()) {
             return;
         }
@@ -275,7 +288,7 @@ public class PacketWrapperImpl implements PacketWrapper {
             return;
         }
 
-        connection.getChannel().eventLoop().submit(() -> {
+        connection.scheduleOutbound(() -> {
             try {
                 final ByteBuf output = constructPacket(protocol, skipCurrentPipeline, Direction.CLIENTBOUND);
                 connection.sendRawPacket(output);
@@ -288,7 +301,7 @@ public class PacketWrapperImpl implements PacketWrapper {
                     throw new RuntimeException(e);
                 }
             }
-        });
+        }, Direction.CLIENTBOUND, collapseKey);
     }
 
     /**
@@ -462,7 +475,16 @@ public class PacketWrapperImpl implements PacketWrapper {
         sendToServer0(protocol, skipCurrentPipeline, false);
     }
 
+    @Override
+    public void scheduleSendToServerCollapsing(Class<? extends Protocol> protocol, Object collapseKey) throws Exception {
+        sendToServer0(protocol, true, false, collapseKey);
+    }
+
     private void sendToServer0(Class<? extends Protocol> protocol, boolean skipCurrentPipeline, boolean currentThread) throws Exception {
+        sendToServer0(protocol, skipCurrentPipeline, currentThread, null);
+    }
+
+    private void sendToServer0(Class<? extends Protocol> protocol, boolean skipCurrentPipeline, boolean currentThread, @Nullable Object collapseKey) throws Exception {
         if (isCancelled()) {
             return;
         }
@@ -480,7 +502,7 @@ public class PacketWrapperImpl implements PacketWrapper {
             return;
         }
 
-        connection.getChannel().eventLoop().submit(() -> {
+        connection.scheduleOutbound(() -> {
             try {
                 final ByteBuf output = constructPacket(protocol, skipCurrentPipeline, Direction.SERVERBOUND);
                 connection.sendRawPacketToServer(output);
@@ -493,7 +515,7 @@ public class PacketWrapperImpl implements PacketWrapper {
                     throw new RuntimeException(e);
                 }
             }
-        });
+        }, Direction.SERVERBOUND, collapseKey);
     }
 
     @Override
@@ -240,6 +240,7 @@ public class Protocol1_11To1_10 extends AbstractProtocol<ClientboundPackets1_9_3
                     ClientWorld clientChunks = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 1);
                     clientChunks.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_11To1_10.class).trackWorld(Integer.toString(dimensionId));
                 });
             }
         });
@@ -251,6 +252,7 @@ public class Protocol1_11To1_10 extends AbstractProtocol<ClientboundPackets1_9_3
                     ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 0);
                     clientWorld.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_11To1_10.class).trackWorld(Integer.toString(dimensionId));
                 });
             }
         });
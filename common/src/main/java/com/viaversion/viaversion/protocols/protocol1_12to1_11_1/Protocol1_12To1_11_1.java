@@ -154,6 +154,7 @@ public class Protocol1_12To1_11_1 extends AbstractProtocol<ClientboundPackets1_9
                     ClientWorld clientChunks = user.get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 1);
                     clientChunks.setEnvironment(dimensionId);
+                    user.getEntityTracker(Protocol1_12To1_11_1.class).trackWorld(Integer.toString(dimensionId));
 
                     // Reset recipes
                     if (user.getProtocolInfo().protocolVersion().newerThanOrEqualTo(ProtocolVersion.v1_13)) {
@@ -171,6 +172,7 @@ public class Protocol1_12To1_11_1 extends AbstractProtocol<ClientboundPackets1_9
                     ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 0);
                     clientWorld.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_12To1_11_1.class).trackWorld(Integer.toString(dimensionId));
                 });
             }
         });
@@ -107,6 +107,7 @@ public class WorldPackets {
                     ClientWorld clientChunks = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 1);
                     clientChunks.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_13_1To1_13.class).trackWorld(Integer.toString(dimensionId));
                 });
             }
         });
@@ -119,6 +120,7 @@ public class WorldPackets {
                     ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 0);
                     clientWorld.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_13_1To1_13.class).trackWorld(Integer.toString(dimensionId));
                 });
             }
         });
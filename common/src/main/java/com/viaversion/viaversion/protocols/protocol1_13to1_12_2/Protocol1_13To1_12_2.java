@@ -173,7 +173,7 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
         WorldPackets.register(this);
 
         registerClientbound(State.LOGIN, ClientboundLoginPackets.LOGIN_DISCONNECT.getId(), ClientboundLoginPackets.LOGIN_DISCONNECT.getId(), wrapper -> {
-            componentRewriter.processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT));
+            componentRewriter.passthroughAndProcessText(wrapper);
         });
 
         registerClientbound(State.STATUS, ClientboundStatusPackets.STATUS_RESPONSE.getId(), ClientboundStatusPackets.STATUS_RESPONSE.getId(), new PacketHandlers() {
@@ -300,7 +300,7 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
             public void register() {
                 map(Type.UNSIGNED_BYTE); // Id
                 map(Type.STRING); // Window type
-                handler(wrapper -> componentRewriter.processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT))); // Title
+                handler(wrapper -> componentRewriter.passthroughAndProcessText(wrapper)); // Title
             }
         });
 
@@ -423,7 +423,10 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
                     ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 0);
                     clientWorld.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_13To1_12_2.class).trackWorld(Integer.toString(dimensionId));
 
+                    // The client drops all chunks on respawn
+                    wrapper.user().get(BlockStorage.class).clear();
                     if (Via.getConfig().isServersideBlockConnections()) {
                         ConnectionData.clearBlockStorage(wrapper.user());
                     }
@@ -515,8 +518,8 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
         new SoundRewriter<>(this).registerSound(ClientboundPackets1_12_1.SOUND);
 
         registerClientbound(ClientboundPackets1_12_1.TAB_LIST, wrapper -> {
-            componentRewriter.processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT));
-            componentRewriter.processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT));
+            componentRewriter.passthroughAndProcessText(wrapper);
+            componentRewriter.passthroughAndProcessText(wrapper);
         });
 
         registerClientbound(ClientboundPackets1_12_1.ADVANCEMENTS, wrapper -> {
@@ -529,8 +532,8 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
 
                 // Display data
                 if (wrapper.passthrough(Type.BOOLEAN)) {
-                    componentRewriter.processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT)); // Title
-                    componentRewriter.processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT)); // Description
+                    componentRewriter.passthroughAndProcessText(wrapper); // Title
+                    componentRewriter.passthroughAndProcessText(wrapper); // Description
                     Item icon = wrapper.read(Type.ITEM1_8);
                     itemRewriter.handleItemToClient(wrapper.user(), icon);
                     wrapper.write(Type.ITEM1_13, icon); // Translate item to flat item
@@ -591,6 +594,7 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
                         wrapper.cancel();
                         tracker.setTimeToSend(System.currentTimeMillis() + Via.getConfig().get1_13TabCompleteDelay() * 50L);
                         tracker.setLastTabComplete(wrapper.get(Type.STRING, 0));
+                        tracker.scheduleSend(wrapper.user());
                     }
                 });
             }
@@ -854,10 +858,6 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
                 .reader(11, ParticleType.Readers.DUST)
                 .reader(27, ParticleType.Readers.ITEM1_13);
 
-        if (Via.getConfig().isServersideBlockConnections() && Via.getManager().getProviders().get(BlockConnectionProvider.class) instanceof PacketBlockConnectionProvider) {
-            BlockConnectionStorage.init();
-        }
-
         super.onMappingDataLoaded();
     }
 
@@ -19,8 +19,8 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import java.util.Arrays;
@@ -61,13 +61,13 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
         return states;
     }
 
-    protected byte getStates(UserConnection user, Position position, int blockState) {
+    protected byte getStates(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
         byte states = 0;
         boolean pre1_12 = user.getProtocolInfo().serverProtocolVersion().olderThan(ProtocolVersion.v1_12);
-        if (connects(BlockFace.EAST, getBlockData(user, position.getRelative(BlockFace.EAST)), pre1_12)) states |= 1;
-        if (connects(BlockFace.NORTH, getBlockData(user, position.getRelative(BlockFace.NORTH)), pre1_12)) states |= 2;
-        if (connects(BlockFace.SOUTH, getBlockData(user, position.getRelative(BlockFace.SOUTH)), pre1_12)) states |= 4;
-        if (connects(BlockFace.WEST, getBlockData(user, position.getRelative(BlockFace.WEST)), pre1_12)) states |= 8;
+        if (connects(BlockFace.EAST, getBlockData(user, blocks, x, y, z, BlockFace.EAST), pre1_12)) states |= 1;
+        if (connects(BlockFace.NORTH, getBlockData(user, blocks, x, y, z, BlockFace.NORTH), pre1_12)) states |= 2;
+        if (connects(BlockFace.SOUTH, getBlockData(user, blocks, x, y, z, BlockFace.SOUTH), pre1_12)) states |= 4;
+        if (connects(BlockFace.WEST, getBlockData(user, blocks, x, y, z, BlockFace.WEST), pre1_12)) states |= 8;
         return states;
     }
 
@@ -76,13 +76,13 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int getBlockData(UserConnection user, Position position) {
-        return STAIR_CONNECTION_HANDLER.connect(user, position, super.getBlockData(user, position));
+    public int getBlockData(UserConnection user, UserBlockData blocks, int x, int y, int z) {
+        return STAIR_CONNECTION_HANDLER.connect(user, blocks, x, y, z, super.getBlockData(user, blocks, x, y, z));
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
-        final int newBlockState = connectedBlockStates[getStates(user, position, blockState)];
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
+        final int newBlockState = connectedBlockStates[getStates(user, blocks, x, y, z, blockState)];
         return newBlockState == -1 ? blockState : newBlockState;
     }
 
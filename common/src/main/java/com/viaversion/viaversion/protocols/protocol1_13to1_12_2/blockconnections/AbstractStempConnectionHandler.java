@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import java.util.EnumMap;
@@ -55,12 +55,12 @@ public abstract class AbstractStempConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
         if (blockState != baseStateId) {
             return blockState;
         }
         for (BlockFace blockFace : BLOCK_FACES) {
-            if (blockId.contains(getBlockData(user, position.getRelative(blockFace)))) {
+            if (blockId.contains(getBlockData(user, blocks, x, y, z, blockFace))) {
                 return stemps.get(blockFace);
             }
         }
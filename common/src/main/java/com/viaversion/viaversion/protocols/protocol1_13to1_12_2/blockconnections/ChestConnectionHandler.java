@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
@@ -62,7 +62,7 @@ class ChestConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
         BlockFace facing = CHEST_FACINGS.get(blockState);
         byte states = 0;
         states |= (facing.ordinal() << 2);
@@ -73,13 +73,13 @@ class ChestConnectionHandler extends ConnectionHandler {
         }
 
         int relative;
-        if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.NORTH))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        if (CHEST_FACINGS.containsKey(relative = getBlockData(user, blocks, x, y, z, BlockFace.NORTH)) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.WEST ? 1 : 2;
-        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.SOUTH))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, blocks, x, y, z, BlockFace.SOUTH)) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.EAST ? 1 : 2;
-        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.WEST))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, blocks, x, y, z, BlockFace.WEST)) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.NORTH ? 2 : 1;
-        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.EAST))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, blocks, x, y, z, BlockFace.EAST)) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.SOUTH ? 2 : 1;
         }
 
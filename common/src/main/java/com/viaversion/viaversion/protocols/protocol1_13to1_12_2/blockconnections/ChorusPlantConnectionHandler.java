@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -61,10 +61,10 @@ public class ChorusPlantConnectionHandler extends AbstractFenceConnectionHandler
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
-        byte states = super.getStates(user, position, blockState);
-        if (connects(BlockFace.TOP, getBlockData(user, position.getRelative(BlockFace.TOP)), false)) states |= 16;
-        if (connects(BlockFace.BOTTOM, getBlockData(user, position.getRelative(BlockFace.BOTTOM)), false)) states |= 32;
+    protected byte getStates(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
+        byte states = super.getStates(user, blocks, x, y, z, blockState);
+        if (connects(BlockFace.TOP, getBlockData(user, blocks, x, y, z, BlockFace.TOP), false)) states |= 16;
+        if (connects(BlockFace.BOTTOM, getBlockData(user, blocks, x, y, z, BlockFace.BOTTOM), false)) states |= 32;
         return states;
     }
 
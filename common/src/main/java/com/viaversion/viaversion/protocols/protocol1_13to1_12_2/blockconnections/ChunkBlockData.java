@@ -0,0 +1,65 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
+
+/**
+ * Block access for connecting a whole chunk, reading blocks inside the chunk straight from its section palettes.
+ * Only blocks outside the chunk or in sections not sent with it are resolved through the provider.
+ */
+final class ChunkBlockData implements UserBlockData {
+    private final DataPalette[] sections;
+    private final UserBlockData fallback;
+    private final boolean storedOnly;
+    private final int minX;
+    private final int minZ;
+
+    ChunkBlockData(final Chunk chunk, final UserBlockData fallback, final boolean storedOnly) {
+        final ChunkSection[] chunkSections = chunk.getSections();
+        this.sections = new DataPalette[chunkSections.length];
+        for (int i = 0; i < chunkSections.length; i++) {
+            final ChunkSection section = chunkSections[i];
+            if (section != null) {
+                sections[i] = section.palette(PaletteType.BLOCKS);
+            }
+        }
+        this.fallback = fallback;
+        this.storedOnly = storedOnly;
+        this.minX = chunk.getX() << 4;
+        this.minZ = chunk.getZ() << 4;
+    }
+
+    @Override
+    public int getBlockData(final int x, final int y, final int z) {
+        final int sectionY = y >> 4;
+        if (((x - minX) | (z - minZ)) >>> 4 == 0 && sectionY >= 0 && sectionY < sections.length) {
+            final DataPalette palette = sections[sectionY];
+            if (palette != null) {
+                final int id = palette.idAt(ChunkSection.index(x & 0xF, y & 0xF, z & 0xF));
+                // Match what the provider would return once the block has been stored
+                return !storedOnly || ConnectionData.isWelcome(id) ? id : 0;
+            }
+        }
+        return fallback.getBlockData(x, y, z);
+    }
+}
@@ -67,15 +67,16 @@ public final class ConnectionData {
     public static void update(UserConnection user, Position position) throws Exception {
         Boolean inSync = null;
 
+        UserBlockData userBlockData = blockConnectionProvider.forUser(user);
         for (BlockFace face : BlockFace.values()) {
             Position pos = position.getRelative(face);
-            int blockState = blockConnectionProvider.getBlockData(user, pos.x(), pos.y(), pos.z());
+            int blockState = userBlockData.getBlockData(pos.x(), pos.y(), pos.z());
             ConnectionHandler handler = connectionHandlerMap.get(blockState);
             if (handler == null) {
                 continue;
             }
 
-            int newBlockState = handler.connect(user, pos, blockState);
+            int newBlockState = handler.connect(user, userBlockData, pos.x(), pos.y(), pos.z(), blockState);
             if (newBlockState == blockState) {
                 if (inSync == null) {
                     inSync = blockConnectionProvider.storesBlocks(user, position);
@@ -122,6 +123,9 @@ public final class ConnectionData {
         int xOff = chunk.getX() << 4;
         int zOff = chunk.getZ() << 4;
 
+        // Neighbours inside the chunk are read from the section palettes directly
+        ChunkBlockData chunkBlockData = new ChunkBlockData(chunk, blockConnectionProvider.forUser(user), needStoreBlocks());
+
         for (int s = 0; s < chunk.getSections().length; s++) {
             ChunkSection section = chunk.getSections()[s];
             if (section == null) {
@@ -151,11 +155,13 @@ public final class ConnectionData {
                     continue;
                 }
 
-                Position position = new Position(xOff + ChunkSection.xFromIndex(idx), yOff + ChunkSection.yFromIndex(idx), zOff + ChunkSection.zFromIndex(idx));
-                int connectedId = handler.connect(user, position, id);
+                int x = xOff + ChunkSection.xFromIndex(idx);
+                int y = yOff + ChunkSection.yFromIndex(idx);
+                int z = zOff + ChunkSection.zFromIndex(idx);
+                int connectedId = handler.connect(user, chunkBlockData, x, y, z, id);
                 if (connectedId != id) {
                     blocks.setIdAt(idx, connectedId);
-                    updateBlockStorage(user, position.x(), position.y(), position.z(), connectedId);
+                    updateBlockStorage(user, x, y, z, connectedId);
                 }
             }
         }
@@ -737,8 +743,7 @@ public final class ConnectionData {
                 return;
             }
 
-            Position pos = new Position(x, y, z);
-            int newBlockState = handler.connect(user, pos, blockState);
+            int newBlockState = handler.connect(user, userBlockData, x, y, z, blockState);
             if (blockState != newBlockState || !blockConnectionProvider.storesBlocks(user, null)) {
                 records.add(new BlockChangeRecord1_8(x & 0xF, y, z & 0xF, newBlockState));
                 updateBlockStorage(user, x, y, z, newBlockState);
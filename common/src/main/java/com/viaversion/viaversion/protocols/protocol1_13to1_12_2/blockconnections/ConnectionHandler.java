@@ -18,13 +18,34 @@
 package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
 
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.minecraft.BlockFace;
 import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 
 public abstract class ConnectionHandler {
 
-    public abstract int connect(UserConnection user, Position position, int blockState);
+    /**
+     * Returns the connected block state of the block at the given position.
+     *
+     * @param user       user connection
+     * @param blocks     block access used to resolve neighbouring blocks
+     * @param x          block x
+     * @param y          block y
+     * @param z          block z
+     * @param blockState current block state
+     * @return connected block state
+     */
+    public abstract int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState);
 
-    public int getBlockData(UserConnection user, Position position) {
-        return ConnectionData.blockConnectionProvider.getBlockData(user, position.x(), position.y(), position.z());
+    public int connect(UserConnection user, Position position, int blockState) {
+        return connect(user, ConnectionData.blockConnectionProvider.forUser(user), position.x(), position.y(), position.z(), blockState);
+    }
+
+    public int getBlockData(UserConnection user, UserBlockData blocks, int x, int y, int z) {
+        return blocks.getBlockData(x, y, z);
+    }
+
+    protected int getBlockData(UserConnection user, UserBlockData blocks, int x, int y, int z, BlockFace face) {
+        return getBlockData(user, blocks, x + face.modX(), y + face.modY(), z + face.modZ());
     }
 }
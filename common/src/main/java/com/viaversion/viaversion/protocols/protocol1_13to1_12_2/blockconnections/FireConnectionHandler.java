@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import com.viaversion.viaversion.util.Key;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
@@ -76,13 +76,13 @@ public class FireConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
         byte states = 0;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.EAST)))) states |= 1;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.NORTH)))) states |= 2;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.SOUTH)))) states |= 4;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.TOP)))) states |= 8;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.WEST)))) states |= 16;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, blocks, x, y, z, BlockFace.EAST))) states |= 1;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, blocks, x, y, z, BlockFace.NORTH))) states |= 2;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, blocks, x, y, z, BlockFace.SOUTH))) states |= 4;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, blocks, x, y, z, BlockFace.TOP))) states |= 8;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, blocks, x, y, z, BlockFace.WEST))) states |= 16;
         return CONNECTED_BLOCKS[states];
     }
 }
@@ -20,7 +20,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import java.util.HashSet;
@@ -52,11 +52,11 @@ public class FlowerConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
-        int blockBelowId = getBlockData(user, position.getRelative(BlockFace.BOTTOM));
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
+        int blockBelowId = getBlockData(user, blocks, x, y, z, BlockFace.BOTTOM);
         int connectBelow = FLOWERS.get(blockBelowId);
         if (connectBelow != 0) {
-            int blockAboveId = getBlockData(user, position.getRelative(BlockFace.TOP));
+            int blockAboveId = getBlockData(user, blocks, x, y, z, BlockFace.TOP);
             if (Via.getConfig().isStemWhenBlockAbove()) {
                 if (blockAboveId == 0) {
                     return connectBelow;
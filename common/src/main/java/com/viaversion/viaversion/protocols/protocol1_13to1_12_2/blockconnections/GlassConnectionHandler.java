@@ -19,8 +19,8 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.ProtocolInfo;
 import com.viaversion.viaversion.api.connection.UserConnection;
-import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,8 +54,8 @@ public class GlassConnectionHandler extends AbstractFenceConnectionHandler {
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
-        byte states = super.getStates(user, position, blockState);
+    protected byte getStates(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
+        byte states = super.getStates(user, blocks, x, y, z, blockState);
         if (states != 0) return states;
 
         ProtocolInfo protocolInfo = user.getProtocolInfo();
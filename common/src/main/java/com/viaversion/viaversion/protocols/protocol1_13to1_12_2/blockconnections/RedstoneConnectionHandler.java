@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
@@ -69,28 +69,29 @@ public class RedstoneConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
         short b = 0;
-        b |= connects(user, position, BlockFace.EAST);
-        b |= connects(user, position, BlockFace.NORTH) << 2;
-        b |= connects(user, position, BlockFace.SOUTH) << 4;
-        b |= connects(user, position, BlockFace.WEST) << 6;
+        b |= connects(user, blocks, x, y, z, BlockFace.EAST);
+        b |= connects(user, blocks, x, y, z, BlockFace.NORTH) << 2;
+        b |= connects(user, blocks, x, y, z, BlockFace.SOUTH) << 4;
+        b |= connects(user, blocks, x, y, z, BlockFace.WEST) << 6;
         b |= POWER_MAPPINGS.get(blockState) << 8;
         return CONNECTED_BLOCK_STATES.getOrDefault(b, blockState);
     }
 
-    private int connects(UserConnection user, Position position, BlockFace side) {
-        final Position relative = position.getRelative(side);
-        int blockState = getBlockData(user, relative);
+    private int connects(UserConnection user, UserBlockData blocks, int x, int y, int z, BlockFace side) {
+        final int relativeX = x + side.modX();
+        final int relativeZ = z + side.modZ();
+        int blockState = getBlockData(user, blocks, relativeX, y, relativeZ);
         if (connects(side, blockState)) {
             return 1; //side
         }
-        int up = getBlockData(user, relative.getRelative(BlockFace.TOP));
-        if (REDSTONE.contains(up) && !ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, position.getRelative(BlockFace.TOP)))) {
+        int up = getBlockData(user, blocks, relativeX, y + 1, relativeZ);
+        if (REDSTONE.contains(up) && !ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, blocks, x, y, z, BlockFace.TOP))) {
             return 2; //"up"
         }
-        int down = getBlockData(user, relative.getRelative(BlockFace.BOTTOM));
-        if (REDSTONE.contains(down) && !ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, relative))) {
+        int down = getBlockData(user, blocks, relativeX, y - 1, relativeZ);
+        if (REDSTONE.contains(down) && !ConnectionData.OCCLUDING_STATES.contains(blockState)) {
             return 1; //side
         }
         return 0; //none
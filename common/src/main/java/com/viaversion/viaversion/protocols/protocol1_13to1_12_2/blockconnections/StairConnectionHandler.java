@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import java.util.HashMap;
@@ -103,13 +103,13 @@ public class StairConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
         StairData stairData = STAIR_DATA_MAP.get(blockState);
         if (stairData == null) return blockState;
 
         short s = 0;
         if (stairData.isBottom()) s |= 1;
-        s |= getShape(user, position, stairData) << 1;
+        s |= getShape(user, blocks, x, y, z, stairData) << 1;
         s |= stairData.getType() << 4;
         s |= stairData.getFacing().ordinal() << 9;
 
@@ -117,21 +117,21 @@ public class StairConnectionHandler extends ConnectionHandler {
         return newBlockState == null ? blockState : newBlockState;
     }
 
-    private int getShape(UserConnection user, Position position, StairData stair) {
+    private int getShape(UserConnection user, UserBlockData blocks, int x, int y, int z, StairData stair) {
         BlockFace facing = stair.getFacing();
 
-        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, position.getRelative(facing)));
+        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, blocks, x, y, z, facing));
         if (relativeStair != null && relativeStair.isBottom() == stair.isBottom()) {
             BlockFace facing2 = relativeStair.getFacing();
-            if (facing.axis() != facing2.axis() && checkOpposite(user, stair, position, facing2.opposite())) {
+            if (facing.axis() != facing2.axis() && checkOpposite(user, blocks, x, y, z, stair, facing2.opposite())) {
                 return facing2 == rotateAntiClockwise(facing) ? 3 : 4; // outer_left : outer_right
             }
         }
 
-        relativeStair = STAIR_DATA_MAP.get(getBlockData(user, position.getRelative(facing.opposite())));
+        relativeStair = STAIR_DATA_MAP.get(getBlockData(user, blocks, x, y, z, facing.opposite()));
         if (relativeStair != null && relativeStair.isBottom() == stair.isBottom()) {
             BlockFace facing2 = relativeStair.getFacing();
-            if (facing.axis() != facing2.axis() && checkOpposite(user, stair, position, facing2)) {
+            if (facing.axis() != facing2.axis() && checkOpposite(user, blocks, x, y, z, stair, facing2)) {
                 return facing2 == rotateAntiClockwise(facing) ? 1 : 2; // inner_left : inner_right
             }
         }
@@ -139,8 +139,8 @@ public class StairConnectionHandler extends ConnectionHandler {
         return 0; // straight
     }
 
-    private boolean checkOpposite(UserConnection user, StairData stair, Position position, BlockFace face) {
-        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, position.getRelative(face)));
+    private boolean checkOpposite(UserConnection user, UserBlockData blocks, int x, int y, int z, StairData stair, BlockFace face) {
+        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, blocks, x, y, z, face));
         return relativeStair == null || relativeStair.getFacing() != stair.getFacing() || relativeStair.isBottom() != stair.isBottom();
     }
 
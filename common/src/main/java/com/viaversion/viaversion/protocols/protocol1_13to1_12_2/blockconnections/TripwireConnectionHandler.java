@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -65,7 +65,7 @@ public class TripwireConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
         TripwireData tripwireData = TRIPWIRE_DATA_MAP.get(blockState);
         if (tripwireData == null) return blockState;
         byte b = 0;
@@ -73,10 +73,10 @@ public class TripwireConnectionHandler extends ConnectionHandler {
         if (tripwireData.isDisarmed()) b |= 2;
         if (tripwireData.isPowered()) b |= 4;
 
-        int east = getBlockData(user, position.getRelative(BlockFace.EAST));
-        int north = getBlockData(user, position.getRelative(BlockFace.NORTH));
-        int south = getBlockData(user, position.getRelative(BlockFace.SOUTH));
-        int west = getBlockData(user, position.getRelative(BlockFace.WEST));
+        int east = getBlockData(user, blocks, x, y, z, BlockFace.EAST);
+        int north = getBlockData(user, blocks, x, y, z, BlockFace.NORTH);
+        int south = getBlockData(user, blocks, x, y, z, BlockFace.SOUTH);
+        int west = getBlockData(user, blocks, x, y, z, BlockFace.WEST);
 
         if (TRIPWIRE_DATA_MAP.containsKey(east) || TRIPWIRE_HOOKS.get(east) == BlockFace.WEST) {
             b |= 8;
@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
@@ -37,25 +37,24 @@ class VineConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
-        if (isAttachedToBlock(user, position)) return blockState;
+    public int connect(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
+        if (isAttachedToBlock(user, blocks, x, y, z)) return blockState;
 
-        Position upperPos = position.getRelative(BlockFace.TOP);
-        int upperBlock = getBlockData(user, upperPos);
-        if (VINES.contains(upperBlock) && isAttachedToBlock(user, upperPos)) return blockState;
+        int upperBlock = getBlockData(user, blocks, x, y, z, BlockFace.TOP);
+        if (VINES.contains(upperBlock) && isAttachedToBlock(user, blocks, x, y + 1, z)) return blockState;
 
         // Map to air if not attached to block, and upper block is also not a vine attached to a block
         return 0;
     }
 
-    private boolean isAttachedToBlock(UserConnection user, Position position) {
-        return isAttachedToBlock(user, position, BlockFace.EAST)
-                || isAttachedToBlock(user, position, BlockFace.WEST)
-                || isAttachedToBlock(user, position, BlockFace.NORTH)
-                || isAttachedToBlock(user, position, BlockFace.SOUTH);
+    private boolean isAttachedToBlock(UserConnection user, UserBlockData blocks, int x, int y, int z) {
+        return isAttachedToBlock(user, blocks, x, y, z, BlockFace.EAST)
+                || isAttachedToBlock(user, blocks, x, y, z, BlockFace.WEST)
+                || isAttachedToBlock(user, blocks, x, y, z, BlockFace.NORTH)
+                || isAttachedToBlock(user, blocks, x, y, z, BlockFace.SOUTH);
     }
 
-    private boolean isAttachedToBlock(UserConnection user, Position position, BlockFace blockFace) {
-        return ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, position.getRelative(blockFace)));
+    private boolean isAttachedToBlock(UserConnection user, UserBlockData blocks, int x, int y, int z, BlockFace blockFace) {
+        return ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, blocks, x, y, z, blockFace));
     }
 }
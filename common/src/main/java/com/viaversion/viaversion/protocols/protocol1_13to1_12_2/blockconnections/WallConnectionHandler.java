@@ -19,7 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,9 +47,9 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
-        byte states = super.getStates(user, position, blockState);
-        if (up(user, position)) states |= 16;
+    protected byte getStates(UserConnection user, UserBlockData blocks, int x, int y, int z, int blockState) {
+        byte states = super.getStates(user, blocks, x, y, z, blockState);
+        if (up(user, blocks, x, y, z)) states |= 16;
         return states;
     }
 
@@ -58,10 +58,10 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
         return 32;
     }
 
-    public boolean up(UserConnection user, Position position) {
-        if (isWall(getBlockData(user, position.getRelative(BlockFace.BOTTOM))) || isWall(getBlockData(user, position.getRelative(BlockFace.TOP))))
+    public boolean up(UserConnection user, UserBlockData blocks, int x, int y, int z) {
+        if (isWall(getBlockData(user, blocks, x, y, z, BlockFace.BOTTOM)) || isWall(getBlockData(user, blocks, x, y, z, BlockFace.TOP)))
             return true;
-        int blockFaces = getBlockFaces(user, position);
+        int blockFaces = getBlockFaces(user, blocks, x, y, z);
         if (blockFaces == 0 || blockFaces == 0xF) return true;
         for (int i = 0; i < BLOCK_FACES.length; i++) {
             if ((blockFaces & (1 << i)) != 0 && (blockFaces & (1 << OPPOSITES[i])) == 0) return true;
@@ -69,10 +69,10 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
         return false;
     }
 
-    private int getBlockFaces(UserConnection user, Position position) {
+    private int getBlockFaces(UserConnection user, UserBlockData blocks, int x, int y, int z) {
         int blockFaces = 0;
         for (int i = 0; i < BLOCK_FACES.length; i++) {
-            if (isWall(getBlockData(user, position.getRelative(BLOCK_FACES[i])))) {
+            if (isWall(getBlockData(user, blocks, x, y, z, BLOCK_FACES[i]))) {
                 blockFaces |= 1 << i;
             }
         }
@@ -58,6 +58,13 @@ public class BlockConnectionProvider implements Provider {
 
     }
 
+    /**
+     * Called once a chunk section sent by the server has been fully stored and connected.
+     */
+    public void completeChunkSection(UserConnection connection, int chunkX, int chunkY, int chunkZ) {
+
+    }
+
     /**
      * True if blocks are stored, and are known to be accurate around the given position.
      * If the client has modified the position (ie: placed or broken a block) this should return false.
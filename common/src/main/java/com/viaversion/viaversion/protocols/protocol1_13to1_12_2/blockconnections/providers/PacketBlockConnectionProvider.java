@@ -58,6 +58,11 @@ public class PacketBlockConnectionProvider extends BlockConnectionProvider {
         connection.get(BlockConnectionStorage.class).unloadSection(chunkX, chunkY, chunkZ);
     }
 
+    @Override
+    public void completeChunkSection(UserConnection connection, int chunkX, int chunkY, int chunkZ) {
+        connection.get(BlockConnectionStorage.class).completeSection(chunkX, chunkY, chunkZ);
+    }
+
     @Override
     public boolean storesBlocks(UserConnection connection, @Nullable Position pos) {
         if (pos == null || connection == null) return true;
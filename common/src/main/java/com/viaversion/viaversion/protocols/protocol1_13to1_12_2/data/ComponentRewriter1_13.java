@@ -41,6 +41,17 @@ public class ComponentRewriter1_13<C extends ClientboundPacketType> extends Comp
         super(protocol, ReadType.JSON);
     }
 
+    @Override
+    protected boolean skipsUnprocessedComponents() {
+        // Only translate and hover event components are changed
+        return true;
+    }
+
+    @Override
+    protected boolean isConnectionDependent() {
+        return false;
+    }
+
     @Override
     protected void handleHoverEvent(UserConnection connection, JsonObject hoverEvent) {
         super.handleHoverEvent(connection, hoverEvent);
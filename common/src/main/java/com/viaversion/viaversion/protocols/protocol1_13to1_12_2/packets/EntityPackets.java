@@ -136,6 +136,7 @@ public class EntityPackets {
                     ClientWorld clientChunks = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 1);
                     clientChunks.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_13To1_12_2.class).trackWorld(Integer.toString(dimensionId));
                 });
                 handler(metadataRewriter.playerTrackerHandler());
                 handler(Protocol1_13To1_12_2.SEND_DECLARE_COMMANDS_AND_TAGS);
@@ -114,10 +114,7 @@ public class WorldPackets {
 
                     if (newId != -1) {
                         BlockStorage storage = wrapper.user().get(BlockStorage.class);
-                        BlockStorage.ReplacementData replacementData = storage.get(position);
-                        if (replacementData != null) {
-                            replacementData.setReplacement(newId);
-                        }
+                        storage.setReplacement(position.x(), position.y(), position.z(), newId);
                     }
 
                     if (action == 5) { // Set type of flower in flower pot
@@ -187,7 +184,7 @@ public class WorldPackets {
                         ConnectionData.updateBlockStorage(userConnection, position.x(), position.y(), position.z(), newId);
                     }
 
-                    wrapper.set(Type.VAR_INT, 0, checkStorage(wrapper.user(), position, newId));
+                    wrapper.set(Type.VAR_INT, 0, checkStorage(wrapper.user(), position.x(), position.y(), position.z(), newId));
 
                     if (Via.getConfig().isServersideBlockConnections()) {
                         // Workaround for packet order issue
@@ -213,14 +210,13 @@ public class WorldPackets {
                     // Convert ids
                     for (BlockChangeRecord record : records) {
                         int newBlock = toNewId(record.getBlockId());
-                        Position position = new Position(
-                                record.getSectionX() + (chunkX << 4),
-                                record.getY(),
-                                record.getSectionZ() + (chunkZ << 4));
+                        int x = record.getSectionX() + (chunkX << 4);
+                        int y = record.getY();
+                        int z = record.getSectionZ() + (chunkZ << 4);
 
-                        record.setBlockId(checkStorage(wrapper.user(), position, newBlock));
+                        record.setBlockId(checkStorage(wrapper.user(), x, y, z, newBlock));
                         if (Via.getConfig().isServersideBlockConnections()) {
-                            ConnectionData.updateBlockStorage(userConnection, position.x(), position.y(), position.z(), newBlock);
+                            ConnectionData.updateBlockStorage(userConnection, x, y, z, newBlock);
                         }
                     }
 
@@ -303,13 +299,16 @@ public class WorldPackets {
         protocol.registerClientbound(ClientboundPackets1_12_1.UNLOAD_CHUNK, new PacketHandlers() {
             @Override
             public void register() {
-                if (Via.getConfig().isServersideBlockConnections()) {
-                    handler(wrapper -> {
-                        int x = wrapper.passthrough(Type.INT);
-                        int z = wrapper.passthrough(Type.INT);
+                map(Type.INT); // 0 - Chunk X
+                map(Type.INT); // 1 - Chunk Z
+                handler(wrapper -> {
+                    int x = wrapper.get(Type.INT, 0);
+                    int z = wrapper.get(Type.INT, 1);
+                    wrapper.user().get(BlockStorage.class).unloadChunk(x, z);
+                    if (Via.getConfig().isServersideBlockConnections()) {
                         ConnectionData.blockConnectionProvider.unloadChunk(wrapper.user(), x, z);
-                    });
-                }
+                    }
+                });
             }
         });
 
@@ -334,6 +333,11 @@ public class WorldPackets {
             Chunk chunk = wrapper.read(type);
             wrapper.write(type1_13, chunk);
 
+            if (chunk.isFullChunk()) {
+                // Drop whatever was stored for the previous chunk at this position
+                storage.unloadChunk(chunk.getX(), chunk.getZ());
+            }
+
             for (int s = 0; s < chunk.getSections().length; s++) {
                 ChunkSection section = chunk.getSections()[s];
                 if (section == null) continue;
@@ -347,23 +351,23 @@ public class WorldPackets {
 
                 storage:
                 {
-                    if (chunk.isFullChunk()) {
-                        boolean willSave = false;
-                        for (int p = 0; p < blocks.size(); p++) {
-                            if (storage.isWelcome(blocks.idByIndex(p))) {
-                                willSave = true;
-                                break;
-                            }
+                    if (!chunk.isFullChunk()) { // Update
+                        storage.unloadSection(chunk.getX(), s, chunk.getZ());
+                    }
+
+                    boolean willSave = false;
+                    for (int p = 0; p < blocks.size(); p++) {
+                        if (storage.isWelcome(blocks.idByIndex(p))) {
+                            willSave = true;
+                            break;
                         }
-                        if (!willSave) break storage;
                     }
+                    if (!willSave) break storage;
+
                     for (int idx = 0; idx < ChunkSection.SIZE; idx++) {
                         int id = blocks.idAt(idx);
-                        Position position = new Position(ChunkSection.xFromIndex(idx) + (chunk.getX() << 4), ChunkSection.yFromIndex(idx) + (s << 4), ChunkSection.zFromIndex(idx) + (chunk.getZ() << 4));
                         if (storage.isWelcome(id)) {
-                            storage.store(position, id);
-                        } else if (!chunk.isFullChunk()) { // Update
-                            storage.remove(position);
+                            storage.store(ChunkSection.xFromIndex(idx) + (chunk.getX() << 4), ChunkSection.yFromIndex(idx) + (s << 4), ChunkSection.zFromIndex(idx) + (chunk.getZ() << 4), id);
                         }
                     }
                 }
@@ -430,12 +434,8 @@ public class WorldPackets {
                     int y = tag.getNumberTag("y").asInt();
                     int z = tag.getNumberTag("z").asInt();
 
-                    Position position = new Position(x, (short) y, z);
                     // Store the replacement blocks for blockupdates
-                    BlockStorage.ReplacementData replacementData = storage.get(position);
-                    if (replacementData != null) {
-                        replacementData.setReplacement(newId);
-                    }
+                    storage.setReplacement(x, y, z, newId);
 
                     chunk.getSections()[y >> 4].palette(PaletteType.BLOCKS).setIdAt(x & 0xF, y & 0xF, z & 0xF, newId);
                 }
@@ -463,6 +463,7 @@ public class WorldPackets {
                     }
 
                     updater.updateChunkSectionNeighbours(chunk.getX(), chunk.getZ(), i);
+                    ConnectionData.blockConnectionProvider.completeChunkSection(wrapper.user(), chunk.getX(), i, chunk.getZ());
                 }
             }
         });
@@ -584,23 +585,19 @@ public class WorldPackets {
         return 0;
     }
 
-    private static int checkStorage(UserConnection user, Position position, int newId) {
+    private static int checkStorage(UserConnection user, int x, int y, int z, int newId) {
         BlockStorage storage = user.get(BlockStorage.class);
-        if (storage.contains(position)) {
-            BlockStorage.ReplacementData data = storage.get(position);
+        if (storage.getOriginal(x, y, z) == newId) {
+            int replacement = storage.getReplacement(x, y, z);
+            return replacement != -1 ? replacement : newId;
+        }
 
-            if (data.getOriginal() == newId) {
-                if (data.getReplacement() != -1) {
-                    return data.getReplacement();
-                }
-            } else {
-                storage.remove(position);
-                // Check if the new id has to be stored
-                if (storage.isWelcome(newId))
-                    storage.store(position, newId);
-            }
-        } else if (storage.isWelcome(newId))
-            storage.store(position, newId);
+        // Check if the new id has to be stored
+        if (storage.isWelcome(newId)) {
+            storage.store(x, y, z, newId);
+        } else {
+            storage.remove(x, y, z);
+        }
         return newId;
     }
 }
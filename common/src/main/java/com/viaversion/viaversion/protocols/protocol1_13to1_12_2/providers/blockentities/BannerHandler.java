@@ -24,7 +24,6 @@ import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
-import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.BlockEntityProvider;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockStorage;
 import com.viaversion.viaversion.util.ComponentUtil;
@@ -39,15 +38,16 @@ public class BannerHandler implements BlockEntityProvider.BlockEntityHandler {
     @Override
     public int transform(UserConnection user, CompoundTag tag) {
         BlockStorage storage = user.get(BlockStorage.class);
-        Position position = new Position(tag.getNumberTag("x").asInt(), tag.getNumberTag("y").asShort(), tag.getNumberTag("z").asInt());
+        int x = tag.getNumberTag("x").asInt();
+        int y = tag.getNumberTag("y").asInt();
+        int z = tag.getNumberTag("z").asInt();
 
-        if (!storage.contains(position)) {
+        int blockId = storage.getOriginal(x, y, z);
+        if (blockId == -1) {
             Via.getPlatform().getLogger().warning("Received an banner color update packet, but there is no banner! O_o " + tag);
             return -1;
         }
 
-        int blockId = storage.get(position).getOriginal();
-
         NumberTag base = tag.getNumberTag("Base");
         int color = base != null ? base.asInt() : 0;
         // Standing banner
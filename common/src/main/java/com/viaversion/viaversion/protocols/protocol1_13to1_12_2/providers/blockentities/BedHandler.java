@@ -21,7 +21,6 @@ import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.NumberTag;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
-import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.BlockEntityProvider;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockStorage;
 
@@ -30,15 +29,18 @@ public class BedHandler implements BlockEntityProvider.BlockEntityHandler {
     @Override
     public int transform(UserConnection user, CompoundTag tag) {
         BlockStorage storage = user.get(BlockStorage.class);
-        Position position = new Position(tag.getNumberTag("x").asInt(), tag.getNumberTag("y").asShort(), tag.getNumberTag("z").asInt());
+        int x = tag.getNumberTag("x").asInt();
+        int y = tag.getNumberTag("y").asInt();
+        int z = tag.getNumberTag("z").asInt();
 
-        if (!storage.contains(position)) {
+        int original = storage.getOriginal(x, y, z);
+        if (original == -1) {
             Via.getPlatform().getLogger().warning("Received an bed color update packet, but there is no bed! O_o " + tag);
             return -1;
         }
 
         //                                              RED_BED + FIRST_BED
-        int blockId = storage.get(position).getOriginal() - 972 + 748;
+        int blockId = original - 972 + 748;
 
         NumberTag color = tag.getNumberTag("color");
         if (color != null) {
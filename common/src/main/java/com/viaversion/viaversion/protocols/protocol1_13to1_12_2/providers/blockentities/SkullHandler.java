@@ -21,7 +21,6 @@ import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.NumberTag;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
-import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.BlockEntityProvider;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockStorage;
 
@@ -32,14 +31,16 @@ public class SkullHandler implements BlockEntityProvider.BlockEntityHandler {
     @Override
     public int transform(UserConnection user, CompoundTag tag) {
         BlockStorage storage = user.get(BlockStorage.class);
-        Position position = new Position(tag.getNumberTag("x").asInt(), tag.getNumberTag("y").asShort(), tag.getNumberTag("z").asInt());
+        int x = tag.getNumberTag("x").asInt();
+        int y = tag.getNumberTag("y").asInt();
+        int z = tag.getNumberTag("z").asInt();
 
-        if (!storage.contains(position)) {
+        int id = storage.getOriginal(x, y, z);
+        if (id == -1) {
             Via.getPlatform().getLogger().warning("Received an head update packet, but there is no head! O_o " + tag);
             return -1;
         }
 
-        int id = storage.get(position).getOriginal();
         if (id >= SKULL_WALL_START && id <= SKULL_END) {
             NumberTag skullType = tag.getNumberTag("SkullType");
             if (skullType != null) {
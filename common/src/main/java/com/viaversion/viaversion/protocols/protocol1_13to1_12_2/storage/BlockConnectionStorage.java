@@ -18,20 +18,21 @@
 package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
 
 import com.google.common.collect.EvictingQueue;
-import com.viaversion.viaversion.api.Via;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.minecraft.Position;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.Arrays;
 import java.util.Queue;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class BlockConnectionStorage implements StorableObject {
-    private static Constructor<?> fastUtilLongObjectHashMap;
+    // Completed sections are deduplicated between all connections and copied on write
+    private static final Interner<SectionData> SHARED_SECTIONS = Interners.newWeakInterner();
 
-    private final Map<Long, SectionData> blockStorage = createLongObjectMap();
+    private final Long2ObjectMap<SectionData> blockStorage = new Long2ObjectOpenHashMap<>();
     @SuppressWarnings("UnstableApiUsage")
     private final Queue<Position> modified = EvictingQueue.create(5);
 
@@ -39,19 +40,6 @@ public class BlockConnectionStorage implements StorableObject {
     private long lastIndex = -1;
     private SectionData lastSection;
 
-    static {
-        try {
-            //noinspection StringBufferReplaceableByString - prevent relocation
-            String className = new StringBuilder("it").append(".unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap").toString();
-            fastUtilLongObjectHashMap = Class.forName(className).getConstructor();
-            Via.getPlatform().getLogger().info("Using FastUtil Long2ObjectOpenHashMap for block connections");
-        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
-        }
-    }
-
-    public static void init() {
-    }
-
     public void store(int x, int y, int z, int blockState) {
         long index = getChunkSectionIndex(x, y, z);
         SectionData section = getSection(index);
@@ -64,6 +52,11 @@ public class BlockConnectionStorage implements StorableObject {
             blockStorage.put(index, section = new SectionData());
             lastSection = section;
             lastIndex = index;
+        } else if (section.shared) {
+            if (section.blockAt(x, y, z) == blockState) {
+                return;
+            }
+            section = copySection(index, section);
         }
 
         section.setBlockAt(x, y, z, blockState);
@@ -86,6 +79,13 @@ public class BlockConnectionStorage implements StorableObject {
             return;
         }
 
+        if (section.shared) {
+            if (section.blockAt(x, y, z) == 0) {
+                return;
+            }
+            section = copySection(index, section);
+        }
+
         section.setBlockAt(x, y, z, 0);
 
         if (section.nonEmptyBlocks() == 0) {
@@ -93,6 +93,25 @@ public class BlockConnectionStorage implements StorableObject {
         }
     }
 
+    /**
+     * Marks the given chunk section as fully written, allowing its data to be shared with other connections
+     * that have received the same section.
+     */
+    public void completeSection(int chunkX, int chunkY, int chunkZ) {
+        long index = getChunkSectionIndex(chunkX << 4, chunkY << 4, chunkZ << 4);
+        SectionData section = getSection(index);
+        if (section == null || section.shared) {
+            return;
+        }
+
+        section.shared = true;
+        SectionData sharedSection = SHARED_SECTIONS.intern(section);
+        if (sharedSection != section) {
+            blockStorage.put(index, sharedSection);
+            lastSection = sharedSection;
+        }
+    }
+
     public void markModified(Position pos) {
         // Avoid saving the same pos twice
         if (!modified.contains(pos)) {
@@ -126,6 +145,35 @@ public class BlockConnectionStorage implements StorableObject {
         removeSection(getChunkSectionIndex(x << 4, y << 4, z << 4));
     }
 
+    public int sectionCount() {
+        return blockStorage.size();
+    }
+
+    public int sharedSectionCount() {
+        int count = 0;
+        for (SectionData section : blockStorage.values()) {
+            if (section.shared) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the estimated memory used by sections only referenced by this connection.
+     *
+     * @return estimated memory usage in bytes
+     */
+    public long ownedMemoryUsage() {
+        long bytes = 0;
+        for (SectionData section : blockStorage.values()) {
+            if (!section.shared) {
+                bytes += section.memoryUsage();
+            }
+        }
+        return bytes;
+    }
+
     private @Nullable SectionData getSection(long index) {
         if (lastIndex == index) {
             return lastSection;
@@ -134,6 +182,14 @@ public class BlockConnectionStorage implements StorableObject {
         return lastSection = blockStorage.get(index);
     }
 
+    private SectionData copySection(long index, SectionData section) {
+        SectionData copy = new SectionData(section);
+        blockStorage.put(index, copy);
+        lastIndex = index;
+        lastSection = copy;
+        return copy;
+    }
+
     private void removeSection(long index) {
         blockStorage.remove(index);
         if (lastIndex == index) {
@@ -146,36 +202,53 @@ public class BlockConnectionStorage implements StorableObject {
         return (((x >> 4) & 0x3FFFFFFL) << 38) | (((y >> 4) & 0xFFFL) << 26) | ((z >> 4) & 0x3FFFFFFL);
     }
 
-    private <T> Map<Long, T> createLongObjectMap() {
-        if (fastUtilLongObjectHashMap != null) {
-            try {
-                //noinspection unchecked
-                return (Map<Long, T>) fastUtilLongObjectHashMap.newInstance();
-            } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-                e.printStackTrace();
-            }
-        }
-        return new HashMap<>();
-    }
-
+    /**
+     * Bit-packed section storage with a palette, growing its entry size only when new block states are added.
+     * Above {@link #MAX_PALETTE_BITS}, the block states are stored directly.
+     */
     private static final class SectionData {
-        private final short[] blockStates = new short[4096];
+        private static final int MAX_PALETTE_BITS = 8;
+        private static final int DIRECT_BITS = 16;
+        private int bitsPerEntry;
+        private int entriesShift;
+        private long[] data;
+        private int[] palette;
+        private int paletteSize;
         private short nonEmptyBlocks;
+        private int hashCode;
+        private boolean shared;
+
+        private SectionData() {
+            palette = new int[2];
+            paletteSize = 1; // Air
+            resize(1);
+        }
+
+        private SectionData(SectionData section) {
+            bitsPerEntry = section.bitsPerEntry;
+            entriesShift = section.entriesShift;
+            data = section.data.clone();
+            palette = section.palette != null ? section.palette.clone() : null;
+            paletteSize = section.paletteSize;
+            nonEmptyBlocks = section.nonEmptyBlocks;
+        }
 
         public int blockAt(int x, int y, int z) {
-            return blockStates[encodeBlockPos(x, y, z)];
+            int value = get(encodeBlockPos(x, y, z));
+            return palette != null ? palette[value] : value;
         }
 
         public void setBlockAt(int x, int y, int z, int blockState) {
             int index = encodeBlockPos(x, y, z);
-            if (blockState == blockStates[index]) {
+            int previous = blockAt(x, y, z);
+            if (blockState == previous) {
                 return;
             }
 
-            blockStates[index] = (short) blockState;
+            set(index, valueFor(blockState));
             if (blockState == 0) {
                 nonEmptyBlocks--;
-            } else {
+            } else if (previous == 0) {
                 nonEmptyBlocks++;
             }
         }
@@ -184,8 +257,111 @@ public class BlockConnectionStorage implements StorableObject {
             return nonEmptyBlocks;
         }
 
+        public long memoryUsage() {
+            return 48L + data.length * 8L + (palette != null ? 16L + palette.length * 4L : 0);
+        }
+
+        private int valueFor(int blockState) {
+            if (palette == null) {
+                return blockState;
+            }
+
+            for (int i = 0; i < paletteSize; i++) {
+                if (palette[i] == blockState) {
+                    return i;
+                }
+            }
+
+            if (paletteSize == 1 << bitsPerEntry) {
+                resize(bitsPerEntry << 1);
+                if (palette == null) {
+                    return blockState;
+                }
+            }
+
+            if (paletteSize == palette.length) {
+                palette = Arrays.copyOf(palette, paletteSize << 1);
+            }
+            palette[paletteSize] = blockState;
+            return paletteSize++;
+        }
+
+        private void resize(int bits) {
+            long[] oldData = data;
+            int oldBits = bitsPerEntry;
+            int oldShift = entriesShift;
+            int[] oldPalette = palette;
+
+            bitsPerEntry = bits > MAX_PALETTE_BITS ? DIRECT_BITS : bits;
+            entriesShift = Integer.numberOfTrailingZeros(64 / bitsPerEntry);
+            data = new long[4096 >> entriesShift];
+            if (bitsPerEntry == DIRECT_BITS) {
+                palette = null;
+            }
+
+            if (oldData == null) {
+                return;
+            }
+
+            for (int i = 0; i < 4096; i++) {
+                int value = get(oldData, oldBits, oldShift, i);
+                if (value != 0) {
+                    set(i, palette == null ? oldPalette[value] : value);
+                }
+            }
+        }
+
+        private int get(int index) {
+            return get(data, bitsPerEntry, entriesShift, index);
+        }
+
+        private void set(int index, int value) {
+            int cell = index >> entriesShift;
+            int bitIndex = (index & ((1 << entriesShift) - 1)) * bitsPerEntry;
+            long mask = (1L << bitsPerEntry) - 1;
+            data[cell] = data[cell] & ~(mask << bitIndex) | ((long) value & mask) << bitIndex;
+        }
+
+        private static int get(long[] data, int bitsPerEntry, int entriesShift, int index) {
+            int bitIndex = (index & ((1 << entriesShift) - 1)) * bitsPerEntry;
+            return (int) (data[index >> entriesShift] >>> bitIndex & ((1L << bitsPerEntry) - 1));
+        }
+
         private static int encodeBlockPos(int x, int y, int z) {
             return ((y & 0xF) << 8) | ((x & 0xF) << 4) | (z & 0xF);
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SectionData that = (SectionData) o;
+            if (bitsPerEntry != that.bitsPerEntry || paletteSize != that.paletteSize || nonEmptyBlocks != that.nonEmptyBlocks) {
+                return false;
+            }
+            if (palette != null) {
+                for (int i = 0; i < paletteSize; i++) {
+                    if (palette[i] != that.palette[i]) {
+                        return false;
+                    }
+                }
+            }
+            return Arrays.equals(data, that.data);
+        }
+
+        @Override
+        public int hashCode() {
+            // Only hashed once shared and immutable
+            if (hashCode == 0) {
+                int result = Arrays.hashCode(data);
+                if (palette != null) {
+                    for (int i = 0; i < paletteSize; i++) {
+                        result = 31 * result + palette[i];
+                    }
+                }
+                hashCode = result;
+            }
+            return hashCode;
+        }
     }
-}
\ No newline at end of file
+}
@@ -19,15 +19,26 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
 
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.minecraft.Position;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
-import java.util.HashMap;
-import java.util.Map;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-// TODO Fix memory leak lolz (only a smol one tho)
+/**
+ * Stores the original ids of blocks that need their block entity data to be converted, bucketed by chunk section.
+ * Each entry packs the original block id and its replacement (or -1) into a single long.
+ */
 public class BlockStorage implements StorableObject {
     private static final IntSet WHITELIST = new IntOpenHashSet(46, .99F);
-    private final Map<Position, ReplacementData> blocks = new HashMap<>();
+    private static final long EMPTY = -1L;
+    private final Long2ObjectMap<Int2LongMap> sections = new Long2ObjectOpenHashMap<>();
+
+    // Cache to retrieve section quicker
+    private long lastIndex = -1;
+    private Int2LongMap lastSection;
 
     static {
         // Flower pots
@@ -54,52 +65,137 @@ public class BlockStorage implements StorableObject {
         }
     }
 
-    public void store(Position position, int block) {
-        store(position, block, -1);
+    public void store(int x, int y, int z, int block) {
+        store(x, y, z, block, -1);
     }
 
-    public void store(Position position, int block, int replacementId) {
-        if (!WHITELIST.contains(block))
+    public void store(int x, int y, int z, int block, int replacementId) {
+        if (!WHITELIST.contains(block)) {
             return;
+        }
 
-        blocks.put(position, new ReplacementData(block, replacementId));
+        final long index = sectionIndex(x >> 4, y >> 4, z >> 4);
+        Int2LongMap section = section(index);
+        if (section == null) {
+            section = new Int2LongOpenHashMap(4);
+            section.defaultReturnValue(EMPTY);
+            sections.put(index, section);
+            lastIndex = index;
+            lastSection = section;
+        }
+        section.put(blockIndex(x, y, z), pack(block, replacementId));
     }
 
     public boolean isWelcome(int block) {
         return WHITELIST.contains(block);
     }
 
-    public boolean contains(Position position) {
-        return blocks.containsKey(position);
+    public boolean contains(int x, int y, int z) {
+        return getPacked(x, y, z) != EMPTY;
     }
 
-    public ReplacementData get(Position position) {
-        return blocks.get(position);
+    /**
+     * Returns the original block id stored at the given position.
+     *
+     * @return original block id, or -1 if not stored
+     */
+    public int getOriginal(int x, int y, int z) {
+        final long data = getPacked(x, y, z);
+        return data != EMPTY ? (int) (data >> 32) : -1;
     }
 
-    public ReplacementData remove(Position position) {
-        return blocks.remove(position);
+    /**
+     * Returns the replacement block id stored at the given position.
+     *
+     * @return replacement block id, or -1 if not stored or not replaced
+     */
+    public int getReplacement(int x, int y, int z) {
+        final long data = getPacked(x, y, z);
+        return data != EMPTY ? (int) data : -1;
     }
 
-    public static final class ReplacementData {
-        private final int original;
-        private int replacement;
+    /**
+     * Sets the replacement block id of an already stored block.
+     */
+    public void setReplacement(int x, int y, int z, int replacementId) {
+        final Int2LongMap section = section(sectionIndex(x >> 4, y >> 4, z >> 4));
+        if (section == null) {
+            return;
+        }
 
-        public ReplacementData(int original, int replacement) {
-            this.original = original;
-            this.replacement = replacement;
+        final int blockIndex = blockIndex(x, y, z);
+        final long data = section.get(blockIndex);
+        if (data != EMPTY) {
+            section.put(blockIndex, pack((int) (data >> 32), replacementId));
         }
+    }
 
-        public int getOriginal() {
-            return original;
+    public void remove(int x, int y, int z) {
+        final long index = sectionIndex(x >> 4, y >> 4, z >> 4);
+        final Int2LongMap section = section(index);
+        if (section != null && section.remove(blockIndex(x, y, z)) != EMPTY && section.isEmpty()) {
+            removeSection(index);
         }
+    }
+
+    public void unloadChunk(int chunkX, int chunkZ) {
+        for (int sectionY = 0; sectionY < 16; sectionY++) {
+            unloadSection(chunkX, sectionY, chunkZ);
+        }
+    }
+
+    public void unloadSection(int chunkX, int sectionY, int chunkZ) {
+        removeSection(sectionIndex(chunkX, sectionY, chunkZ));
+    }
+
+    public void clear() {
+        sections.clear();
+        lastIndex = -1;
+        lastSection = null;
+    }
 
-        public int getReplacement() {
-            return replacement;
+    public void store(Position position, int block) {
+        store(position.x(), position.y(), position.z(), block);
+    }
+
+    public boolean contains(Position position) {
+        return contains(position.x(), position.y(), position.z());
+    }
+
+    public void remove(Position position) {
+        remove(position.x(), position.y(), position.z());
+    }
+
+    private long getPacked(int x, int y, int z) {
+        final Int2LongMap section = section(sectionIndex(x >> 4, y >> 4, z >> 4));
+        return section != null ? section.get(blockIndex(x, y, z)) : EMPTY;
+    }
+
+    private @Nullable Int2LongMap section(long index) {
+        if (lastIndex == index) {
+            return lastSection;
         }
+        lastIndex = index;
+        return lastSection = sections.get(index);
+    }
 
-        public void setReplacement(int replacement) {
-            this.replacement = replacement;
+    private void removeSection(long index) {
+        sections.remove(index);
+        if (lastIndex == index) {
+            lastIndex = -1;
+            lastSection = null;
         }
     }
+
+    private static long sectionIndex(int chunkX, int sectionY, int chunkZ) {
+        return ((chunkX & 0x3FFFFFFL) << 38) | ((sectionY & 0xFFFL) << 26) | (chunkZ & 0x3FFFFFFL);
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        return ((y & 0xF) << 8) | ((z & 0xF) << 4) | (x & 0xF);
+    }
+
+    private static long pack(int original, int replacement) {
+        return ((long) original << 32) | (replacement & 0xFFFFFFFFL);
+    }
 }
@@ -17,6 +17,7 @@
  */
 package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
 
+import com.viaversion.viaversion.ViaManagerImpl;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
@@ -26,6 +27,8 @@ import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.protocols.protocol1_12_1to1_12.ServerboundPackets1_12_1;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.PlayerLookTargetProvider;
+import io.netty.util.Timeout;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 public class TabCompleteTracker implements StorableObject {
@@ -33,6 +36,53 @@ public class TabCompleteTracker implements StorableObject {
     private String input;
     private String lastTabComplete;
     private long timeToSend;
+    private Timeout sendTimer;
+    private volatile boolean removed;
+
+    /**
+     * Schedules the last tab complete to be sent once its delay has passed.
+     * Does nothing if a send is already pending, as it will pick up the newer input.
+     *
+     * @param connection user connection
+     */
+    public void scheduleSend(UserConnection connection) {
+        if (sendTimer == null && !removed) {
+            scheduleSend(connection, Math.max(0, timeToSend - System.currentTimeMillis()));
+        }
+    }
+
+    private void scheduleSend(UserConnection connection, long delay) {
+        sendTimer = ((ViaManagerImpl) Via.getManager()).getConnectionTimer().schedule(connection, () -> {
+            sendTimer = null;
+            if (!isActive(connection)) {
+                return;
+            }
+
+            long remaining = timeToSend - System.currentTimeMillis();
+            if (remaining > 0) {
+                // The delay has been reset by newer input
+                scheduleSend(connection, remaining);
+            } else {
+                sendPacketToServer(connection);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isActive(UserConnection connection) {
+        // Stop once the tracker has been replaced or the protocol is gone after a server switch
+        return !removed && connection.get(TabCompleteTracker.class) == this
+                && connection.getProtocolInfo().getPipeline().contains(Protocol1_13To1_12_2.class);
+    }
+
+    @Override
+    public void onRemove() {
+        removed = true;
+        final Timeout sendTimer = this.sendTimer;
+        if (sendTimer != null) {
+            sendTimer.cancel();
+            this.sendTimer = null;
+        }
+    }
 
     public void sendPacketToServer(UserConnection connection) {
         if (lastTabComplete == null || timeToSend > System.currentTimeMillis()) return;
@@ -70,5 +70,24 @@ public class EntityPackets {
         });
 
         metadataRewriter.registerMetadataRewriter(ClientboundPackets1_14.ENTITY_METADATA, Types1_14.METADATA_LIST);
+
+        protocol.registerClientbound(ClientboundPackets1_14.JOIN_GAME, new PacketHandlers() {
+            @Override
+            public void register() {
+                map(Type.INT); // 0 - Entity ID
+                map(Type.UNSIGNED_BYTE); // 1 - Gamemode
+                map(Type.INT); // 2 - Dimension
+                handler(metadataRewriter.playerTrackerHandler());
+                handler(wrapper -> metadataRewriter.tracker(wrapper.user()).trackWorld(Integer.toString(wrapper.get(Type.INT, 1))));
+            }
+        });
+
+        protocol.registerClientbound(ClientboundPackets1_14.RESPAWN, new PacketHandlers() {
+            @Override
+            public void register() {
+                map(Type.INT); // 0 - Dimension ID
+                handler(wrapper -> metadataRewriter.tracker(wrapper.user()).trackWorld(Integer.toString(wrapper.get(Type.INT, 0))));
+            }
+        });
     }
 }
@@ -212,6 +212,7 @@ public class EntityPackets {
                     ClientWorld clientChunks = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 1);
                     clientChunks.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_14To1_13_2.class).trackWorld(Integer.toString(dimensionId));
                 });
                 handler(metadataRewriter.playerTrackerHandler());
                 handler(wrapper -> {
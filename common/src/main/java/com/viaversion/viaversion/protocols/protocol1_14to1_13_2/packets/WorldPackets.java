@@ -25,6 +25,7 @@ import com.viaversion.viaversion.api.minecraft.BlockFace;
 import com.viaversion.viaversion.api.minecraft.ClientWorld;
 import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionLight;
 import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
 import com.viaversion.viaversion.api.minecraft.chunks.NibbleArray;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
@@ -38,20 +39,15 @@ import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.ClientboundPacke
 import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.Protocol1_14To1_13_2;
 import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.storage.EntityTracker1_14;
 import com.viaversion.viaversion.rewriter.BlockRewriter;
+import com.viaversion.viaversion.util.ChunkUtil;
 import com.viaversion.viaversion.util.CompactArrayUtil;
-import java.util.Arrays;
 
 public class WorldPackets {
     public static final int SERVERSIDE_VIEW_DISTANCE = 64;
-    private static final byte[] FULL_LIGHT = new byte[2048];
     public static int air;
     public static int voidAir;
     public static int caveAir;
 
-    static {
-        Arrays.fill(FULL_LIGHT, (byte) 0xff);
-    }
-
     public static void register(Protocol1_14To1_13_2 protocol) {
         BlockRewriter<ClientboundPackets1_13> blockRewriter = BlockRewriter.for1_14(protocol);
 
@@ -205,18 +201,18 @@ public class WorldPackets {
             // not sending skylight/setting empty skylight causes client lag due to some weird calculations
             // only do this on the initial chunk send (not when chunk.isGroundUp() is false)
             if (chunk.isFullChunk())
-                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, FULL_LIGHT); // chunk below 0
+                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, ChunkUtil.fullLight()); // chunk below 0
             for (ChunkSection section : chunk.getSections()) {
                 if (section == null || !section.getLight().hasSkyLight()) {
                     if (chunk.isFullChunk()) {
-                        lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, FULL_LIGHT);
+                        lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, ChunkUtil.fullLight());
                     }
                     continue;
                 }
                 lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, section.getLight().getSkyLight());
             }
             if (chunk.isFullChunk())
-                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, FULL_LIGHT); // chunk above 255
+                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, ChunkUtil.fullLight()); // chunk above 255
 
             for (ChunkSection section : chunk.getSections()) {
                 if (section == null) continue;
@@ -288,6 +284,7 @@ public class WorldPackets {
                     EntityTracker1_14 entityTracker = wrapper.user().getEntityTracker(Protocol1_14To1_13_2.class);
                     // The client may reset the center chunk if dimension is changed
                     entityTracker.setForceSendCenterChunk(true);
+                    entityTracker.trackWorld(Integer.toString(dimensionId));
                 });
                 handler(wrapper -> {
                     short difficulty = wrapper.read(Type.UNSIGNED_BYTE); // 19w11a removed difficulty from respawn
@@ -385,7 +382,7 @@ public class WorldPackets {
 
         if (skyLight != 0) {
             if (!section.getLight().hasSkyLight()) {
-                byte[] newSkyLight = new byte[2028];
+                byte[] newSkyLight = new byte[ChunkSectionLight.LIGHT_LENGTH];
                 section.getLight().setSkyLight(newSkyLight);
             }
 
@@ -83,6 +83,7 @@ public final class EntityPackets {
             @Override
             public void register() {
                 map(Type.INT);
+                handler(wrapper -> wrapper.user().getEntityTracker(Protocol1_15To1_14_4.class).trackWorld(Integer.toString(wrapper.get(Type.INT, 0))));
                 handler(wrapper -> wrapper.write(Type.LONG, 0L)); // Level Seed
             }
         });
@@ -94,6 +95,7 @@ public final class EntityPackets {
                 map(Type.UNSIGNED_BYTE); // 1 - Gamemode
                 map(Type.INT); // 2 - Dimension
                 handler(metadataRewriter.playerTrackerHandler());
+                handler(wrapper -> wrapper.user().getEntityTracker(Protocol1_15To1_14_4.class).trackWorld(Integer.toString(wrapper.get(Type.INT, 1))));
                 handler(wrapper -> wrapper.write(Type.LONG, 0L)); // Level Seed
 
                 map(Type.UNSIGNED_BYTE); // 3 - Max Players
@@ -62,12 +62,16 @@ public class EntityPackets {
                 map(Type.UNSIGNED_BYTE, Type.VAR_INT); // Max players
                 // ...
                 handler(metadataRewriter.playerTrackerHandler());
+                handler(wrapper -> metadataRewriter.tracker(wrapper.user()).trackWorld(wrapper.get(Type.STRING, 0)));
             }
         });
 
         protocol.registerClientbound(ClientboundPackets1_16.RESPAWN, wrapper -> {
             String dimensionType = wrapper.read(Type.STRING);
             wrapper.write(Type.NAMED_COMPOUND_TAG, getDimensionData(dimensionType));
+
+            String world = wrapper.passthrough(Type.STRING);
+            metadataRewriter.tracker(wrapper.user()).trackWorld(world);
         });
     }
 
@@ -84,6 +84,22 @@ public class TranslationMappings extends ComponentRewriter<ClientboundPackets1_1
         }
     }
 
+    @Override
+    protected boolean skipsUnprocessedComponents() {
+        // Only translate, hover event and score components are changed
+        return true;
+    }
+
+    @Override
+    protected boolean isConnectionDependent() {
+        return false;
+    }
+
+    @Override
+    protected boolean isProcessedKey(String key) {
+        return super.isProcessedKey(key) || key.equals("score");
+    }
+
     @Override
     protected void handleTranslate(JsonObject object, String translate) {
         // A few keys were removed - manually set the text of relevant ones
@@ -25,6 +25,7 @@ import com.github.steveice10.opennbt.tag.builtin.ListTag;
 import com.github.steveice10.opennbt.tag.builtin.LongTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.data.entity.EntityTracker;
 import com.viaversion.viaversion.api.minecraft.WorldIdentifiers;
 import com.viaversion.viaversion.api.minecraft.entities.EntityTypes1_16;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
@@ -75,6 +76,7 @@ public class EntityPackets {
 
         wrapper.write(Type.STRING, dimensionName); // dimension
         wrapper.write(Type.STRING, outputName); // world
+        wrapper.user().getEntityTracker(Protocol1_16To1_15_2.class).trackWorld(outputName);
     };
     public static final CompoundTag DIMENSIONS_TAG = new CompoundTag();
     private static final String[] WORLD_NAMES = {"minecraft:overworld", "minecraft:the_nether", "minecraft:the_end"};
@@ -222,7 +224,10 @@ public class EntityPackets {
                 map(Type.LONG); // Seed
                 map(Type.UNSIGNED_BYTE); // Max players
                 handler(wrapper -> {
-                    wrapper.user().getEntityTracker(Protocol1_16To1_15_2.class).addEntity(wrapper.get(Type.INT, 0), EntityTypes1_16.PLAYER);
+                    final int entityId = wrapper.get(Type.INT, 0);
+                    final EntityTracker tracker = wrapper.user().getEntityTracker(Protocol1_16To1_15_2.class);
+                    tracker.setClientEntityId(entityId);
+                    tracker.addEntity(entityId, EntityTypes1_16.PLAYER);
 
                     final String type = wrapper.read(Type.STRING);// level type
                     wrapper.passthrough(Type.VAR_INT); // View distance
@@ -85,13 +85,18 @@ public final class EntityPackets extends EntityRewriter<ClientboundPackets1_16_2
                     CompoundTag currentDimensionTag = wrapper.get(Type.NAMED_COMPOUND_TAG, 1);
                     addNewDimensionData(currentDimensionTag);
                 });
+                map(Type.STRING); // World
                 handler(playerTrackerHandler());
+                handler(wrapper -> tracker(wrapper.user()).trackWorld(wrapper.get(Type.STRING, 0)));
             }
         });
 
         protocol.registerClientbound(ClientboundPackets1_16_2.RESPAWN, wrapper -> {
             CompoundTag dimensionData = wrapper.passthrough(Type.NAMED_COMPOUND_TAG);
             addNewDimensionData(dimensionData);
+
+            String world = wrapper.passthrough(Type.STRING);
+            tracker(wrapper.user()).trackWorld(world);
         });
 
         protocol.registerClientbound(ClientboundPackets1_16_2.ENTITY_PROPERTIES, new PacketHandlers() {
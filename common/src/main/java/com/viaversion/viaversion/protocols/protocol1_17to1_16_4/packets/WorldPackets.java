@@ -33,9 +33,7 @@ import com.viaversion.viaversion.protocols.protocol1_16_2to1_16_1.ClientboundPac
 import com.viaversion.viaversion.protocols.protocol1_17to1_16_4.ClientboundPackets1_17;
 import com.viaversion.viaversion.protocols.protocol1_17to1_16_4.Protocol1_17To1_16_4;
 import com.viaversion.viaversion.rewriter.BlockRewriter;
-import java.util.ArrayList;
 import java.util.BitSet;
-import java.util.List;
 
 public final class WorldPackets {
 
@@ -98,27 +96,17 @@ public final class WorldPackets {
             }
 
             private void writeLightArrays(PacketWrapper wrapper, int bitMask) throws Exception {
-                List<byte[]> light = new ArrayList<>();
-                for (int i = 0; i < 18; i++) {
-                    if (isSet(bitMask, i)) {
-                        light.add(wrapper.read(Type.BYTE_ARRAY_PRIMITIVE));
-                    }
-                }
-
-                // Now needs the length of the bytearray-array
-                wrapper.write(Type.VAR_INT, light.size());
-                for (byte[] bytes : light) {
-                    wrapper.write(Type.BYTE_ARRAY_PRIMITIVE, bytes);
+                // Now needs the length of the bytearray-array, the arrays themselves can be passed through as they are
+                int length = Integer.bitCount(bitMask & 0x3FFFF);
+                wrapper.write(Type.VAR_INT, length);
+                for (int i = 0; i < length; i++) {
+                    wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE);
                 }
             }
 
             private long[] toBitSetLongArray(int bitmask) {
                 return new long[]{bitmask};
             }
-
-            private boolean isSet(int mask, int i) {
-                return (mask & (1 << i)) != 0;
-            }
         });
 
         protocol.registerClientbound(ClientboundPackets1_16_2.CHUNK_DATA, wrapper -> {
@@ -49,7 +49,7 @@ public final class EntityPackets extends EntityRewriter<ClientboundPackets1_17_1
                 map(Type.BYTE); // Previous Gamemode
                 map(Type.STRING_ARRAY); // World List
                 map(Type.NAMED_COMPOUND_TAG); // Registry
-                map(Type.NAMED_COMPOUND_TAG); // Current dimension data
+                map(Type.LAZY_NAMED_COMPOUND_TAG); // Current dimension data
                 map(Type.STRING); // World
                 map(Type.LONG); // Seed
                 map(Type.VAR_INT); // Max players
@@ -57,7 +57,7 @@ public final class EntityPackets extends EntityRewriter<ClientboundPackets1_17_1
                     int chunkRadius = wrapper.passthrough(Type.VAR_INT);
                     wrapper.write(Type.VAR_INT, chunkRadius); // Simulation distance
                 });
-                handler(worldDataTrackerHandler(1));
+                handler(lazyWorldDataTrackerHandler(0));
                 handler(biomeSizeTracker());
             }
         });
@@ -65,7 +65,7 @@ public final class EntityPackets extends EntityRewriter<ClientboundPackets1_17_1
         protocol.registerClientbound(ClientboundPackets1_17_1.RESPAWN, new PacketHandlers() {
             @Override
             public void register() {
-                map(Type.NAMED_COMPOUND_TAG); // Current dimension data
+                map(Type.LAZY_NAMED_COMPOUND_TAG); // Current dimension data
                 map(Type.STRING); // World
                 handler(wrapper -> {
                     final String world = wrapper.get(Type.STRING, 0);
@@ -74,7 +74,7 @@ public final class EntityPackets extends EntityRewriter<ClientboundPackets1_17_1
                         wrapper.user().get(ChunkLightStorage.class).clear();
                     }
                 });
-                handler(worldDataTrackerHandler(0));
+                handler(lazyWorldDataTrackerHandler(0));
             }
         });
     }
@@ -39,6 +39,7 @@ import com.viaversion.viaversion.protocols.protocol1_18to1_17_1.data.BlockEntity
 import com.viaversion.viaversion.protocols.protocol1_18to1_17_1.Protocol1_18To1_17_1;
 import com.viaversion.viaversion.protocols.protocol1_18to1_17_1.data.BlockEntities;
 import com.viaversion.viaversion.protocols.protocol1_18to1_17_1.storage.ChunkLightStorage;
+import com.viaversion.viaversion.util.ChunkUtil;
 import com.viaversion.viaversion.util.Key;
 import com.viaversion.viaversion.util.MathUtil;
 import java.util.ArrayList;
@@ -86,13 +87,13 @@ public final class WorldPackets {
             final int skyLightLenght = wrapper.passthrough(Type.VAR_INT);
             final byte[][] skyLight = new byte[skyLightLenght][];
             for (int i = 0; i < skyLightLenght; i++) {
-                skyLight[i] = wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE);
+                skyLight[i] = ChunkUtil.sharedLight(wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE));
             }
 
             final int blockLightLength = wrapper.passthrough(Type.VAR_INT);
             final byte[][] blockLight = new byte[blockLightLength][];
             for (int i = 0; i < blockLightLength; i++) {
-                blockLight[i] = wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE);
+                blockLight[i] = ChunkUtil.sharedLight(wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE));
             }
 
             final ChunkLightStorage lightStorage = wrapper.user().get(ChunkLightStorage.class);
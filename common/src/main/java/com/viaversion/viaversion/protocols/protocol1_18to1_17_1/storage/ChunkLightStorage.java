@@ -18,23 +18,39 @@
 package com.viaversion.viaversion.protocols.protocol1_18to1_17_1.storage;
 
 import com.viaversion.viaversion.api.connection.StorableObject;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class ChunkLightStorage implements StorableObject {
+    // Enough for a full view distance of 32 chunks
+    private static final int MAX_PENDING_LIGHT = 65 * 65;
 
-    private final Map<Long, ChunkLight> lightPackets = new HashMap<>();
-    private final Set<Long> loadedChunks = new HashSet<>();
+    private final Long2ObjectMap<ChunkLight> lightPackets = new Long2ObjectOpenHashMap<>();
+    private final LongLinkedOpenHashSet pendingLight = new LongLinkedOpenHashSet();
+    private final LongSet loadedChunks = new LongOpenHashSet();
 
     public void storeLight(final int x, final int z, final ChunkLight chunkLight) {
-        lightPackets.put(getChunkSectionIndex(x, z), chunkLight);
+        final long index = getChunkSectionIndex(x, z);
+        lightPackets.put(index, chunkLight);
+        if (loadedChunks.contains(index)) {
+            return;
+        }
+
+        // Bound light data for chunks that have not been sent (yet), dropping the oldest first
+        pendingLight.addAndMoveToLast(index);
+        if (pendingLight.size() > MAX_PENDING_LIGHT) {
+            lightPackets.remove(pendingLight.removeFirstLong());
+        }
     }
 
     public @Nullable ChunkLight removeLight(final int x, final int z) {
-        return lightPackets.remove(getChunkSectionIndex(x, z));
+        final long index = getChunkSectionIndex(x, z);
+        pendingLight.remove(index);
+        return lightPackets.remove(index);
     }
 
     public @Nullable ChunkLight getLight(final int x, final int z) {
@@ -42,7 +58,9 @@ public final class ChunkLightStorage implements StorableObject {
     }
 
     public boolean addLoadedChunk(final int x, final int z) {
-        return loadedChunks.add(getChunkSectionIndex(x, z));
+        final long index = getChunkSectionIndex(x, z);
+        pendingLight.remove(index);
+        return loadedChunks.add(index);
     }
 
     public boolean isLoaded(final int x, final int z) {
@@ -52,11 +70,13 @@ public final class ChunkLightStorage implements StorableObject {
     public void clear(final int x, final int z) {
         final long index = getChunkSectionIndex(x, z);
         lightPackets.remove(index);
+        pendingLight.remove(index);
         loadedChunks.remove(index);
     }
 
     public void clear() {
         loadedChunks.clear();
+        pendingLight.clear();
         lightPackets.clear();
     }
 
@@ -32,6 +32,7 @@ import com.viaversion.viaversion.api.minecraft.signature.model.DecoratableMessag
 import com.viaversion.viaversion.api.minecraft.signature.model.MessageMetadata;
 import com.viaversion.viaversion.api.minecraft.signature.storage.ChatSession1_19_0;
 import com.viaversion.viaversion.api.protocol.AbstractProtocol;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
@@ -39,6 +40,7 @@ import com.viaversion.viaversion.protocols.base.ClientboundLoginPackets;
 import com.viaversion.viaversion.protocols.base.ServerboundLoginPackets;
 import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.data.ChatDecorationResult;
 import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.data.ChatRegistry;
+import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.storage.ChatSigningQueue;
 import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.storage.ChatTypeStorage;
 import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.storage.NonceStorage;
 import com.viaversion.viaversion.protocols.protocol1_19to1_18_2.ClientboundPackets1_19;
@@ -47,6 +49,7 @@ import com.viaversion.viaversion.util.CipherUtil;
 import com.viaversion.viaversion.util.Pair;
 import com.viaversion.viaversion.util.TagUtil;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -120,12 +123,19 @@ public final class Protocol1_19_1To1_19 extends AbstractProtocol<ClientboundPack
                         final long timestamp = wrapper.get(Type.LONG, 0);
                         final long salt = wrapper.get(Type.LONG, 1);
 
+                        // Sign off the event loop and send the message once done, keeping the order of signed packets
+                        wrapper.cancel();
                         final MessageMetadata metadata = new MessageMetadata(sender, timestamp, salt);
                         final DecoratableMessage decoratableMessage = new DecoratableMessage(message);
-                        final byte[] signature = chatSession.signChatMessage(metadata, decoratableMessage);
-
-                        wrapper.set(Type.BYTE_ARRAY_PRIMITIVE, 0, signature); // Signature
-                        wrapper.set(Type.BOOLEAN, 0, decoratableMessage.isDecorated()); // Signed preview
+                        wrapper.user().get(ChatSigningQueue.class).submit(wrapper.user(), () -> chatSession.signChatMessage(metadata, decoratableMessage), signature -> {
+                            final PacketWrapper chatPacket = PacketWrapper.create(ServerboundPackets1_19.CHAT_MESSAGE, wrapper.user());
+                            chatPacket.write(Type.STRING, message); // Message
+                            chatPacket.write(Type.LONG, timestamp); // Timestamp
+                            chatPacket.write(Type.LONG, salt); // Salt
+                            chatPacket.write(Type.BYTE_ARRAY_PRIMITIVE, signature); // Signature
+                            chatPacket.write(Type.BOOLEAN, decoratableMessage.isDecorated()); // Signed preview
+                            chatPacket.sendToServer(Protocol1_19_1To1_19.class);
+                        });
                     }
                 });
                 read(Type.PLAYER_MESSAGE_SIGNATURE_ARRAY); // Last seen messages
@@ -147,30 +157,45 @@ public final class Protocol1_19_1To1_19 extends AbstractProtocol<ClientboundPack
                         wrapper.read(Type.STRING); // Argument name
                         wrapper.read(Type.BYTE_ARRAY_PRIMITIVE); // Signature
                     }
+                    final boolean signedPreview = wrapper.read(Type.BOOLEAN);
 
-                    if (chatSession != null && argumentsProvider != null) {
+                    final List<Pair<String, String>> arguments = chatSession != null && argumentsProvider != null
+                            ? argumentsProvider.getSignableArguments(wrapper.get(Type.STRING, 0)) : Collections.emptyList();
+                    if (!arguments.isEmpty()) {
                         final UUID sender = wrapper.user().getProtocolInfo().getUuid();
                         final String message = wrapper.get(Type.STRING, 0);
                         final long timestamp = wrapper.get(Type.LONG, 0);
                         final long salt = wrapper.get(Type.LONG, 1);
 
-                        final List<Pair<String, String>> arguments = argumentsProvider.getSignableArguments(message);
-
-                        wrapper.write(Type.VAR_INT, arguments.size()); // Signature count
-                        for (Pair<String, String> argument : arguments) {
-                            final MessageMetadata metadata = new MessageMetadata(sender, timestamp, salt);
-                            final DecoratableMessage decoratableMessage = new DecoratableMessage(argument.value());
-
-                            final byte[] signature = chatSession.signChatMessage(metadata, decoratableMessage);
-
-                            wrapper.write(Type.STRING, argument.key()); // Argument name
-                            wrapper.write(Type.BYTE_ARRAY_PRIMITIVE, signature); // Signature
-                        }
-                    } else {
-                        wrapper.write(Type.VAR_INT, 0); // Signature count
+                        // Sign off the event loop and send the command once done, keeping the order of signed packets
+                        wrapper.cancel();
+                        wrapper.user().get(ChatSigningQueue.class).submit(wrapper.user(), () -> {
+                            final List<byte[]> argumentSignatures = new ArrayList<>(arguments.size());
+                            for (final Pair<String, String> argument : arguments) {
+                                final MessageMetadata metadata = new MessageMetadata(sender, timestamp, salt);
+                                final DecoratableMessage decoratableMessage = new DecoratableMessage(argument.value());
+                                argumentSignatures.add(chatSession.signChatMessage(metadata, decoratableMessage));
+                            }
+                            return argumentSignatures;
+                        }, argumentSignatures -> {
+                            final PacketWrapper commandPacket = PacketWrapper.create(ServerboundPackets1_19.CHAT_COMMAND, wrapper.user());
+                            commandPacket.write(Type.STRING, message); // Command
+                            commandPacket.write(Type.LONG, timestamp); // Timestamp
+                            commandPacket.write(Type.LONG, salt); // Salt
+                            commandPacket.write(Type.VAR_INT, arguments.size()); // Signature count
+                            for (int i = 0; i < arguments.size(); i++) {
+                                commandPacket.write(Type.STRING, arguments.get(i).key()); // Argument name
+                                commandPacket.write(Type.BYTE_ARRAY_PRIMITIVE, argumentSignatures.get(i)); // Signature
+                            }
+                            commandPacket.write(Type.BOOLEAN, signedPreview); // Signed preview
+                            commandPacket.sendToServer(Protocol1_19_1To1_19.class);
+                        });
+                        return;
                     }
+
+                    wrapper.write(Type.VAR_INT, 0); // Signature count
+                    wrapper.write(Type.BOOLEAN, signedPreview); // Signed preview
                 });
-                map(Type.BOOLEAN); // Signed preview
                 read(Type.PLAYER_MESSAGE_SIGNATURE_ARRAY); // Last seen messages
                 read(Type.OPTIONAL_PLAYER_MESSAGE_SIGNATURE); // Last received message
             }
@@ -295,6 +320,9 @@ public final class Protocol1_19_1To1_19 extends AbstractProtocol<ClientboundPack
     @Override
     public void init(final UserConnection connection) {
         connection.put(new ChatTypeStorage());
+        if (!connection.has(ChatSigningQueue.class)) {
+            connection.put(new ChatSigningQueue());
+        }
     }
 
     public static @Nullable ChatDecorationResult decorateChatMessage(
@@ -0,0 +1,176 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_19_1to1_19.storage;
+
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.StorableObject;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.scheduler.LatencyHistogram;
+import io.netty.channel.Channel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+/**
+ * Per-connection queue moving chat signing off the event loop.
+ * <p>
+ * Signing tasks of a connection run one after another on a shared bounded pool, and their results are handed back
+ * to the channel's event loop in submission order. Since chat sessions chain their signatures, tasks must never be
+ * submitted from anywhere but the event loop. Serverbound packets are held back while signing, so that nothing
+ * overtakes the signed packets.
+ */
+public final class ChatSigningQueue implements StorableObject {
+
+    private static final int SIGNING_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final LatencyHistogram EVENT_LOOP_SIGNING = new LatencyHistogram();
+    private static volatile ExecutorService pool;
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+    /**
+     * Queues the given signing task, passing its result to the given callback on the channel's event loop.
+     * All serverbound packets received in the meantime are held back until the callback has been run.
+     * Connections that can't hold back packets are signed for right away instead.
+     *
+     * @param connection user connection
+     * @param signing    signing task
+     * @param callback   callback to send the signed packet from
+     * @param <T>        signing result type
+     */
+    public <T> void submit(final UserConnection connection, final SigningTask<T> signing, final SigningCallback<T> callback) {
+        if (!(connection instanceof UserConnectionImpl)) {
+            try {
+                callback.accept(signOnEventLoop(signing));
+            } catch (final Exception e) {
+                Via.getPlatform().getLogger().log(Level.WARNING, "Failed to sign chat packet", e);
+            }
+            return;
+        }
+
+        final Channel channel = connection.getChannel();
+        final UserConnectionImpl connectionImpl = (UserConnectionImpl) connection;
+        connectionImpl.holdServerbound();
+        final CompletableFuture<T> signed = new CompletableFuture<>();
+        tail.whenComplete((ignored, throwable) -> sign(signing, signed));
+        tail = signed.handleAsync((result, throwable) -> {
+            try {
+                if (channel != null && !channel.isActive()) {
+                    return null;
+                }
+                if (throwable != null) {
+                    Via.getPlatform().getLogger().log(Level.WARNING, "Failed to sign chat packet", throwable);
+                    return null;
+                }
+
+                callback.accept(result);
+            } catch (final Exception e) {
+                Via.getPlatform().getLogger().log(Level.WARNING, "Failed to send signed chat packet", e);
+            } finally {
+                // Let the packets received in the meantime through
+                connectionImpl.releaseServerbound();
+            }
+            return null;
+        }, channel != null ? channel.eventLoop() : Runnable::run);
+    }
+
+    private static <T> void sign(final SigningTask<T> signing, final CompletableFuture<T> signed) {
+        final FutureTask<Void> task = new FutureTask<Void>(() -> complete(signing, signed), null) {
+            @Override
+            protected void done() {
+                if (isCancelled() && !signed.isDone()) {
+                    // Dropped by the saturated or shut down pool
+                    signInline(signing, signed);
+                }
+            }
+        };
+        try {
+            pool().execute(task);
+        } catch (final RejectedExecutionException e) {
+            signInline(signing, signed);
+        }
+    }
+
+    private static <T> void signInline(final SigningTask<T> signing, final CompletableFuture<T> signed) {
+        final long start = System.nanoTime();
+        try {
+            complete(signing, signed);
+        } finally {
+            EVENT_LOOP_SIGNING.record(System.nanoTime() - start);
+        }
+    }
+
+    private static <T> void complete(final SigningTask<T> signing, final CompletableFuture<T> signed) {
+        try {
+            signed.complete(signing.sign());
+        } catch (final Throwable t) {
+            signed.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Runs a signing task that has to finish on the event loop, recording the time spent on it.
+     *
+     * @param signing signing task
+     * @param <T>     signing result type
+     * @return signing result
+     * @throws Exception if signing fails
+     */
+    public static <T> T signOnEventLoop(final SigningTask<T> signing) throws Exception {
+        final long start = System.nanoTime();
+        try {
+            return signing.sign();
+        } finally {
+            EVENT_LOOP_SIGNING.record(System.nanoTime() - start);
+        }
+    }
+
+    private static ExecutorService pool() {
+        ExecutorService pool = ChatSigningQueue.pool;
+        if (pool == null || pool.isShutdown()) {
+            synchronized (ChatSigningQueue.class) {
+                pool = ChatSigningQueue.pool;
+                if (pool == null || pool.isShutdown()) {
+                    pool = Via.getManager().getScheduler().newExecutor("chat-signing", SIGNING_THREADS, SIGNING_THREADS, 1024);
+                    ChatSigningQueue.pool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public static JsonObject metrics() {
+        final JsonObject object = new JsonObject();
+        object.add("event-loop-signing", EVENT_LOOP_SIGNING.toJson());
+        return object;
+    }
+
+    @FunctionalInterface
+    public interface SigningTask<T> {
+
+        T sign() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface SigningCallback<T> {
+
+        void accept(T result) throws Exception;
+    }
+}
@@ -46,6 +46,7 @@ import com.viaversion.viaversion.protocols.base.ClientboundLoginPackets;
 import com.viaversion.viaversion.protocols.base.ServerboundLoginPackets;
 import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.ClientboundPackets1_19_1;
 import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.ServerboundPackets1_19_1;
+import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.storage.ChatSigningQueue;
 import com.viaversion.viaversion.protocols.protocol1_19_3to1_19_1.packets.EntityPackets;
 import com.viaversion.viaversion.protocols.protocol1_19_3to1_19_1.packets.InventoryPackets;
 import com.viaversion.viaversion.protocols.protocol1_19_3to1_19_1.storage.NonceStorage;
@@ -55,6 +56,8 @@ import com.viaversion.viaversion.rewriter.StatisticsRewriter;
 import com.viaversion.viaversion.rewriter.TagRewriter;
 import com.viaversion.viaversion.util.ComponentUtil;
 import com.viaversion.viaversion.util.Pair;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
@@ -216,28 +219,45 @@ public final class Protocol1_19_3To1_19_1 extends AbstractProtocol<ClientboundPa
                     }
 
                     final SignableCommandArgumentsProvider argumentsProvider = Via.getManager().getProviders().get(SignableCommandArgumentsProvider.class);
-                    if (chatSession != null && argumentsProvider != null) {
+                    final List<Pair<String, String>> arguments = chatSession != null && argumentsProvider != null
+                            ? argumentsProvider.getSignableArguments(wrapper.get(Type.STRING, 0)) : Collections.emptyList();
+                    if (!arguments.isEmpty()) {
                         final UUID sender = wrapper.user().getProtocolInfo().getUuid();
                         final String message = wrapper.get(Type.STRING, 0);
                         final long timestamp = wrapper.get(Type.LONG, 0);
                         final long salt = wrapper.get(Type.LONG, 1);
-
-                        final List<Pair<String, String>> arguments = argumentsProvider.getSignableArguments(message);
-                        wrapper.write(Type.VAR_INT, arguments.size()); // Signature count
-
-                        for (Pair<String, String> argument : arguments) {
-                            final MessageMetadata metadata = new MessageMetadata(sender, timestamp, salt);
-                            final DecoratableMessage decoratableMessage = new DecoratableMessage(argument.value());
-
-                            final byte[] signature = chatSession.signChatMessage(metadata, decoratableMessage, messagesStorage.lastSignatures());
-
-                            wrapper.write(Type.STRING, argument.key()); // Argument name
-                            wrapper.write(Type.BYTE_ARRAY_PRIMITIVE, signature); // Signature
-                        }
-                    } else {
-                        wrapper.write(Type.VAR_INT, 0); // Signature count
+                        final PlayerMessageSignature[] lastSignatures = messagesStorage.lastSignatures();
+                        messagesStorage.resetUnacknowledgedCount();
+
+                        // Sign off the event loop and send the command once done, keeping the order of signed packets
+                        wrapper.cancel();
+                        wrapper.user().get(ChatSigningQueue.class).submit(wrapper.user(), () -> {
+                            final List<byte[]> argumentSignatures = new ArrayList<>(arguments.size());
+                            for (final Pair<String, String> argument : arguments) {
+                                final MessageMetadata metadata = new MessageMetadata(sender, timestamp, salt);
+                                final DecoratableMessage decoratableMessage = new DecoratableMessage(argument.value());
+                                argumentSignatures.add(chatSession.signChatMessage(metadata, decoratableMessage, lastSignatures));
+                            }
+                            return argumentSignatures;
+                        }, argumentSignatures -> {
+                            final PacketWrapper commandPacket = PacketWrapper.create(ServerboundPackets1_19_1.CHAT_COMMAND, wrapper.user());
+                            commandPacket.write(Type.STRING, message); // Command
+                            commandPacket.write(Type.LONG, timestamp); // Timestamp
+                            commandPacket.write(Type.LONG, salt); // Salt
+                            commandPacket.write(Type.VAR_INT, arguments.size()); // Signature count
+                            for (int i = 0; i < arguments.size(); i++) {
+                                commandPacket.write(Type.STRING, arguments.get(i).key()); // Argument name
+                                commandPacket.write(Type.BYTE_ARRAY_PRIMITIVE, argumentSignatures.get(i)); // Signature
+                            }
+                            commandPacket.write(Type.BOOLEAN, false); // No signed preview
+                            commandPacket.write(Type.PLAYER_MESSAGE_SIGNATURE_ARRAY, lastSignatures);
+                            commandPacket.write(Type.OPTIONAL_PLAYER_MESSAGE_SIGNATURE, null); // No last unacknowledged
+                            commandPacket.sendToServer(Protocol1_19_3To1_19_1.class);
+                        });
+                        return;
                     }
 
+                    wrapper.write(Type.VAR_INT, 0); // Signature count
                     wrapper.write(Type.BOOLEAN, false); // No signed preview
 
                     messagesStorage.resetUnacknowledgedCount();
@@ -264,18 +284,30 @@ public final class Protocol1_19_3To1_19_1 extends AbstractProtocol<ClientboundPa
                         final String message = wrapper.get(Type.STRING, 0);
                         final long timestamp = wrapper.get(Type.LONG, 0);
                         final long salt = wrapper.get(Type.LONG, 1);
+                        final PlayerMessageSignature[] lastSignatures = messagesStorage.lastSignatures();
+                        messagesStorage.resetUnacknowledgedCount();
 
+                        // Sign off the event loop and send the message once done, keeping the order of signed packets
+                        wrapper.cancel();
                         final MessageMetadata metadata = new MessageMetadata(sender, timestamp, salt);
                         final DecoratableMessage decoratableMessage = new DecoratableMessage(message);
-                        final byte[] signature = chatSession.signChatMessage(metadata, decoratableMessage, messagesStorage.lastSignatures());
-
-                        wrapper.write(Type.BYTE_ARRAY_PRIMITIVE, signature); // Signature
-                        wrapper.write(Type.BOOLEAN, decoratableMessage.isDecorated()); // Signed preview
-                    } else {
-                        wrapper.write(Type.BYTE_ARRAY_PRIMITIVE, EMPTY_BYTES); // Signature
-                        wrapper.write(Type.BOOLEAN, false); // Signed preview
+                        wrapper.user().get(ChatSigningQueue.class).submit(wrapper.user(), () -> chatSession.signChatMessage(metadata, decoratableMessage, lastSignatures), signature -> {
+                            final PacketWrapper chatPacket = PacketWrapper.create(ServerboundPackets1_19_1.CHAT_MESSAGE, wrapper.user());
+                            chatPacket.write(Type.STRING, message); // Message
+                            chatPacket.write(Type.LONG, timestamp); // Timestamp
+                            chatPacket.write(Type.LONG, salt); // Salt
+                            chatPacket.write(Type.BYTE_ARRAY_PRIMITIVE, signature); // Signature
+                            chatPacket.write(Type.BOOLEAN, decoratableMessage.isDecorated()); // Signed preview
+                            chatPacket.write(Type.PLAYER_MESSAGE_SIGNATURE_ARRAY, lastSignatures);
+                            chatPacket.write(Type.OPTIONAL_PLAYER_MESSAGE_SIGNATURE, null); // No last unacknowledged
+                            chatPacket.sendToServer(Protocol1_19_3To1_19_1.class);
+                        });
+                        return;
                     }
 
+                    wrapper.write(Type.BYTE_ARRAY_PRIMITIVE, EMPTY_BYTES); // Signature
+                    wrapper.write(Type.BOOLEAN, false); // Signed preview
+
                     messagesStorage.resetUnacknowledgedCount();
                     wrapper.write(Type.PLAYER_MESSAGE_SIGNATURE_ARRAY, messagesStorage.lastSignatures());
                     wrapper.write(Type.OPTIONAL_PLAYER_MESSAGE_SIGNATURE, null); // No last unacknowledged
@@ -319,10 +351,11 @@ public final class Protocol1_19_3To1_19_1 extends AbstractProtocol<ClientboundPa
                     wrapper.write(Type.BOOLEAN, chatSession == null); // Is nonce
                     if (chatSession != null) {
                         final long salt = ThreadLocalRandom.current().nextLong();
-                        final byte[] signature = chatSession.sign(signer -> {
-                            signer.accept(wrapper.user().remove(NonceStorage.class).nonce());
+                        final byte[] nonce = wrapper.user().remove(NonceStorage.class).nonce();
+                        final byte[] signature = ChatSigningQueue.signOnEventLoop(() -> chatSession.sign(signer -> {
+                            signer.accept(nonce);
                             signer.accept(Longs.toByteArray(salt));
-                        });
+                        }));
                         wrapper.write(Type.LONG, salt); // Salt
                         wrapper.write(Type.BYTE_ARRAY_PRIMITIVE, signature); // Signature
                     } else {
@@ -360,6 +393,9 @@ public final class Protocol1_19_3To1_19_1 extends AbstractProtocol<ClientboundPa
     @Override
     public void init(final UserConnection user) {
         user.put(new ReceivedMessagesStorage());
+        if (!user.has(ChatSigningQueue.class)) {
+            user.put(new ChatSigningQueue());
+        }
         addEntityTracker(user, new EntityTrackerBase(user, EntityTypes1_19_3.PLAYER));
     }
 
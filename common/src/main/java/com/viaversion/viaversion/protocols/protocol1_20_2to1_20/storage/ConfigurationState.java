@@ -18,24 +18,58 @@
 package com.viaversion.viaversion.protocols.protocol1_20_2to1_20.storage;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.protocol.packet.PacketType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.protocols.protocol1_19_4to1_19_3.ClientboundPackets1_19_4;
 import com.viaversion.viaversion.protocols.protocol1_19_4to1_19_3.ServerboundPackets1_19_4;
 import com.viaversion.viaversion.protocols.protocol1_20_2to1_20.Protocol1_20_2To1_20;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class ConfigurationState implements StorableObject {
 
     private static final QueuedPacket[] EMPTY_PACKET_ARRAY = new QueuedPacket[0];
+    // Ids of packets fully replacing the state set by previous ones, so only the last one has to be kept;
+    // queued clientbound packets are mostly created from their unmapped id without a packet type
+    private static final IntSet COLLAPSIBLE_PACKET_IDS = new IntOpenHashSet(new int[]{
+            ClientboundPackets1_19_4.TAGS.getId(),
+            ClientboundPackets1_19_4.RESOURCE_PACK.getId(),
+            ClientboundPackets1_19_4.DECLARE_COMMANDS.getId(),
+            ClientboundPackets1_19_4.DECLARE_RECIPES.getId(),
+            ClientboundPackets1_19_4.SERVER_DIFFICULTY.getId(),
+            ClientboundPackets1_19_4.SPAWN_POSITION.getId(),
+            ClientboundPackets1_19_4.UPDATE_VIEW_DISTANCE.getId()
+    });
+    private static final AtomicLong MAX_QUEUED_BYTES = new AtomicLong();
+    private static final AtomicInteger MAX_QUEUED_PACKETS = new AtomicInteger();
+    private static final LongAdder REPLAYED_QUEUES = new LongAdder();
+    private static final LongAdder REPLAYED_BYTES = new LongAdder();
+    private static final LongAdder COLLAPSED_PACKETS = new LongAdder();
+    private static final LongAdder EXCEEDED_QUEUES = new LongAdder();
     private final List<QueuedPacket> packetQueue = new ArrayList<>();
+    private final Int2ObjectMap<QueuedPacket> collapsiblePackets = new Int2ObjectOpenHashMap<>();
+    private long queuedBytes;
+    private long peakQueuedBytes;
+    private int peakQueuedPackets;
+    private boolean exceededQueueLimit;
     private BridgePhase bridgePhase = BridgePhase.NONE;
     private QueuedPacket joinGamePacket;
     private boolean queuedJoinGame;
@@ -71,18 +105,52 @@ public class ConfigurationState implements StorableObject {
     }
 
     public void addPacketToQueue(final PacketWrapper wrapper, final boolean clientbound) throws Exception {
-        packetQueue.add(toQueuedPacket(wrapper, clientbound, false));
+        if (exceededQueueLimit) {
+            return; // Already being disconnected
+        }
+
+        final QueuedPacket packet = toQueuedPacket(wrapper, clientbound, false);
+        final int maxBytes = Via.getConfig().getConfigurationQueueMaxBytes();
+        if (maxBytes > 0 && queuedBytes + packet.size() > maxBytes) {
+            packet.release();
+            releaseQueuedPackets();
+            exceededQueueLimit = true;
+            EXCEEDED_QUEUES.increment();
+            Via.getPlatform().getLogger().warning("Disconnecting " + wrapper.user().getProtocolInfo().getUsername()
+                    + " for going over the configuration queue limit of " + maxBytes + " bytes");
+            wrapper.user().disconnect("Too many packets sent while joining");
+            return;
+        }
+
+        if (clientbound && COLLAPSIBLE_PACKET_IDS.contains(packet.packetId())) {
+            final QueuedPacket previous = collapsiblePackets.put(packet.packetId(), packet);
+            if (previous != null && previous.release()) {
+                queuedBytes -= previous.size();
+                COLLAPSED_PACKETS.increment();
+            }
+        }
+
+        packetQueue.add(packet);
+        queuedBytes += packet.size();
+        peakQueuedBytes = Math.max(peakQueuedBytes, queuedBytes);
+        peakQueuedPackets = Math.max(peakQueuedPackets, packetQueue.size());
     }
 
     private QueuedPacket toQueuedPacket(final PacketWrapper wrapper, final boolean clientbound, final boolean skipCurrentPipeline) throws Exception {
-        // Caching packet buffers is cursed, copy to heap buffers to make sure we don't start leaking in dumb cases
-        final ByteBuf copy = Unpooled.buffer();
+        // Copy to pooled buffers; every path dropping a queued packet has to release it
+        final Channel channel = wrapper.user().getChannel();
+        final ByteBuf copy = (channel != null ? channel.alloc() : ByteBufAllocator.DEFAULT).directBuffer();
         final PacketType packetType = wrapper.getPacketType();
         final int packetId = wrapper.getId();
         // Don't write the packet id to the buffer
         //noinspection deprecation
         wrapper.setId(-1);
-        wrapper.writeToBuffer(copy);
+        try {
+            wrapper.writeToBuffer(copy);
+        } catch (final Exception e) {
+            copy.release();
+            throw e;
+        }
         return new QueuedPacket(copy, clientbound, packetType, packetId, skipCurrentPipeline);
     }
 
@@ -98,12 +166,20 @@ public class ConfigurationState implements StorableObject {
 
     @Override
     public void onRemove() {
-        for (final QueuedPacket packet : packetQueue) {
-            packet.buf().release();
-        }
+        releaseQueuedPackets();
         if (joinGamePacket != null) {
-            joinGamePacket.buf().release();
+            joinGamePacket.release();
+            joinGamePacket = null;
+        }
+    }
+
+    private void releaseQueuedPackets() {
+        for (final QueuedPacket packet : packetQueue) {
+            packet.release();
         }
+        packetQueue.clear();
+        collapsiblePackets.clear();
+        queuedBytes = 0;
     }
 
     public void sendQueuedPackets(final UserConnection connection) throws Exception {
@@ -120,30 +196,81 @@ public class ConfigurationState implements StorableObject {
 
         final ConfigurationState.QueuedPacket[] queuedPackets = packetQueue.toArray(EMPTY_PACKET_ARRAY);
         packetQueue.clear();
+        collapsiblePackets.clear();
+        recordReplay();
 
-        for (final ConfigurationState.QueuedPacket packet : queuedPackets) {
-            final PacketWrapper queuedWrapper;
-            try {
-                if (packet.packetType() != null) {
-                    queuedWrapper = PacketWrapper.create(packet.packetType(), packet.buf(), connection);
-                } else {
-                    //noinspection deprecation
-                    queuedWrapper = PacketWrapper.create(packet.packetId(), packet.buf(), connection);
+        // Only flush once all packets have been written
+        final UserConnectionImpl batchingConnection = connection instanceof UserConnectionImpl ? (UserConnectionImpl) connection : null;
+        if (batchingConnection != null) {
+            batchingConnection.beginWriteBatch();
+        }
+        try {
+            for (int i = 0; i < queuedPackets.length; i++) {
+                final ConfigurationState.QueuedPacket packet = queuedPackets[i];
+                if (packet.released()) {
+                    continue; // Collapsed
                 }
 
-                if (packet.clientbound()) {
-                    queuedWrapper.send(Protocol1_20_2To1_20.class, packet.skipCurrentPipeline());
-                } else {
-                    queuedWrapper.sendToServer(Protocol1_20_2To1_20.class, packet.skipCurrentPipeline());
+                try {
+                    final PacketWrapper queuedWrapper;
+                    if (packet.packetType() != null) {
+                        queuedWrapper = PacketWrapper.create(packet.packetType(), packet.buf(), connection);
+                    } else {
+                        //noinspection deprecation
+                        queuedWrapper = PacketWrapper.create(packet.packetId(), packet.buf(), connection);
+                    }
+
+                    if (packet.clientbound()) {
+                        queuedWrapper.send(Protocol1_20_2To1_20.class, packet.skipCurrentPipeline());
+                    } else {
+                        queuedWrapper.sendToServer(Protocol1_20_2To1_20.class, packet.skipCurrentPipeline());
+                    }
+                } catch (final Exception e) {
+                    // Don't leak the rest of the queue
+                    for (int j = i + 1; j < queuedPackets.length; j++) {
+                        queuedPackets[j].release();
+                    }
+                    throw e;
+                } finally {
+                    packet.release();
                 }
-            } finally {
-                packet.buf().release();
             }
+        } finally {
+            if (batchingConnection != null) {
+                batchingConnection.endWriteBatch();
+            }
+        }
+    }
+
+    private void recordReplay() {
+        if (peakQueuedPackets != 0) {
+            REPLAYED_QUEUES.increment();
+            REPLAYED_BYTES.add(peakQueuedBytes);
+            MAX_QUEUED_BYTES.accumulateAndGet(peakQueuedBytes, Math::max);
+            MAX_QUEUED_PACKETS.accumulateAndGet(peakQueuedPackets, Math::max);
         }
+        queuedBytes = 0;
+        peakQueuedBytes = 0;
+        peakQueuedPackets = 0;
+    }
+
+    public static JsonObject metrics() {
+        final long replayedQueues = REPLAYED_QUEUES.sum();
+        final JsonObject object = new JsonObject();
+        object.addProperty("replayed-queues", replayedQueues);
+        object.addProperty("average-peak-bytes", replayedQueues != 0 ? REPLAYED_BYTES.sum() / replayedQueues : 0);
+        object.addProperty("max-peak-bytes", MAX_QUEUED_BYTES.get());
+        object.addProperty("max-peak-packets", MAX_QUEUED_PACKETS.get());
+        object.addProperty("collapsed-packets", COLLAPSED_PACKETS.sum());
+        object.addProperty("exceeded-queues", EXCEEDED_QUEUES.sum());
+        return object;
     }
 
     public void clear() {
-        packetQueue.clear();
+        releaseQueuedPackets();
+        peakQueuedBytes = 0;
+        peakQueuedPackets = 0;
+        exceededQueueLimit = false;
         bridgePhase = BridgePhase.NONE;
         queuedJoinGame = false;
     }
@@ -176,6 +303,8 @@ public class ConfigurationState implements StorableObject {
 
     public static final class QueuedPacket {
         private final ByteBuf buf;
+        private final int size;
+        private boolean released;
         private final boolean clientbound;
         private final PacketType packetType;
         private final int packetId;
@@ -184,6 +313,7 @@ public class ConfigurationState implements StorableObject {
         private QueuedPacket(final ByteBuf buf, final boolean clientbound, final PacketType packetType,
                              final int packetId, final boolean skipCurrentPipeline) {
             this.buf = buf;
+            this.size = buf.readableBytes();
             this.clientbound = clientbound;
             this.packetType = packetType;
             this.packetId = packetId;
@@ -194,6 +324,28 @@ public class ConfigurationState implements StorableObject {
             return buf;
         }
 
+        public int size() {
+            return size;
+        }
+
+        public boolean released() {
+            return released;
+        }
+
+        /**
+         * Releases the packet buffer if not already done.
+         *
+         * @return whether the buffer has been released by this call
+         */
+        public boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            buf.release();
+            return true;
+        }
+
         public boolean clientbound() {
             return clientbound;
         }
@@ -17,6 +17,8 @@
  */
 package com.viaversion.viaversion.protocols.protocol1_20_3to1_20_2;
 
+import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.viaversion.viaversion.api.connection.ProtocolInfo;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.MappingData;
 import com.viaversion.viaversion.api.data.MappingDataBase;
@@ -28,6 +30,7 @@ import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypesProvide
 import com.viaversion.viaversion.api.protocol.packet.provider.SimplePacketTypesProvider;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.misc.ParticleType;
 import com.viaversion.viaversion.api.type.types.version.Types1_20_3;
@@ -49,7 +52,7 @@ import com.viaversion.viaversion.protocols.protocol1_20_3to1_20_2.rewriter.Entit
 import com.viaversion.viaversion.rewriter.SoundRewriter;
 import com.viaversion.viaversion.rewriter.StatisticsRewriter;
 import com.viaversion.viaversion.rewriter.TagRewriter;
-import com.viaversion.viaversion.util.ComponentUtil;
+import com.viaversion.viaversion.util.ComponentNbtTranscoder;
 import java.nio.charset.StandardCharsets;
 import java.util.BitSet;
 import java.util.UUID;
@@ -336,11 +339,31 @@ public final class Protocol1_20_3To1_20_2 extends AbstractProtocol<ClientboundPa
     }
 
     private void convertComponent(final PacketWrapper wrapper) throws Exception {
-        wrapper.write(Type.TAG, ComponentUtil.jsonToTag(wrapper.read(Type.COMPONENT)));
+        if (transcodeDirectly(wrapper)) {
+            wrapper.write(ComponentNbtTranscoder.TAG, wrapper.read(Type.COMPONENT_STRING));
+        } else {
+            // Copied as other protocols may modify it
+            final Tag tag = ComponentNbtTranscoder.toSharedTag(wrapper.read(Type.COMPONENT_STRING));
+            wrapper.write(Type.TAG, tag != null ? tag.copy() : null);
+        }
     }
 
     private void convertOptionalComponent(final PacketWrapper wrapper) throws Exception {
-        wrapper.write(Type.OPTIONAL_TAG, ComponentUtil.jsonToTag(wrapper.read(Type.OPTIONAL_COMPONENT)));
+        if (transcodeDirectly(wrapper)) {
+            final String json = wrapper.read(Type.BOOLEAN) ? wrapper.read(Type.COMPONENT_STRING) : null;
+            wrapper.write(ComponentNbtTranscoder.OPTIONAL_TAG, json);
+        } else {
+            final String json = wrapper.read(Type.BOOLEAN) ? wrapper.read(Type.COMPONENT_STRING) : null;
+            final Tag tag = json != null ? ComponentNbtTranscoder.toSharedTag(json) : null;
+            wrapper.write(Type.OPTIONAL_TAG, tag != null ? tag.copy() : null);
+        }
+    }
+
+    private boolean transcodeDirectly(final PacketWrapper wrapper) {
+        // Only if the component is read straight from the server and no other protocol handles it after this one,
+        // as the json string is transcoded into the output buffer without ever creating a tag object
+        final ProtocolInfo protocolInfo = wrapper.user().getProtocolInfo();
+        return protocolInfo.serverProtocolVersion().equalTo(ProtocolVersion.v1_20_2) && protocolInfo.protocolVersion().equalTo(ProtocolVersion.v1_20_3);
     }
 
     @Override
@@ -21,7 +21,6 @@ import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.ListTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
-import com.google.gson.JsonElement;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.ParticleMappings;
@@ -39,7 +38,9 @@ import com.viaversion.viaversion.protocols.protocol1_20_3to1_20_2.Protocol1_20_3
 import com.viaversion.viaversion.protocols.protocol1_20_3to1_20_2.packet.ServerboundPacket1_20_3;
 import com.viaversion.viaversion.protocols.protocol1_20_3to1_20_2.packet.ServerboundPackets1_20_3;
 import com.viaversion.viaversion.rewriter.BlockRewriter;
+import com.viaversion.viaversion.rewriter.ComponentConversionCache;
 import com.viaversion.viaversion.rewriter.ItemRewriter;
+import com.viaversion.viaversion.util.ComponentNbtTranscoder;
 import com.viaversion.viaversion.util.ComponentUtil;
 import com.viaversion.viaversion.util.Key;
 import com.viaversion.viaversion.util.SerializerVersion;
@@ -160,12 +161,22 @@ public final class BlockItemPacketRewriter1_20_3 extends ItemRewriter<Clientboun
         }
 
         for (final StringTag pageTag : pages) {
+            if (ComponentNbtTranscoder.isSupported(pageTag.getValue())) {
+                // Reads the same in the new format
+                continue;
+            }
+
             try {
-                final JsonElement updatedComponent = ComponentUtil.convertJson(pageTag.getValue(), SerializerVersion.V1_19_4, SerializerVersion.V1_20_3);
-                pageTag.setValue(updatedComponent.toString());
+                final ComponentConversionCache cache = ComponentConversionCache.instance();
+                final String page = pageTag.getValue();
+                pageTag.setValue(cache != null ? cache.get(this, page, BlockItemPacketRewriter1_20_3::convertPage) : convertPage(page));
             } catch (final Exception e) {
                 Via.getManager().debugHandler().error("Error during book conversion", e);
             }
         }
     }
-}
\ No newline at end of file
+
+    private static String convertPage(final String page) {
+        return ComponentUtil.convertJson(page, SerializerVersion.V1_19_4, SerializerVersion.V1_20_3).toString();
+    }
+}
@@ -17,6 +17,7 @@
  */
 package com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3;
 
+import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.ProfileKey;
 import com.viaversion.viaversion.api.minecraft.RegistryType;
@@ -51,6 +52,8 @@ import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.rewriter.Block
 import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.rewriter.ComponentRewriter1_20_5;
 import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.rewriter.EntityPacketRewriter1_20_5;
 import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage.AcknowledgedMessagesStorage;
+import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage.ItemConversionCache;
+import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage.ItemTagStash;
 import com.viaversion.viaversion.rewriter.ComponentRewriter;
 import com.viaversion.viaversion.rewriter.SoundRewriter;
 import com.viaversion.viaversion.rewriter.StatisticsRewriter;
@@ -286,6 +289,16 @@ public final class Protocol1_20_5To1_20_3 extends AbstractProtocol<ClientboundPa
     public void init(final UserConnection connection) {
         addEntityTracker(connection, new EntityTrackerBase(connection, EntityTypes1_20_5.PLAYER));
         connection.put(new AcknowledgedMessagesStorage());
+
+        final int itemConversionCacheSize = Via.getConfig().getItemConversionCacheSize();
+        if (itemConversionCacheSize > 0) {
+            connection.put(new ItemConversionCache(itemConversionCacheSize));
+        }
+
+        final int itemTagStashSize = Via.getConfig().getItemTagStashSize();
+        if (itemTagStashSize > 0) {
+            connection.put(new ItemTagStash(itemTagStashSize));
+        }
     }
 
     @Override
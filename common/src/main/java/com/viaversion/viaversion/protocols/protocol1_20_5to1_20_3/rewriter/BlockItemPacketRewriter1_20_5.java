@@ -97,6 +97,8 @@ import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.data.TrimPatte
 import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.packet.ServerboundPacket1_20_5;
 import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.packet.ServerboundPackets1_20_5;
 import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage.BannerPatternStorage;
+import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage.ItemConversionCache;
+import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage.ItemTagStash;
 import com.viaversion.viaversion.rewriter.BlockRewriter;
 import com.viaversion.viaversion.rewriter.ItemRewriter;
 import com.viaversion.viaversion.util.ComponentUtil;
@@ -363,10 +365,56 @@ public final class BlockItemPacketRewriter1_20_5 extends ItemRewriter<Clientboun
             tag.putBoolean(nbtTagName(), true);
         }
 
-        final Item structuredItem = toStructuredItem(connection, item);
+        final Item structuredItem = toCachedStructuredItem(connection, item);
+        final ItemTagStash stash = connection != null && tag != null ? connection.get(ItemTagStash.class) : null;
+        if (stash != null) {
+            stashOriginalTag(stash, structuredItem.structuredData());
+        }
         return super.handleItemToClient(connection, structuredItem);
     }
 
+    private void stashOriginalTag(final ItemTagStash stash, final StructuredDataContainer data) {
+        // Only send a reference to the original instead of the full tag
+        final StructuredData<CompoundTag> customData = data.getNonEmpty(StructuredDataKey.CUSTOM_DATA);
+        if (customData != null) {
+            final CompoundTag referenceTag = new CompoundTag();
+            referenceTag.putInt(nbtTagName("stash"), stash.store(customData.value()));
+            data.set(StructuredDataKey.CUSTOM_DATA, referenceTag);
+        }
+    }
+
+    private @Nullable CompoundTag stashedTag(final UserConnection connection, final CompoundTag customData) {
+        final Tag referenceTag = customData.remove(nbtTagName("stash"));
+        if (!(referenceTag instanceof IntTag)) {
+            return null;
+        }
+
+        final ItemTagStash stash = connection.get(ItemTagStash.class);
+        final CompoundTag tag = stash != null ? stash.get(((IntTag) referenceTag).asInt()) : null;
+        return tag != null ? tag.copy() : null;
+    }
+
+    private Item toCachedStructuredItem(@Nullable final UserConnection connection, final Item old) {
+        final CompoundTag tag = old.tag();
+        final ItemConversionCache cache = connection != null && tag != null ? connection.get(ItemConversionCache.class) : null;
+        if (cache == null) {
+            return toStructuredItem(connection, old);
+        }
+
+        final ItemConversionCache.Key key = new ItemConversionCache.Key(old.identifier(), tag);
+        final StructuredDataContainer cachedData = cache.get(key);
+        if (cachedData != null) {
+            cachedData.setIdLookup(protocol, true);
+            return new StructuredItem(old.identifier(), (byte) old.amount(), cachedData);
+        }
+
+        // The tag is modified and reused during conversion
+        final ItemConversionCache.Key detachedKey = key.detach();
+        final Item item = toStructuredItem(connection, old);
+        cache.put(detachedKey, item.structuredData());
+        return item;
+    }
+
     @Override
     public @Nullable Item handleItemToServer(UserConnection connection, @Nullable final Item item) {
         if (item == null) return null;
@@ -381,7 +429,15 @@ public final class BlockItemPacketRewriter1_20_5 extends ItemRewriter<Clientboun
         data.setIdLookup(protocol, true);
 
         final StructuredData<CompoundTag> customData = data.getNonEmpty(StructuredDataKey.CUSTOM_DATA);
-        final CompoundTag tag = customData != null ? customData.value() : new CompoundTag();
+        CompoundTag tag = customData != null ? customData.value() : new CompoundTag();
+        if (customData != null) {
+            // If the original has been dropped from the stash, the item is converted back from its data instead
+            final CompoundTag stashedTag = stashedTag(connection, tag);
+            if (stashedTag != null) {
+                tag = stashedTag;
+            }
+        }
+
         final DataItem dataItem = new DataItem(item.identifier(), (byte) item.amount(), (short) 0, tag);
         if (customData != null && tag.remove(nbtTagName()) != null) {
             return dataItem;
@@ -0,0 +1,154 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.StorableObject;
+import com.viaversion.viaversion.api.minecraft.data.StructuredDataContainer;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.minecraft.item.StructuredItem;
+import com.viaversion.viaversion.api.type.types.version.Types1_20_5;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Bounded cache of converted item data, keyed by item id and the original item tag.
+ * Servers tend to resend the same items over and over again, each of them otherwise being converted from scratch.
+ * <p>
+ * Data is stored in its encoded form and read again on every hit, so that later rewriters are free to modify it.
+ * Conversions depend on registry data sent by the server, so the cache is cleared on server switches.
+ */
+public final class ItemConversionCache implements StorableObject {
+    private final Object2ObjectLinkedOpenHashMap<Key, byte[]> cache = new Object2ObjectLinkedOpenHashMap<>();
+    private final int maxSize;
+    private long hits;
+    private long misses;
+
+    public ItemConversionCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a new copy of the cached data for the given key, or null if not cached.
+     * The id lookup of the returned container has not been set.
+     *
+     * @param key item key
+     * @return copy of the cached data, or null if not cached
+     */
+    public @Nullable StructuredDataContainer get(final Key key) {
+        final byte[] encoded = cache.getAndMoveToLast(key);
+        if (encoded == null) {
+            misses++;
+            return null;
+        }
+
+        final Item item;
+        try {
+            item = Types1_20_5.ITEM.read(Unpooled.wrappedBuffer(encoded));
+        } catch (final Exception e) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Failed to read cached item data", e);
+            cache.remove(key);
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return item.structuredData();
+    }
+
+    /**
+     * Caches the converted data of an item, dropping the least recently used entry if full.
+     *
+     * @param key  detached item key, see {@link Key#detach()}
+     * @param data converted item data
+     */
+    public void put(final Key key, final StructuredDataContainer data) {
+        final ByteBuf buf = Unpooled.buffer();
+        final byte[] encoded;
+        try {
+            // Any item id and amount, only the data is read back
+            Types1_20_5.ITEM.write(buf, new StructuredItem(key.identifier, 1, data));
+            encoded = new byte[buf.readableBytes()];
+            buf.readBytes(encoded);
+        } catch (final Exception e) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Failed to cache item data", e);
+            return;
+        } finally {
+            buf.release();
+        }
+
+        cache.putAndMoveToLast(key, encoded);
+        if (cache.size() > maxSize) {
+            cache.removeFirst();
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public static final class Key {
+        private final int identifier;
+        private final CompoundTag tag;
+        private final int hash;
+
+        public Key(final int identifier, final CompoundTag tag) {
+            this(identifier, tag, 31 * identifier + tag.hashCode());
+        }
+
+        private Key(final int identifier, final CompoundTag tag, final int hash) {
+            this.identifier = identifier;
+            this.tag = tag;
+            this.hash = hash;
+        }
+
+        /**
+         * Returns a copy of this key that stays valid after the original tag has been modified or passed on.
+         *
+         * @return detached copy of this key
+         */
+        public Key detach() {
+            return new Key(identifier, tag.copy(), hash);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return identifier == key.identifier && hash == key.hash && tag.equals(key.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
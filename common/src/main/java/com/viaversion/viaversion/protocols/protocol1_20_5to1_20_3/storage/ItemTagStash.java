@@ -0,0 +1,84 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.viaversion.viaversion.api.connection.StorableObject;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Bounded, content-addressed store of original item tags, so that clients only need to be sent a short reference
+ * instead of a full copy of the original tag. Equal tags share the same reference.
+ * <p>
+ * Stored tags must not be modified afterwards.
+ */
+public final class ItemTagStash implements StorableObject {
+    private final Object2IntLinkedOpenHashMap<CompoundTag> references = new Object2IntLinkedOpenHashMap<>();
+    private final Int2ObjectMap<CompoundTag> tags = new Int2ObjectOpenHashMap<>();
+    private final int maxSize;
+    private int nextReference;
+
+    public ItemTagStash(final int maxSize) {
+        this.maxSize = maxSize;
+        this.references.defaultReturnValue(-1);
+    }
+
+    /**
+     * Stores the given tag and returns its reference, dropping the least recently stored or used tags if full.
+     *
+     * @param tag tag to store, must not be modified afterwards
+     * @return reference of the tag
+     */
+    public int store(final CompoundTag tag) {
+        int reference = references.getAndMoveToLast(tag);
+        if (reference != -1) {
+            return reference;
+        }
+
+        reference = nextReference++ & Integer.MAX_VALUE;
+        references.put(tag, reference);
+        tags.put(reference, tag);
+        if (references.size() > maxSize) {
+            tags.remove(references.removeFirstInt());
+        }
+        return reference;
+    }
+
+    /**
+     * Returns the stored tag of the given reference, or null if it has been dropped.
+     *
+     * @param reference tag reference
+     * @return stored tag, or null if not present
+     */
+    public @Nullable CompoundTag get(final int reference) {
+        return tags.get(reference);
+    }
+
+    public int size() {
+        return tags.size();
+    }
+
+    @Override
+    public boolean clearOnServerSwitch() {
+        // Items from before the switch may still be sent back
+        return false;
+    }
+}
@@ -178,6 +178,10 @@ public class PlayerPackets {
                     EntityTracker1_9 tracker = wrapper.user().getEntityTracker(Protocol1_9To1_8.class);
                     tracker.addEntity(entityId, EntityTypes1_10.EntityType.PLAYER);
                     tracker.setClientEntityId(entityId);
+
+                    if (Via.getConfig().isSimulatePlayerTick()) {
+                        wrapper.user().get(MovementTracker.class).startIdleTimer(wrapper.user());
+                    }
                 });
                 map(Type.UNSIGNED_BYTE); // 1 - Player Gamemode
                 map(Type.BYTE); // 2 - Player Dimension
@@ -196,6 +200,7 @@ public class PlayerPackets {
                     ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.BYTE, 0);
                     clientWorld.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_9To1_8.class).trackWorld(Integer.toString(dimensionId));
                 });
 
                 // Fake their op status
@@ -312,6 +317,7 @@ public class PlayerPackets {
                     ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
                     int dimensionId = wrapper.get(Type.INT, 0);
                     clientWorld.setEnvironment(dimensionId);
+                    wrapper.user().getEntityTracker(Protocol1_9To1_8.class).trackWorld(Integer.toString(dimensionId));
                 });
 
                 handler(wrapper -> {
@@ -41,7 +41,7 @@ public class MovementTransmitterProvider implements Provider {
         try {
             final PacketWrapper playerMovement = PacketWrapper.create(ServerboundPackets1_8.PLAYER_MOVEMENT, userConnection);
             playerMovement.write(Type.BOOLEAN, movementTracker.isGround()); // on ground
-            playerMovement.scheduleSendToServer(Protocol1_9To1_8.class);
+            playerMovement.scheduleSendToServerCollapsing(Protocol1_9To1_8.class, ServerboundPackets1_8.PLAYER_MOVEMENT); // Drop idle packets still waiting to be sent
         } catch (Throwable e) {
             Via.getPlatform().getLogger().log(Level.WARNING, "Failed to send player movement packet", e);
         }
@@ -17,18 +17,101 @@
  */
 package com.viaversion.viaversion.protocols.protocol1_9to1_8.storage;
 
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.StorableObject;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.protocols.protocol1_9to1_8.Protocol1_9To1_8;
+import com.viaversion.viaversion.protocols.protocol1_9to1_8.providers.MovementTransmitterProvider;
+import io.netty.channel.Channel;
+import io.netty.util.Timeout;
+import java.util.concurrent.TimeUnit;
 
 public class MovementTracker implements StorableObject {
     private static final long IDLE_PACKET_DELAY = 50L; // Update every 50ms (20tps)
     private static final long IDLE_PACKET_LIMIT = 20; // Max 20 ticks behind
-    private long nextIdlePacket;
+    // Also written from the main thread by the Bukkit movement transmitter
+    private volatile long nextIdlePacket;
     private boolean ground;
+    private volatile UserConnection connection;
+    private Timeout idleTimer;
+    private volatile boolean removed;
 
     public void incrementIdlePacket() {
         // Notify of next update
         // Allow a maximum lag spike of 1 second (20 ticks/updates)
         this.nextIdlePacket = Math.max(nextIdlePacket + IDLE_PACKET_DELAY, System.currentTimeMillis() - IDLE_PACKET_DELAY * IDLE_PACKET_LIMIT);
+
+        final UserConnection connection = this.connection;
+        if (connection == null || removed) {
+            return;
+        }
+
+        // Re-arm the timer if it has been stopped while no idle packet could be sent
+        final Channel channel = connection.getChannel();
+        if (channel == null) {
+            return;
+        }
+        if (channel.eventLoop().inEventLoop()) {
+            armIdleTimer(connection);
+        } else {
+            channel.eventLoop().execute(() -> armIdleTimer(connection));
+        }
+    }
+
+    /**
+     * Starts sending idle packets for the connection whenever the client hasn't sent a movement packet in time,
+     * as 1.9+ clients no longer send them every tick. Has to be called from the connection's event loop.
+     * <p>
+     * The timer is only armed until the next idle packet is due. If no idle packet could be sent then,
+     * it is armed again by the next call to {@link #incrementIdlePacket()}.
+     *
+     * @param connection user connection
+     */
+    public void startIdleTimer(UserConnection connection) {
+        this.connection = connection;
+        armIdleTimer(connection);
+    }
+
+    private void armIdleTimer(UserConnection connection) {
+        if (idleTimer == null && !removed) {
+            scheduleIdleTimer(connection, Math.max(0, nextIdlePacket - System.currentTimeMillis()));
+        }
+    }
+
+    private void scheduleIdleTimer(UserConnection connection, long delay) {
+        idleTimer = ((ViaManagerImpl) Via.getManager()).getConnectionTimer().schedule(connection, () -> {
+            idleTimer = null;
+            if (!isActive(connection)) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            if (nextIdlePacket > now) {
+                // Movement packets have been sent in the meantime
+                scheduleIdleTimer(connection, nextIdlePacket - now);
+                return;
+            }
+
+            // Sending the idle packet increments the next idle packet time, arming the timer again
+            Via.getManager().getProviders().get(MovementTransmitterProvider.class).sendPlayer(connection);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isActive(UserConnection connection) {
+        // Stop once the tracker has been replaced or the protocol is gone after a server switch
+        return !removed && connection.get(MovementTracker.class) == this
+                && connection.getProtocolInfo().getPipeline().contains(Protocol1_9To1_8.class);
+    }
+
+    @Override
+    public void onRemove() {
+        removed = true;
+        final Timeout idleTimer = this.idleTimer;
+        if (idleTimer != null) {
+            idleTimer.cancel();
+            this.idleTimer = null;
+        }
     }
 
     public long getNextIdlePacket() {
@@ -83,7 +83,7 @@ public class CommandRewriter<C extends ClientboundPacketType> {
                 }
 
                 if (nodeType == 2) { // Argument node
-                    String argumentType = wrapper.read(Type.STRING);
+                    String argumentType = wrapper.read(Type.IDENTIFIER);
                     String newArgumentType = handleArgumentType(argumentType);
                     if (newArgumentType != null) {
                         wrapper.write(Type.STRING, newArgumentType);
@@ -0,0 +1,142 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.rewriter;
+
+import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.ViaManager;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Global cache of converted json components, shared by all connections. The same texts, such as scoreboard lines,
+ * tab list headers and broadcasts, are sent to every player again and again.
+ * <p>
+ * Only connection independent conversions may be cached, see {@link ComponentRewriter#isConnectionDependent()}.
+ */
+public final class ComponentConversionCache {
+
+    private final Cache<Key, String> strings;
+    private final Cache<Key, Tag> tags;
+
+    /**
+     * Converted tags are weighed as twice their input length. String and tag conversions each get half of the maximum.
+     *
+     * @param maxChars maximum number of characters over all cached input and output strings
+     */
+    public ComponentConversionCache(final long maxChars) {
+        this.strings = CacheBuilder.newBuilder()
+                .maximumWeight(maxChars / 2)
+                .<Key, String>weigher((key, value) -> key.json.length() + value.length())
+                .recordStats()
+                .build();
+        this.tags = CacheBuilder.newBuilder()
+                .maximumWeight(maxChars / 2)
+                .<Key, Tag>weigher((key, value) -> key.json.length() * 2)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the component conversion cache of the running Via manager, or null if disabled or not provided by the manager.
+     *
+     * @return component conversion cache, or null
+     */
+    public static @Nullable ComponentConversionCache instance() {
+        final ViaManager manager = Via.getManager();
+        return manager instanceof ViaManagerImpl ? ((ViaManagerImpl) manager).getComponentConversionCache() : null;
+    }
+
+    /**
+     * Returns the cached conversion of the given component, or converts and caches it.
+     *
+     * @param owner     converter, usually the component rewriter of a protocol
+     * @param json      input json component
+     * @param converter conversion function
+     * @return converted json component
+     */
+    public String get(final Object owner, final String json, final Function<String, String> converter) {
+        final Key key = new Key(owner, json);
+        String converted = strings.getIfPresent(key);
+        if (converted == null) {
+            // Not using the loading methods to have exceptions thrown as-is
+            converted = converter.apply(json);
+            strings.put(key, converted);
+        }
+        return converted;
+    }
+
+    /**
+     * Returns the cached tag conversion of the given component, or converts and caches it.
+     * The returned tag is shared between connections and must not be modified, copy it if it's passed on to other handlers.
+     *
+     * @param owner     converter
+     * @param json      input json component
+     * @param converter conversion function
+     * @return converted tag, or null if converted to null
+     */
+    public @Nullable Tag getTag(final Object owner, final String json, final Function<String, @Nullable Tag> converter) {
+        final Key key = new Key(owner, json);
+        Tag converted = tags.getIfPresent(key);
+        if (converted == null) {
+            converted = converter.apply(json);
+            if (converted != null) {
+                tags.put(key, converted);
+            }
+        }
+        return converted;
+    }
+
+    public JsonObject metrics() {
+        final CacheStats stats = strings.stats().plus(tags.stats());
+        final JsonObject object = new JsonObject();
+        object.addProperty("entries", strings.size() + tags.size());
+        object.addProperty("hits", stats.hitCount());
+        object.addProperty("misses", stats.missCount());
+        object.addProperty("hit-ratio", stats.hitRate());
+        return object;
+    }
+
+    private static final class Key {
+        private final Object owner;
+        private final String json;
+
+        private Key(final Object owner, final String json) {
+            this.owner = owner;
+            this.json = json;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return owner == key.owner && json.equals(key.json);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + json.hashCode();
+        }
+    }
+}
@@ -27,6 +27,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.protocol.Protocol;
@@ -36,6 +38,8 @@ import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.protocols.base.ClientboundLoginPackets;
+import java.io.IOException;
+import java.io.StringReader;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -85,7 +89,7 @@ public class ComponentRewriter<C extends ClientboundPacketType> {
             if (wrapper.passthrough(Type.VAR_INT) == 2) {
                 wrapper.passthrough(Type.VAR_INT);
                 wrapper.passthrough(Type.INT);
-                processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT));
+                passthroughAndProcessText(wrapper);
             }
         });
     }
@@ -97,14 +101,14 @@ public class ComponentRewriter<C extends ClientboundPacketType> {
         protocol.registerClientbound(packetType, wrapper -> {
             final int action = wrapper.passthrough(Type.VAR_INT);
             if (action >= 0 && action <= 2) {
-                processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT));
+                passthroughAndProcessText(wrapper);
             }
         });
     }
 
     public void registerPing() {
         // Always json
-        protocol.registerClientbound(State.LOGIN, ClientboundLoginPackets.LOGIN_DISCONNECT, wrapper -> processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT)));
+        protocol.registerClientbound(State.LOGIN, ClientboundLoginPackets.LOGIN_DISCONNECT, wrapper -> passthroughAndProcessText(wrapper));
     }
 
     public void registerLegacyOpenWindow(final C packetType) {
@@ -113,7 +117,7 @@ public class ComponentRewriter<C extends ClientboundPacketType> {
             public void register() {
                 map(Type.UNSIGNED_BYTE); // Id
                 map(Type.STRING); // Window Type
-                handler(wrapper -> processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT)));
+                handler(wrapper -> passthroughAndProcessText(wrapper));
             }
         });
     }
@@ -142,7 +146,7 @@ public class ComponentRewriter<C extends ClientboundPacketType> {
             public void register() {
                 map(Type.VAR_INT);
                 map(Type.INT);
-                handler(wrapper -> processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT)));
+                handler(wrapper -> passthroughAndProcessText(wrapper));
             }
         });
     }
@@ -160,7 +164,7 @@ public class ComponentRewriter<C extends ClientboundPacketType> {
     public void passthroughAndProcess(final PacketWrapper wrapper) throws Exception {
         switch (type) {
             case JSON:
-                processText(wrapper.user(), wrapper.passthrough(Type.COMPONENT));
+                passthroughAndProcessText(wrapper);
                 break;
             case NBT:
                 processTag(wrapper.user(), wrapper.passthrough(Type.TAG));
@@ -168,6 +172,121 @@ public class ComponentRewriter<C extends ClientboundPacketType> {
         }
     }
 
+    /**
+     * Reads and processes a json component, passing it on as-is without building a json tree if nothing in it has to be processed
+     * and the rewriter opted into doing so, see {@link #skipsUnprocessedComponents()}.
+     * The component is written back as {@link Type#COMPONENT_STRING}.
+     *
+     * @param wrapper packet wrapper
+     */
+    public void passthroughAndProcessText(final PacketWrapper wrapper) throws Exception {
+        final String json = wrapper.read(Type.COMPONENT_STRING);
+        if (skipsUnprocessedComponents() && !mayNeedProcessing(json)) {
+            wrapper.write(Type.COMPONENT_STRING, json);
+            return;
+        }
+
+        final UserConnection connection = wrapper.user();
+        final ComponentConversionCache cache = ComponentConversionCache.instance();
+        if (cache != null && !isConnectionDependent()) {
+            wrapper.write(Type.COMPONENT_STRING, cache.get(this, json, s -> processJson(connection, s)));
+        } else {
+            wrapper.write(Type.COMPONENT_STRING, processJson(connection, json));
+        }
+    }
+
+    private String processJson(final UserConnection connection, final String json) {
+        final JsonElement element;
+        try {
+            element = JsonParser.parseString(json);
+        } catch (final JsonSyntaxException e) {
+            Via.getPlatform().getLogger().severe("Error when trying to parse json: " + json);
+            throw e;
+        }
+
+        processText(connection, element);
+        return element.toString();
+    }
+
+    /**
+     * Returns whether the processing of json components depends on the user connection or other state.
+     * Rewriters returning false have their processed components shared between connections via the {@link ComponentConversionCache}.
+     *
+     * @return whether json component processing depends on the user connection
+     */
+    protected boolean isConnectionDependent() {
+        return true;
+    }
+
+    /**
+     * Returns whether components without any of the keys checked by {@link #isProcessedKey(String)} are passed on without being parsed.
+     * Only rewriters whose whole processing is triggered by those keys may return true, as anything else in such
+     * components is never seen by {@link #processText(UserConnection, JsonElement)}.
+     *
+     * @return whether unprocessed components may skip the json tree
+     */
+    protected boolean skipsUnprocessedComponents() {
+        return false;
+    }
+
+    /**
+     * Returns whether the given json component contains any object key that may have to be processed, see {@link #isProcessedKey(String)}.
+     * Only reads through the json tokens, without building a tree.
+     *
+     * @param json json component
+     * @return whether the component has to be fully parsed and processed
+     */
+    protected boolean mayNeedProcessing(final String json) {
+        try (final JsonReader reader = new JsonReader(new StringReader(json))) {
+            // Same leniency as the json parser
+            reader.setLenient(true);
+            boolean empty = true;
+            while (true) {
+                final JsonToken token = reader.peek();
+                switch (token) {
+                    case BEGIN_OBJECT:
+                        reader.beginObject();
+                        break;
+                    case END_OBJECT:
+                        reader.endObject();
+                        break;
+                    case BEGIN_ARRAY:
+                        reader.beginArray();
+                        break;
+                    case END_ARRAY:
+                        reader.endArray();
+                        break;
+                    case NAME:
+                        if (isProcessedKey(reader.nextName())) {
+                            return true;
+                        }
+                        break;
+                    case END_DOCUMENT:
+                        // Leave empty documents to the parser
+                        return empty;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+                empty = false;
+            }
+        } catch (final IOException e) {
+            // Malformed, leave it to the parser
+            return true;
+        }
+    }
+
+    /**
+     * Returns whether components containing the given object key, at any depth, have to be processed.
+     * Components without any of these keys are passed on without being parsed.
+     *
+     * @param key object key
+     * @return whether components with the key have to be processed
+     */
+    protected boolean isProcessedKey(final String key) {
+        return key.equals("translate") || key.equals("hoverEvent");
+    }
+
     public JsonElement processText(final UserConnection connection, final String value) {
         try {
             final JsonElement root = JsonParser.parseString(value);
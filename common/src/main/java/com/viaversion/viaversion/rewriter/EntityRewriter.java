@@ -20,6 +20,7 @@ package com.viaversion.viaversion.rewriter;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.ListTag;
 import com.github.steveice10.opennbt.tag.builtin.NumberTag;
+import com.github.steveice10.opennbt.tag.builtin.Tag;
 import com.google.common.base.Preconditions;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
@@ -35,6 +36,7 @@ import com.viaversion.viaversion.api.minecraft.entities.EntityType;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.minecraft.metadata.MetaType;
 import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
+import com.viaversion.viaversion.api.minecraft.nbt.LazyCompoundTag;
 import com.viaversion.viaversion.api.protocol.Protocol;
 import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
@@ -45,6 +47,7 @@ import com.viaversion.viaversion.api.rewriter.RewriterBase;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.data.entity.DimensionDataImpl;
 import com.viaversion.viaversion.rewriter.meta.MetaFilter;
+import com.viaversion.viaversion.rewriter.meta.MetaFilterTable;
 import com.viaversion.viaversion.rewriter.meta.MetaHandlerEvent;
 import com.viaversion.viaversion.rewriter.meta.MetaHandlerEventImpl;
 import com.viaversion.viaversion.util.Key;
@@ -63,6 +66,7 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
     extends RewriterBase<T> implements com.viaversion.viaversion.api.rewriter.EntityRewriter<T> {
     private static final Metadata[] EMPTY_ARRAY = new Metadata[0];
     protected final List<MetaFilter> metadataFilters = new ArrayList<>();
+    private final MetaFilterTable metadataFilterTable = new MetaFilterTable(metadataFilters);
     protected final boolean trackMappedType;
     protected Mappings typeMappings;
 
@@ -103,18 +107,20 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
     public void registerFilter(MetaFilter filter) {
         Preconditions.checkArgument(!metadataFilters.contains(filter));
         metadataFilters.add(filter);
+        metadataFilterTable.invalidate();
     }
 
     @Override
     public void handleMetadata(final int entityId, final List<Metadata> metadataList, final UserConnection connection) {
         final TrackedEntity entity = tracker(connection).entity(entityId);
         final EntityType type = entity != null ? entity.entityType() : null;
+        final MetaFilterTable.TypeFilters filters = metadataFilterTable.filters(type);
         for (final Metadata metadata : metadataList.toArray(EMPTY_ARRAY)) { // Copy the list to allow mutation
             MetaHandlerEvent event = null;
-            for (final MetaFilter filter : metadataFilters) {
-                if (!filter.isFiltered(type, metadata)) {
-                    continue;
-                }
+            // Only go through filters for the entity type and current meta index, in registration order
+            int position = -1;
+            while ((position = filters.next(metadata, position)) != -1) {
+                final MetaFilter filter = filters.filter(position);
                 if (event == null) {
                     // Instantiate lazily and share event instance
                     event = new MetaHandlerEventImpl(connection, entity, entityId, metadata, metadataList);
@@ -386,33 +392,44 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
      */
     public PacketHandler worldDataTrackerHandler(int nbtIndex) {
         return wrapper -> {
-            EntityTracker tracker = tracker(wrapper.user());
-
             CompoundTag registryData = wrapper.get(Type.NAMED_COMPOUND_TAG, nbtIndex);
-            NumberTag height = registryData.getNumberTag("height");
-            if (height != null) {
-                int blockHeight = height.asInt();
-                tracker.setCurrentWorldSectionHeight(blockHeight >> 4);
-            } else {
-                Via.getPlatform().getLogger().warning("Height missing in dimension data: " + registryData);
-            }
-
-            NumberTag minY = registryData.getNumberTag("min_y");
-            if (minY != null) {
-                tracker.setCurrentMinY(minY.asInt());
-            } else {
-                Via.getPlatform().getLogger().warning("Min Y missing in dimension data: " + registryData);
-            }
+            trackWorldData(wrapper, registryData.get("height"), registryData.get("min_y"), registryData);
+        };
+    }
 
-            String world = wrapper.get(Type.STRING, 0);
-            if (tracker.currentWorld() != null && !tracker.currentWorld().equals(world)) {
-                tracker.clearEntities();
-                tracker.trackClientEntity();
-            }
-            tracker.setCurrentWorld(world);
+    /**
+     * Returns a packet handler storing height, min_y, and name of the current world, only decoding the needed fields.
+     *
+     * @param nbtIndex index of the current world's lazily read nbt
+     * @return packet handler
+     * @see #worldDataTrackerHandler(int)
+     */
+    public PacketHandler lazyWorldDataTrackerHandler(int nbtIndex) {
+        return wrapper -> {
+            LazyCompoundTag registryData = wrapper.get(Type.LAZY_NAMED_COMPOUND_TAG, nbtIndex);
+            trackWorldData(wrapper, registryData.get("height"), registryData.get("min_y"), registryData);
         };
     }
 
+    private void trackWorldData(PacketWrapper wrapper, @Nullable Tag height, @Nullable Tag minY, Object registryData) throws Exception {
+        EntityTracker tracker = tracker(wrapper.user());
+        if (height instanceof NumberTag) {
+            int blockHeight = ((NumberTag) height).asInt();
+            tracker.setCurrentWorldSectionHeight(blockHeight >> 4);
+        } else {
+            Via.getPlatform().getLogger().warning("Height missing in dimension data: " + registryData);
+        }
+
+        if (minY instanceof NumberTag) {
+            tracker.setCurrentMinY(((NumberTag) minY).asInt());
+        } else {
+            Via.getPlatform().getLogger().warning("Min Y missing in dimension data: " + registryData);
+        }
+
+        String world = wrapper.get(Type.STRING, 0);
+        tracker.trackWorld(world);
+    }
+
     public PacketHandler worldDataTrackerHandlerByKey() {
         return wrapper -> {
             EntityTracker tracker = tracker(wrapper.user());
@@ -428,11 +445,7 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
             tracker.setCurrentMinY(dimensionData.minY());
 
             String world = wrapper.get(Type.STRING, 1);
-            if (tracker.currentWorld() != null && !tracker.currentWorld().equals(world)) {
-                tracker.clearEntities();
-                tracker.trackClientEntity();
-            }
-            tracker.setCurrentWorld(world);
+            tracker.trackWorld(world);
         };
     }
 
@@ -451,11 +464,7 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
             tracker.setCurrentMinY(dimensionData.minY());
 
             String world = wrapper.get(Type.STRING, 0);
-            if (tracker.currentWorld() != null && !tracker.currentWorld().equals(world)) {
-                tracker.clearEntities();
-                tracker.trackClientEntity();
-            }
-            tracker.setCurrentWorld(world);
+            tracker.trackWorld(world);
         };
     }
 
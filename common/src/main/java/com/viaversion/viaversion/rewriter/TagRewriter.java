@@ -139,7 +139,7 @@ public class TagRewriter<C extends ClientboundPacketType> implements com.viavers
             final int length = wrapper.passthrough(Type.VAR_INT);
             int editedLength = length;
             for (int i = 0; i < length; i++) {
-                String registryKey = wrapper.read(Type.STRING);
+                String registryKey = wrapper.read(Type.IDENTIFIER);
                 if (toRemove.contains(registryKey)) {
                     wrapper.set(Type.VAR_INT, 0, --editedLength);
                     int tagsSize = wrapper.read(Type.VAR_INT);
@@ -172,7 +172,7 @@ public class TagRewriter<C extends ClientboundPacketType> implements com.viavers
         wrapper.write(Type.VAR_INT, newTags != null ? tagsSize + newTags.size() : tagsSize); // add new tags count
 
         for (int i = 0; i < tagsSize; i++) {
-            String key = wrapper.read(Type.STRING);
+            String key = wrapper.read(Type.IDENTIFIER);
             if (tagsToRename != null) {
                 String renamedKey = tagsToRename.get(key);
                 if (renamedKey != null) {
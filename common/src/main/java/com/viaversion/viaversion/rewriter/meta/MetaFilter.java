@@ -99,11 +99,20 @@ public class MetaFilter {
         // Check if no specific index is filtered or the indexes are equal
         // Then check if the filter has no entity type or the type is equal to or part of the filtered parent type
         return (this.index == -1 || metadata.id() == this.index)
-                && (this.type == null || matchesType(type))
+                && matchesType(type)
                 && (this.metaType == null || metadata.metaType() == this.metaType);
     }
 
-    private boolean matchesType(EntityType type) {
+    /**
+     * Returns whether metadata of the given entity type may be handled by this filter.
+     *
+     * @param type entity type, or null if unknown
+     * @return whether the entity type matches the filtered type
+     */
+    public boolean matchesType(@Nullable EntityType type) {
+        if (this.type == null) {
+            return true;
+        }
         if (type == null) {
             return false;
         }
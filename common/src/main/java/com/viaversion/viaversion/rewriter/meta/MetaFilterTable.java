@@ -0,0 +1,156 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.rewriter.meta;
+
+import com.viaversion.viaversion.api.minecraft.entities.EntityType;
+import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Lookup table for registered metadata filters, compiled lazily per entity type.
+ * <p>
+ * For each entity type, filters are grouped by the metadata index they filter, so that a metadata entry only has
+ * to be checked against filters for its own index and filters without any index. Filter positions always refer to
+ * the registration order, which is kept when iterating through the matching filters.
+ */
+public final class MetaFilterTable {
+    private static final int[] EMPTY_POSITIONS = new int[0];
+    private final Map<EntityType, TypeFilters> typeFilters = new ConcurrentHashMap<>();
+    private final List<MetaFilter> filters;
+    private volatile TypeFilters untypedFilters;
+
+    /**
+     * @param filters backing filter list, to be invalidated through {@link #invalidate()} when changed
+     */
+    public MetaFilterTable(final List<MetaFilter> filters) {
+        this.filters = filters;
+    }
+
+    /**
+     * Returns the filters that can match metadata of the given entity type.
+     *
+     * @param type entity type, or null if unknown
+     * @return filters for the entity type
+     */
+    public TypeFilters filters(@Nullable final EntityType type) {
+        if (type == null) {
+            TypeFilters untypedFilters = this.untypedFilters;
+            if (untypedFilters == null) {
+                this.untypedFilters = untypedFilters = compile(null);
+            }
+            return untypedFilters;
+        }
+
+        final TypeFilters compiled = typeFilters.get(type);
+        return compiled != null ? compiled : typeFilters.computeIfAbsent(type, this::compile);
+    }
+
+    /**
+     * Drops all compiled lookups, to be called after filters have been added.
+     */
+    public void invalidate() {
+        typeFilters.clear();
+        untypedFilters = null;
+    }
+
+    private TypeFilters compile(@Nullable final EntityType type) {
+        final MetaFilter[] filters = this.filters.toArray(new MetaFilter[0]);
+        int maxIndex = -1;
+        for (final MetaFilter filter : filters) {
+            maxIndex = Math.max(maxIndex, filter.index());
+        }
+
+        final IntList unindexed = new IntArrayList();
+        final IntList[] indexed = new IntList[maxIndex + 1];
+        for (int i = 0; i < indexed.length; i++) {
+            indexed[i] = new IntArrayList();
+        }
+
+        for (int position = 0; position < filters.length; position++) {
+            final MetaFilter filter = filters[position];
+            if (!filter.matchesType(type)) {
+                continue;
+            }
+
+            if (filter.index() == -1) {
+                // Applies to every index, added to all lists to keep the order
+                unindexed.add(position);
+                for (final IntList list : indexed) {
+                    list.add(position);
+                }
+            } else {
+                indexed[filter.index()].add(position);
+            }
+        }
+
+        final int[][] byIndex = new int[indexed.length][];
+        for (int i = 0; i < indexed.length; i++) {
+            byIndex[i] = toArray(indexed[i]);
+        }
+        return new TypeFilters(filters, byIndex, toArray(unindexed));
+    }
+
+    private static int[] toArray(final IntList list) {
+        return list.isEmpty() ? EMPTY_POSITIONS : list.toIntArray();
+    }
+
+    public static final class TypeFilters {
+        private final MetaFilter[] filters;
+        private final int[][] byIndex;
+        private final int[] unindexed;
+
+        private TypeFilters(final MetaFilter[] filters, final int[][] byIndex, final int[] unindexed) {
+            this.filters = filters;
+            this.byIndex = byIndex;
+            this.unindexed = unindexed;
+        }
+
+        /**
+         * Returns the position of the next filter matching the metadata, starting after the given position.
+         * The metadata's current index and meta type are used, so changes made by previous handlers are respected.
+         *
+         * @param metadata metadata
+         * @param after    position of the previously handled filter, or -1 to start from the first filter
+         * @return position of the next matching filter, or -1 if there are none left
+         */
+        public int next(final Metadata metadata, final int after) {
+            final int index = metadata.id();
+            final int[] positions = index >= 0 && index < byIndex.length ? byIndex[index] : unindexed;
+            for (final int position : positions) {
+                if (position <= after) {
+                    continue;
+                }
+
+                final MetaFilter filter = filters[position];
+                if (filter.metaType() == null || filter.metaType() == metadata.metaType()) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        public MetaFilter filter(final int position) {
+            return filters[position];
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.scheduler;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import io.netty.channel.Channel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Hashed wheel timer for short per-connection timers, running the tasks on the connection's event loop.
+ * <p>
+ * Timers should only be armed while there is actually something pending for the connection,
+ * so that idle connections do not cost anything. The timer thread also keeps a coarse clock for per packet checks.
+ */
+public final class ConnectionTimer {
+
+    private static final long CLOCK_INTERVAL = 10L;
+    private final HashedWheelTimer timer = new HashedWheelTimer(
+            new ThreadFactoryBuilder().setNameFormat("Via Connection Timer %d").setDaemon(true).build(),
+            CLOCK_INTERVAL, TimeUnit.MILLISECONDS
+    );
+    private volatile long currentTimeMillis = System.currentTimeMillis();
+
+    public ConnectionTimer() {
+        timer.newTimeout(this::updateClock, CLOCK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the given task on the connection's event loop after the given delay, unless the channel has been closed by then.
+     *
+     * @param connection user connection
+     * @param task       task to run on the event loop
+     * @param delay      delay
+     * @param timeUnit   time unit of the delay
+     * @return timeout of the scheduled task, or null if the connection has no open channel
+     */
+    public @Nullable Timeout schedule(final UserConnection connection, final Runnable task, final long delay, final TimeUnit timeUnit) {
+        final Channel channel = connection.getChannel();
+        if (channel == null || !channel.isOpen()) {
+            return null;
+        }
+
+        return timer.newTimeout(timeout -> {
+            if (channel.isOpen()) {
+                channel.eventLoop().execute(task);
+            }
+        }, delay, timeUnit);
+    }
+
+    /**
+     * Returns the current time in milliseconds, updated with every tick of the timer.
+     * Meant for hot paths that only need the time with a precision of a few milliseconds.
+     *
+     * @return coarse current time in milliseconds
+     */
+    public long currentTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    private void updateClock(final Timeout timeout) {
+        currentTimeMillis = System.currentTimeMillis();
+        try {
+            timer.newTimeout(this::updateClock, CLOCK_INTERVAL, TimeUnit.MILLISECONDS);
+        } catch (final IllegalStateException ignored) {
+            // Timer has been stopped
+        }
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.scheduler;
+
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.api.Via;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Named, bounded thread pool recording queueing and run times of its tasks.
+ * <p>
+ * Tasks that cannot be queued anymore are handed to a single fallback thread with its own bounded queue,
+ * so that a burst of submissions never spawns more than the maximum amount of threads and never runs
+ * on the submitting thread, which may be the main thread or an event loop. Tasks exceeding that queue as well are dropped.
+ * <p>
+ * Times are additionally recorded per kind of task, being the class a task or lambda has been declared in.
+ */
+public final class ExecutorPool extends AbstractExecutorService {
+
+    private static final int OVERFLOW_QUEUE_SIZE = 4096;
+    private static final int MAX_KINDS = 32;
+    private static final ClassValue<String> KIND_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(final Class<?> type) {
+            final String name = type.getName();
+            final int lambdaIndex = name.indexOf("$$Lambda");
+            final String className = lambdaIndex != -1 ? name.substring(0, lambdaIndex) : name;
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+    };
+    private final String name;
+    private final Consumer<ExecutorPool> onShutdown;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor overflowExecutor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LatencyHistogram queueTime = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+    private final Map<String, KindMetrics> kinds = new ConcurrentHashMap<>();
+
+    /**
+     * @param name          name of the pool
+     * @param coreThreads   threads kept while there are tasks
+     * @param maxThreads    maximum amount of threads
+     * @param queueSize     maximum amount of queued tasks, 0 to only hand tasks directly to threads
+     * @param threadFactory thread factory
+     * @param onShutdown    called once the pool is shut down
+     */
+    ExecutorPool(final String name, final int coreThreads, final int maxThreads, final int queueSize, final ThreadFactory threadFactory, final Consumer<ExecutorPool> onShutdown) {
+        this.name = name;
+        this.onShutdown = onShutdown;
+        final BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        this.overflowExecutor = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(OVERFLOW_QUEUE_SIZE), threadFactory);
+        this.overflowExecutor.allowCoreThreadTimeOut(true);
+        this.executor = new ThreadPoolExecutor(coreThreads, maxThreads, 30L, TimeUnit.SECONDS, queue, threadFactory, (runnable, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Pool " + name + " has been shut down");
+            }
+
+            overflowed.increment();
+            overflowExecutor.execute(runnable);
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(final Runnable runnable) {
+        final long submitted = System.nanoTime();
+        final KindMetrics kind = kind(runnable instanceof TaggedFutureTask ? ((TaggedFutureTask<?>) runnable).task : runnable);
+        maxQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                final long start = System.nanoTime();
+                queueTime.record(start - submitted);
+                kind.queueTime.record(start - submitted);
+                try {
+                    runnable.run();
+                } finally {
+                    final long time = System.nanoTime() - start;
+                    runTime.record(time);
+                    kind.runTime.record(time);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            queued.decrementAndGet();
+            if (runnable instanceof Future) {
+                // Don't leave anyone waiting for it
+                ((Future<?>) runnable).cancel(false);
+            }
+            if (!isShutdown()) {
+                dropped.increment();
+                Via.getPlatform().getLogger().warning("Dropped task of saturated pool " + name);
+            }
+        }
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Runnable runnable, final T value) {
+        // Keep the original task to tell its kind
+        return new TaggedFutureTask<>(Executors.callable(runnable, value), runnable);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+        return new TaggedFutureTask<>(callable, callable);
+    }
+
+    private KindMetrics kind(final Object task) {
+        final String kindName = KIND_NAMES.get(task.getClass());
+        final KindMetrics kind = kinds.get(kindName);
+        if (kind != null) {
+            return kind;
+        }
+        return kinds.computeIfAbsent(kinds.size() < MAX_KINDS ? kindName : "other", k -> new KindMetrics());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    public JsonObject metrics() {
+        final JsonObject object = new JsonObject();
+        object.addProperty("queue-depth", queueDepth());
+        object.addProperty("max-queue-depth", maxQueued.get());
+        object.addProperty("active-threads", executor.getActiveCount());
+        object.addProperty("largest-pool-size", executor.getLargestPoolSize());
+        object.addProperty("overflowed", overflowed.sum());
+        object.addProperty("dropped", dropped.sum());
+        object.add("queue-time", queueTime.toJson());
+        object.add("run-time", runTime.toJson());
+
+        final JsonObject kinds = new JsonObject();
+        for (final Map.Entry<String, KindMetrics> entry : this.kinds.entrySet()) {
+            final JsonObject kind = new JsonObject();
+            kind.add("queue-time", entry.getValue().queueTime.toJson());
+            kind.add("run-time", entry.getValue().runTime.toJson());
+            kinds.add(entry.getKey(), kind);
+        }
+        object.add("kinds", kinds);
+        return object;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+        overflowExecutor.shutdown();
+        onShutdown.accept(this);
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> tasks = executor.shutdownNow();
+        tasks.addAll(overflowExecutor.shutdownNow());
+        onShutdown.accept(this);
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated() && overflowExecutor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit timeUnit) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        return executor.awaitTermination(timeout, timeUnit)
+                && overflowExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private static final class KindMetrics {
+        private final LatencyHistogram queueTime = new LatencyHistogram();
+        private final LatencyHistogram runTime = new LatencyHistogram();
+    }
+
+    private static final class TaggedFutureTask<T> extends FutureTask<T> {
+        private final Object task;
+
+        private TaggedFutureTask(final Callable<T> callable, final Object task) {
+            super(callable);
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.scheduler;
+
+import com.google.gson.JsonObject;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations with power of two microsecond buckets.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final long micros = Math.max(0, nanos / 1000);
+        // Bucket i holds values below 2^i microseconds
+        final int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets[bucket].increment();
+        count.increment();
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the upper bound of the bucket containing the given percentile in milliseconds.
+     *
+     * @param percentile percentile between 0 and 1
+     * @return upper bound of the percentile's bucket in milliseconds
+     */
+    public double percentile(final double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        final long target = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return (1L << i) / 1000D;
+            }
+        }
+        return max.get() / 1_000_000D;
+    }
+
+    public JsonObject toJson() {
+        final long count = count();
+        final JsonObject object = new JsonObject();
+        object.addProperty("count", count);
+        object.addProperty("average-ms", count != 0 ? total.sum() / (double) count / 1_000_000D : 0);
+        object.addProperty("p50-ms", percentile(0.5));
+        object.addProperty("p99-ms", percentile(0.99));
+        object.addProperty("max-ms", max.get() / 1_000_000D);
+        return object;
+    }
+}
@@ -18,46 +18,124 @@
 package com.viaversion.viaversion.scheduler;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonObject;
 import com.viaversion.viaversion.api.scheduler.Scheduler;
 import com.viaversion.viaversion.api.scheduler.Task;
-import java.util.concurrent.ExecutorService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class TaskScheduler implements Scheduler {
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("Via Async Task %d").build());
+    /**
+     * Whether blocking tasks should be run on virtual threads if the runtime supports them (Java 21+).
+     */
+    public static final boolean VIRTUAL_THREADS = System.getProperty("viaversion.virtual-threads", "false").equalsIgnoreCase("true");
+    private static final int MAX_VIRTUAL_THREADS = 256;
+    private final List<ExecutorPool> pools = new CopyOnWriteArrayList<>();
+    private static final int ASYNC_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private final ExecutorPool asyncPool = newExecutor("async", ASYNC_THREADS, ASYNC_THREADS, 1024);
     private final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(
             1, // Fix for https://bugs.openjdk.java.net/browse/JDK-8129861
             new ThreadFactoryBuilder().setNameFormat("Via Async Scheduler %d").build()
     );
+    private final LatencyHistogram scheduledDelay = new LatencyHistogram();
+    private final LatencyHistogram scheduledRunTime = new LatencyHistogram();
+
+    /**
+     * Creates a new named pool for blocking tasks, included in the scheduler's metrics and shutdown until it is shut down itself.
+     * If virtual threads are enabled and available, the pool runs on virtual threads with a higher thread limit instead.
+     *
+     * @param name        name of the pool
+     * @param coreThreads threads kept while there are tasks
+     * @param maxThreads  maximum amount of platform threads
+     * @param queueSize   maximum amount of queued tasks, 0 to only hand tasks directly to threads
+     * @return new pool
+     */
+    @Override
+    public ExecutorPool newExecutor(final String name, final int coreThreads, final int maxThreads, final int queueSize) {
+        final ThreadFactory virtualThreadFactory = VIRTUAL_THREADS ? virtualThreadFactory("Via " + name + " ") : null;
+        final ExecutorPool pool;
+        if (virtualThreadFactory != null) {
+            final int virtualMaxThreads = Math.max(maxThreads, MAX_VIRTUAL_THREADS);
+            pool = new ExecutorPool(name, coreThreads == maxThreads ? virtualMaxThreads : coreThreads, virtualMaxThreads, queueSize, virtualThreadFactory, pools::remove);
+        } else {
+            pool = new ExecutorPool(name, coreThreads, maxThreads, queueSize, new ThreadFactoryBuilder().setNameFormat("Via " + name + " %d").build(), pools::remove);
+        }
+        pools.add(pool);
+        return pool;
+    }
 
     @Override
     public Task execute(final Runnable runnable) {
-        return new SubmittedTask(executorService.submit(runnable));
+        return new SubmittedTask(asyncPool.submit(runnable));
     }
 
     @Override
     public Task schedule(final Runnable runnable, final long delay, final TimeUnit timeUnit) {
-        return new ScheduledTask(scheduledExecutorService.schedule(runnable, delay, timeUnit));
+        final long due = System.nanoTime() + timeUnit.toNanos(delay);
+        return new ScheduledTask(scheduledExecutorService.schedule(() -> {
+            scheduledDelay.record(System.nanoTime() - due);
+            runScheduled(runnable);
+        }, delay, timeUnit));
     }
 
     @Override
     public Task scheduleRepeating(final Runnable runnable, final long delay, final long period, final TimeUnit timeUnit) {
-        return new ScheduledTask(scheduledExecutorService.scheduleAtFixedRate(runnable, delay, period, timeUnit));
+        return new ScheduledTask(scheduledExecutorService.scheduleAtFixedRate(() -> runScheduled(runnable), delay, period, timeUnit));
+    }
+
+    private void runScheduled(final Runnable runnable) {
+        final long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            scheduledRunTime.record(System.nanoTime() - start);
+        }
+    }
+
+    public JsonObject metrics() {
+        final JsonObject object = new JsonObject();
+        object.addProperty("virtual-threads", VIRTUAL_THREADS);
+        for (final ExecutorPool pool : pools) {
+            object.add(pool.name(), pool.metrics());
+        }
+
+        final JsonObject scheduled = new JsonObject();
+        scheduled.add("delay", scheduledDelay.toJson());
+        scheduled.add("run-time", scheduledRunTime.toJson());
+        object.add("scheduled", scheduled);
+        return object;
     }
 
     @Override
     public void shutdown() {
-        executorService.shutdown();
+        for (final ExecutorPool pool : pools) {
+            pool.shutdown();
+        }
         scheduledExecutorService.shutdown();
 
         try {
-            executorService.awaitTermination(1, TimeUnit.SECONDS);
+            asyncPool.awaitTermination(1, TimeUnit.SECONDS);
             scheduledExecutorService.awaitTermination(1, TimeUnit.SECONDS);
         } catch (final InterruptedException e) {
             e.printStackTrace();
         }
     }
+
+    private static @Nullable ThreadFactory virtualThreadFactory(final String prefix) {
+        // Only available on Java 21+, while we still have to compile against Java 8
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,554 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.util;
+
+import com.github.steveice10.opennbt.tag.builtin.ByteTag;
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.ListTag;
+import com.github.steveice10.opennbt.tag.builtin.StringTag;
+import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.viaversion.viaversion.api.type.OptionalType;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.rewriter.ComponentConversionCache;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Converts pre-1.20.3 json components to their 1.20.3 nbt form without going through the component library.
+ * <p>
+ * Only plain text components with simple styling and siblings are handled, everything else
+ * (translations, hover and click events, ...) is left to {@link ComponentUtil#jsonToTag(JsonElement)},
+ * which also stays the reference for the output of this class.
+ */
+public final class ComponentNbtTranscoder {
+
+    /**
+     * Type transcoding a json component string straight into network nbt, reading it back through {@link ComponentUtil#tagToJson(Tag)}.
+     */
+    public static final Type<String> TAG = new TagType();
+    public static final Type<String> OPTIONAL_TAG = new OptionalTagType();
+    private static final Set<String> COLORS = new HashSet<>(Arrays.asList(
+            "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+            "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white"
+    ));
+    private static final int BYTE_ID = 1;
+    private static final int STRING_ID = 8;
+    private static final int LIST_ID = 9;
+    private static final int COMPOUND_ID = 10;
+    private static final UnsupportedComponentException UNSUPPORTED = new UnsupportedComponentException();
+    private static final int TEXT = 1;
+    private static final int EXTRA = 1 << 1;
+    private static final int COLOR = 1 << 2;
+    private static final int INSERTION = 1 << 3;
+    private static final int BOLD = 1 << 4;
+    private static final int ITALIC = 1 << 5;
+    private static final int UNDERLINED = 1 << 6;
+    private static final int STRIKETHROUGH = 1 << 7;
+    private static final int OBFUSCATED = 1 << 8;
+
+    /**
+     * Writes the given json component as a nameless nbt tag, returning false without writing anything if it can't be transcoded directly.
+     *
+     * @param buffer buffer to write to
+     * @param json   json component
+     * @return whether the component has been written
+     */
+    public static boolean write(final ByteBuf buffer, final String json) {
+        final int writerIndex = buffer.writerIndex();
+        try (final JsonReader reader = reader(json)) {
+            readComponent(reader, new BufferOutput(buffer));
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
+                return true;
+            }
+        } catch (final UnsupportedComponentException | IOException | IllegalStateException ignored) {
+        }
+        buffer.writerIndex(writerIndex);
+        return false;
+    }
+
+    /**
+     * Returns the 1.20.3 tag of the given json component, transcoding it directly if possible.
+     *
+     * @param element json component
+     * @return nbt component
+     * @see ComponentUtil#jsonToTag(JsonElement)
+     */
+    public static @Nullable Tag toTag(@Nullable final JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+
+        try {
+            final TagOutput output = new TagOutput();
+            readComponent(element, output);
+            return output.result;
+        } catch (final UnsupportedComponentException ignored) {
+            return ComponentUtil.jsonToTag(element);
+        }
+    }
+
+    /**
+     * Returns the 1.20.3 tag of the given json component string, shared between connections via the {@link ComponentConversionCache} if enabled.
+     * The returned tag must not be modified.
+     *
+     * @param json json component
+     * @return shared nbt component
+     * @see #toTag(JsonElement)
+     */
+    public static @Nullable Tag toSharedTag(final String json) {
+        final ComponentConversionCache cache = ComponentConversionCache.instance();
+        if (cache == null) {
+            return toTag(JsonParser.parseString(json));
+        }
+        return cache.getTag(ComponentNbtTranscoder.class, json, s -> toTag(JsonParser.parseString(s)));
+    }
+
+    /**
+     * Returns whether the given json component can be transcoded directly, in which case it also reads the same in 1.20.3 json.
+     *
+     * @param json json component
+     * @return whether the component can be transcoded directly
+     */
+    public static boolean isSupported(final String json) {
+        try (final JsonReader reader = reader(json)) {
+            readComponent(reader, new TagOutput());
+            return reader.peek() == JsonToken.END_DOCUMENT;
+        } catch (final UnsupportedComponentException | IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static JsonReader reader(final String json) {
+        final JsonReader reader = new JsonReader(new StringReader(json));
+        reader.setLenient(true); // Same as the json parser
+        return reader;
+    }
+
+    private static void readComponent(final JsonReader reader, final Output output) throws IOException {
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.STRING) {
+            output.string(checkLength(reader.nextString()));
+            return;
+        } else if (token != JsonToken.BEGIN_OBJECT) {
+            throw UNSUPPORTED;
+        }
+
+        reader.beginObject();
+        output.beginComponent();
+        String text = null;
+        int keys = 0;
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            final int keyType = keyType(key);
+            if ((keys & keyType) != 0) {
+                throw UNSUPPORTED;
+            }
+
+            keys |= keyType;
+            if (keyType == EXTRA) {
+                if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    throw UNSUPPORTED;
+                }
+
+                reader.beginArray();
+                output.beginList(key);
+                while (reader.hasNext()) {
+                    readComponent(reader, output);
+                }
+                reader.endArray();
+                output.endList();
+            } else if (keyType >= BOLD) {
+                if (reader.peek() != JsonToken.BOOLEAN) {
+                    throw UNSUPPORTED;
+                }
+                output.byteEntry(key, reader.nextBoolean());
+            } else {
+                if (reader.peek() != JsonToken.STRING) {
+                    throw UNSUPPORTED;
+                }
+
+                final String value = stringValue(keyType, reader.nextString());
+                if (keyType == TEXT) {
+                    text = value;
+                }
+                output.stringEntry(key, value);
+            }
+        }
+        reader.endObject();
+
+        if (text == null) {
+            throw UNSUPPORTED;
+        }
+        output.endComponent(keys == TEXT ? text : null);
+    }
+
+    private static void readComponent(final JsonElement element, final Output output) {
+        if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+            output.string(checkLength(element.getAsString()));
+            return;
+        } else if (!element.isJsonObject()) {
+            throw UNSUPPORTED;
+        }
+
+        output.beginComponent();
+        String text = null;
+        int keys = 0;
+        for (final Map.Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+            final String key = entry.getKey();
+            final JsonElement value = entry.getValue();
+            final int keyType = keyType(key);
+            keys |= keyType;
+            if (keyType == EXTRA) {
+                if (!value.isJsonArray()) {
+                    throw UNSUPPORTED;
+                }
+
+                output.beginList(key);
+                for (final JsonElement sibling : (JsonArray) value) {
+                    readComponent(sibling, output);
+                }
+                output.endList();
+            } else if (keyType >= BOLD) {
+                if (!value.isJsonPrimitive() || !((JsonPrimitive) value).isBoolean()) {
+                    throw UNSUPPORTED;
+                }
+                output.byteEntry(key, value.getAsBoolean());
+            } else {
+                if (!value.isJsonPrimitive() || !((JsonPrimitive) value).isString()) {
+                    throw UNSUPPORTED;
+                }
+
+                final String stringValue = stringValue(keyType, value.getAsString());
+                if (keyType == TEXT) {
+                    text = stringValue;
+                }
+                output.stringEntry(key, stringValue);
+            }
+        }
+
+        if (text == null) {
+            throw UNSUPPORTED;
+        }
+        output.endComponent(keys == TEXT ? text : null);
+    }
+
+    private static int keyType(final String key) {
+        switch (key) {
+            case "text":
+                return TEXT;
+            case "extra":
+                return EXTRA;
+            case "color":
+                return COLOR;
+            case "insertion":
+                return INSERTION;
+            case "bold":
+                return BOLD;
+            case "italic":
+                return ITALIC;
+            case "underlined":
+                return UNDERLINED;
+            case "strikethrough":
+                return STRIKETHROUGH;
+            case "obfuscated":
+                return OBFUSCATED;
+            default:
+                throw UNSUPPORTED;
+        }
+    }
+
+    private static String stringValue(final int keyType, final String value) {
+        if (keyType != COLOR) {
+            return checkLength(value);
+        }
+
+        if (COLORS.contains(value)) {
+            return value;
+        }
+        if (value.length() == 7 && value.charAt(0) == '#') {
+            try {
+                // Hex colors are written in uppercase
+                return String.format("#%06X", Integer.parseInt(value.substring(1), 16));
+            } catch (final NumberFormatException ignored) {
+            }
+        }
+        throw UNSUPPORTED;
+    }
+
+    private static String checkLength(final String value) {
+        // Too long strings are trimmed by the tree conversion
+        if (value.length() > Short.MAX_VALUE) {
+            throw UNSUPPORTED;
+        }
+        return value;
+    }
+
+    private interface Output {
+
+        void string(String value);
+
+        void beginComponent();
+
+        void stringEntry(String key, String value);
+
+        void byteEntry(String key, boolean value);
+
+        void beginList(String key);
+
+        void endList();
+
+        /**
+         * Ends the current component, collapsing it into a plain string tag if the text is given.
+         *
+         * @param collapsedText text if the component only holds text, else null
+         */
+        void endComponent(@Nullable String collapsedText);
+    }
+
+    /**
+     * Writes nbt directly, keeping the positions of open compounds and lists to rewrite them on collapse or completion.
+     */
+    private static final class BufferOutput implements Output {
+        private final IntArrayList componentStarts = new IntArrayList();
+        private final IntArrayList listStarts = new IntArrayList();
+        private final IntArrayList listSizes = new IntArrayList();
+        private final ByteBuf buffer;
+        private final ByteBufOutputStream out;
+
+        private BufferOutput(final ByteBuf buffer) {
+            this.buffer = buffer;
+            this.out = new ByteBufOutputStream(buffer);
+        }
+
+        @Override
+        public void string(final String value) {
+            if (listStarts.isEmpty()) {
+                buffer.writeByte(STRING_ID);
+            } else {
+                addListElement(STRING_ID);
+            }
+            writeUTF(value);
+        }
+
+        @Override
+        public void beginComponent() {
+            componentStarts.push(buffer.writerIndex());
+            if (listStarts.isEmpty()) {
+                buffer.writeByte(COMPOUND_ID);
+            }
+        }
+
+        @Override
+        public void stringEntry(final String key, final String value) {
+            buffer.writeByte(STRING_ID);
+            writeUTF(key);
+            writeUTF(value);
+        }
+
+        @Override
+        public void byteEntry(final String key, final boolean value) {
+            buffer.writeByte(BYTE_ID);
+            writeUTF(key);
+            buffer.writeByte(value ? 1 : 0);
+        }
+
+        @Override
+        public void beginList(final String key) {
+            buffer.writeByte(LIST_ID);
+            writeUTF(key);
+            listStarts.push(buffer.writerIndex());
+            listSizes.push(0);
+            buffer.writeByte(0); // Element type
+            buffer.writeInt(0); // Size
+        }
+
+        @Override
+        public void endList() {
+            final int start = listStarts.popInt();
+            final int size = listSizes.popInt();
+            if (size == 0) {
+                throw UNSUPPORTED;
+            }
+            buffer.setInt(start + 1, size);
+        }
+
+        @Override
+        public void endComponent(@Nullable final String collapsedText) {
+            final int start = componentStarts.popInt();
+            if (collapsedText != null) {
+                buffer.writerIndex(start);
+                string(collapsedText);
+                return;
+            }
+
+            buffer.writeByte(0); // End tag
+            if (!listStarts.isEmpty()) {
+                addListElement(COMPOUND_ID);
+            }
+        }
+
+        private void addListElement(final int id) {
+            // Lists have to be homogeneous, leave mixed ones to the tree conversion
+            final int start = listStarts.topInt();
+            final int size = listSizes.popInt();
+            if (size == 0) {
+                buffer.setByte(start, id);
+            } else if (buffer.getByte(start) != id) {
+                throw UNSUPPORTED;
+            }
+            listSizes.push(size + 1);
+        }
+
+        private void writeUTF(final String value) {
+            try {
+                out.writeUTF(value);
+            } catch (final IOException e) {
+                // Too long after encoding
+                throw UNSUPPORTED;
+            }
+        }
+    }
+
+    private static final class TagOutput implements Output {
+        private final List<Object> stack = new ArrayList<>();
+        private Tag result;
+
+        @Override
+        public void string(final String value) {
+            add(new StringTag(value));
+        }
+
+        @Override
+        public void beginComponent() {
+            stack.add(new CompoundTag());
+        }
+
+        @Override
+        public void stringEntry(final String key, final String value) {
+            currentComponent().put(key, new StringTag(value));
+        }
+
+        @Override
+        public void byteEntry(final String key, final boolean value) {
+            currentComponent().put(key, new ByteTag((byte) (value ? 1 : 0)));
+        }
+
+        @Override
+        public void beginList(final String key) {
+            stack.add(new ListEntry(key));
+        }
+
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public void endList() {
+            final ListEntry entry = (ListEntry) stack.remove(stack.size() - 1);
+            if (entry.elements.isEmpty()) {
+                throw UNSUPPORTED;
+            }
+
+            final Class<? extends Tag> type = entry.elements.get(0).getClass();
+            final ListTag list = new ListTag(type);
+            for (final Tag element : entry.elements) {
+                if (element.getClass() != type) {
+                    throw UNSUPPORTED;
+                }
+                list.add(element);
+            }
+            currentComponent().put(entry.key, list);
+        }
+
+        @Override
+        public void endComponent(@Nullable final String collapsedText) {
+            final CompoundTag tag = (CompoundTag) stack.remove(stack.size() - 1);
+            add(collapsedText != null ? new StringTag(collapsedText) : tag);
+        }
+
+        private void add(final Tag tag) {
+            if (stack.isEmpty()) {
+                result = tag;
+            } else {
+                ((ListEntry) stack.get(stack.size() - 1)).elements.add(tag);
+            }
+        }
+
+        private CompoundTag currentComponent() {
+            return (CompoundTag) stack.get(stack.size() - 1);
+        }
+    }
+
+    private static final class ListEntry {
+        private final List<Tag> elements = new ArrayList<>();
+        private final String key;
+
+        private ListEntry(final String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class TagType extends Type<String> {
+
+        private TagType() {
+            super("Json Component Tag", String.class);
+        }
+
+        @Override
+        public @Nullable String read(final ByteBuf buffer) throws Exception {
+            // Reads the json component back from the network tag
+            final JsonElement element = ComponentUtil.tagToJson(Type.TAG.read(buffer));
+            return element != null ? element.toString() : null;
+        }
+
+        @Override
+        public void write(final ByteBuf buffer, final String json) throws Exception {
+            if (!ComponentNbtTranscoder.write(buffer, json)) {
+                Type.TAG.write(buffer, toSharedTag(json));
+            }
+        }
+    }
+
+    private static final class OptionalTagType extends OptionalType<String> {
+
+        private OptionalTagType() {
+            super(TAG);
+        }
+    }
+
+    private static final class UnsupportedComponentException extends RuntimeException {
+
+        private UnsupportedComponentException() {
+            super(null, null, false, false);
+        }
+    }
+}
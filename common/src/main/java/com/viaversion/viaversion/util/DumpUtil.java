@@ -21,12 +21,26 @@ import com.google.common.io.CharStreams;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.viaversion.viaversion.ViaManagerImpl;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.entity.EntityTracker;
 import com.viaversion.viaversion.api.platform.ViaPlatform;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.connection.OutboundQueue;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.data.entity.EntityTrackerBase;
+import com.viaversion.viaversion.data.entity.SharedEntityTable;
 import com.viaversion.viaversion.dump.DumpTemplate;
 import com.viaversion.viaversion.dump.VersionInfo;
+import com.viaversion.viaversion.handlers.ChunkConversionExecutor;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockConnectionStorage;
+import com.viaversion.viaversion.protocols.protocol1_19_1to1_19.storage.ChatSigningQueue;
+import com.viaversion.viaversion.protocols.protocol1_20_2to1_20.storage.ConfigurationState;
+import com.viaversion.viaversion.protocols.protocol1_20_5to1_20_3.storage.ItemConversionCache;
+import com.viaversion.viaversion.rewriter.ComponentConversionCache;
+import com.viaversion.viaversion.scheduler.TaskScheduler;
+import io.netty.channel.Channel;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -35,14 +49,19 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -142,13 +161,13 @@ public final class DumpUtil {
         // Player versions
         final JsonObject versions = new JsonObject();
         playerSample.add("versions", versions);
-        final Map<ProtocolVersion, Integer> playerVersions = new TreeMap<>(ProtocolVersion::compareTo);
-        for (final UserConnection connection : Via.getManager().getConnectionManager().getConnections()) {
-            final ProtocolVersion protocolVersion = connection.getProtocolInfo().protocolVersion();
-            playerVersions.compute(protocolVersion, (v, num) -> num != null ? num + 1 : 1);
-        }
-        for (final Map.Entry<ProtocolVersion, Integer> entry : playerVersions.entrySet()) {
-            versions.addProperty(entry.getKey().getName(), entry.getValue());
+        final List<ProtocolVersion> protocolVersions = new ArrayList<>(ProtocolVersion.getProtocols());
+        protocolVersions.sort(ProtocolVersion::compareTo);
+        for (final ProtocolVersion version : protocolVersions) {
+            final int connectionCount = Via.getManager().getConnectionManager().getConnectedClients(version).size();
+            if (connectionCount != 0) {
+                versions.addProperty(version.getName(), connectionCount);
+            }
         }
 
         final Set<List<String>> pipelines = new HashSet<>();
@@ -182,9 +201,228 @@ public final class DumpUtil {
             playerSample.add("pipeline-" + i++, senderPipeline);
         }
 
+        playerSample.add("metrics", getMetrics());
         return playerSample;
     }
 
+    private static JsonObject getMetrics() {
+        final JsonObject metrics = new JsonObject();
+        if (Via.getManager().getScheduler() instanceof TaskScheduler) {
+            metrics.add("scheduler", ((TaskScheduler) Via.getManager().getScheduler()).metrics());
+        }
+
+        final ChunkConversionExecutor chunkConversionExecutor = ((ViaManagerImpl) Via.getManager()).getChunkConversionExecutor();
+        if (chunkConversionExecutor != null) {
+            metrics.add("async-chunk-conversion", chunkConversionExecutor.metrics());
+        }
+
+        final ComponentConversionCache componentConversionCache = ComponentConversionCache.instance();
+        if (componentConversionCache != null) {
+            metrics.add("component-conversion-cache", componentConversionCache.metrics());
+        }
+
+        metrics.add("chat-signing", ChatSigningQueue.metrics());
+        metrics.add("configuration-queue", ConfigurationState.metrics());
+
+        final List<ConnectionStats> stats = collectConnectionStats();
+        int connections = 0;
+        long sections = 0;
+        long sharedSections = 0;
+        long ownedBytes = 0;
+        long maxOwnedBytes = 0;
+        for (final ConnectionStats connectionStats : stats) {
+            if (!connectionStats.blockConnections) {
+                continue;
+            }
+
+            connections++;
+            sections += connectionStats.sections;
+            sharedSections += connectionStats.sharedSections;
+            ownedBytes += connectionStats.ownedBytes;
+            maxOwnedBytes = Math.max(maxOwnedBytes, connectionStats.ownedBytes);
+        }
+        if (connections != 0) {
+            final JsonObject blockConnections = new JsonObject();
+            blockConnections.addProperty("connections", connections);
+            blockConnections.addProperty("sections", sections);
+            blockConnections.addProperty("shared-sections", sharedSections);
+            blockConnections.addProperty("owned-bytes", ownedBytes);
+            blockConnections.addProperty("average-owned-bytes", ownedBytes / connections);
+            blockConnections.addProperty("max-owned-bytes", maxOwnedBytes);
+            metrics.add("block-connection-storage", blockConnections);
+        }
+
+        int trackingConnections = 0;
+        long trackedEntities = 0;
+        long evictedEntities = 0;
+        int maxTrackedEntities = 0;
+        for (final ConnectionStats connectionStats : stats) {
+            trackedEntities += connectionStats.trackedEntities;
+            evictedEntities += connectionStats.evictedEntities;
+            if (connectionStats.maxTrackedEntities != 0) {
+                trackingConnections++;
+                maxTrackedEntities = Math.max(maxTrackedEntities, connectionStats.maxTrackedEntities);
+            }
+        }
+        if (trackingConnections != 0) {
+            final JsonObject entityTrackers = new JsonObject();
+            entityTrackers.addProperty("connections", trackingConnections);
+            entityTrackers.addProperty("tracked-entities", trackedEntities);
+            entityTrackers.addProperty("max-connection-entities", maxTrackedEntities);
+            entityTrackers.addProperty("evicted-entities", evictedEntities);
+            metrics.add("entity-trackers", entityTrackers);
+        }
+
+        int pendingPackets = 0;
+        int maxPendingPackets = 0;
+        long collapsedPackets = 0;
+        long heldBack = 0;
+        long overflowedPackets = 0;
+        for (final ConnectionStats connectionStats : stats) {
+            pendingPackets += connectionStats.pendingPackets;
+            maxPendingPackets = Math.max(maxPendingPackets, connectionStats.pendingPackets);
+            collapsedPackets += connectionStats.collapsedPackets;
+            heldBack += connectionStats.heldBack;
+            overflowedPackets += connectionStats.overflowedPackets;
+        }
+        final JsonObject outboundQueues = new JsonObject();
+        outboundQueues.addProperty("pending-packets", pendingPackets);
+        outboundQueues.addProperty("max-connection-pending-packets", maxPendingPackets);
+        outboundQueues.addProperty("collapsed-packets", collapsedPackets);
+        outboundQueues.addProperty("held-back", heldBack);
+        outboundQueues.addProperty("overflowed-packets", overflowedPackets);
+        metrics.add("outbound-queues", outboundQueues);
+
+        int cachingConnections = 0;
+        long cachedItems = 0;
+        long itemHits = 0;
+        long itemMisses = 0;
+        for (final ConnectionStats connectionStats : stats) {
+            if (!connectionStats.itemCache) {
+                continue;
+            }
+
+            cachingConnections++;
+            cachedItems += connectionStats.cachedItems;
+            itemHits += connectionStats.itemHits;
+            itemMisses += connectionStats.itemMisses;
+        }
+        if (cachingConnections != 0) {
+            final long lookups = itemHits + itemMisses;
+            final JsonObject itemConversionCache = new JsonObject();
+            itemConversionCache.addProperty("connections", cachingConnections);
+            itemConversionCache.addProperty("entries", cachedItems);
+            itemConversionCache.addProperty("hits", itemHits);
+            itemConversionCache.addProperty("misses", itemMisses);
+            itemConversionCache.addProperty("hit-ratio", lookups != 0 ? itemHits / (double) lookups : 0);
+            metrics.add("item-conversion-cache", itemConversionCache);
+        }
+        return metrics;
+    }
+
+    /**
+     * Collects the stats of all connections on their event loops, as most of the read storages are confined to them.
+     * Connections not answering in time are left out.
+     *
+     * @return stats of all connections that could be collected
+     */
+    private static List<ConnectionStats> collectConnectionStats() {
+        final List<ConnectionStats> stats = new ArrayList<>();
+        final List<Future<ConnectionStats>> futures = new ArrayList<>();
+        for (final UserConnection connection : Via.getManager().getConnectionManager().getConnections()) {
+            final Channel channel = connection.getChannel();
+            if (channel == null || channel.eventLoop().inEventLoop()) {
+                stats.add(ConnectionStats.collect(connection));
+                continue;
+            }
+
+            try {
+                futures.add(channel.eventLoop().submit(() -> ConnectionStats.collect(connection)));
+            } catch (final RejectedExecutionException ignored) {
+                // Event loop has been shut down
+            }
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        for (final Future<ConnectionStats> future : futures) {
+            try {
+                stats.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (final ExecutionException | TimeoutException e) {
+                future.cancel(false);
+            }
+        }
+        return stats;
+    }
+
+    private static final class ConnectionStats {
+        private boolean blockConnections;
+        private int sections;
+        private int sharedSections;
+        private long ownedBytes;
+        private long trackedEntities;
+        private int maxTrackedEntities;
+        private long evictedEntities;
+        private int pendingPackets;
+        private long collapsedPackets;
+        private long heldBack;
+        private long overflowedPackets;
+        private boolean itemCache;
+        private int cachedItems;
+        private long itemHits;
+        private long itemMisses;
+
+        private static ConnectionStats collect(final UserConnection connection) {
+            final ConnectionStats stats = new ConnectionStats();
+            final BlockConnectionStorage storage = connection.get(BlockConnectionStorage.class);
+            if (storage != null) {
+                stats.blockConnections = true;
+                stats.sections = storage.sectionCount();
+                stats.sharedSections = storage.sharedSectionCount();
+                stats.ownedBytes = storage.ownedMemoryUsage();
+            }
+
+            // Trackers sharing an entity table all report the size of the table, so only count it once
+            final SharedEntityTable sharedEntities = connection.get(SharedEntityTable.class);
+            int connectionEntities = sharedEntities != null ? sharedEntities.size() : 0;
+            stats.trackedEntities = connectionEntities;
+            for (final EntityTracker tracker : connection.getEntityTrackers()) {
+                if (tracker instanceof EntityTrackerBase) {
+                    stats.evictedEntities += ((EntityTrackerBase) tracker).evictedEntities();
+                }
+                if (sharedEntities != null && tracker instanceof EntityTrackerBase && ((EntityTrackerBase) tracker).usesSharedTable()) {
+                    continue;
+                }
+
+                final int entities = tracker.entityCount();
+                if (entities > 0) {
+                    stats.trackedEntities += entities;
+                    connectionEntities = Math.max(connectionEntities, entities);
+                }
+            }
+            stats.maxTrackedEntities = connectionEntities;
+
+            if (connection instanceof UserConnectionImpl) {
+                final OutboundQueue outboundQueue = ((UserConnectionImpl) connection).getOutboundQueue();
+                stats.pendingPackets = outboundQueue.pending();
+                stats.collapsedPackets = outboundQueue.collapsed();
+                stats.heldBack = outboundQueue.heldBack();
+                stats.overflowedPackets = outboundQueue.overflowed();
+            }
+
+            final ItemConversionCache cache = connection.get(ItemConversionCache.class);
+            if (cache != null) {
+                stats.itemCache = true;
+                stats.cachedItems = cache.size();
+                stats.itemHits = cache.hits();
+                stats.itemMisses = cache.misses();
+            }
+            return stats;
+        }
+    }
+
     public static final class DumpException extends RuntimeException {
         private final DumpErrorType errorType;
 
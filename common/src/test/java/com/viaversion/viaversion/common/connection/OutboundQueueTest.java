@@ -0,0 +1,117 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.connection;
+
+import com.viaversion.viaversion.connection.OutboundQueue;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OutboundQueueTest {
+
+    @Test
+    void testOrder() {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        final OutboundQueue queue = new UserConnectionImpl(channel).getOutboundQueue();
+        final List<Integer> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final int packet = i;
+            queue.add(() -> sent.add(packet), null, null, packet % 2 == 0);
+        }
+
+        Assertions.assertEquals(5, queue.pending());
+        channel.runPendingTasks();
+        Assertions.assertEquals(Arrays.asList(1, 3, 0, 2, 4), sent);
+        Assertions.assertEquals(0, queue.pending());
+    }
+
+    @Test
+    void testCollapse() {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        final OutboundQueue queue = new UserConnectionImpl(channel).getOutboundQueue();
+        final List<String> sent = new ArrayList<>();
+        final AtomicInteger discarded = new AtomicInteger();
+        queue.add(() -> sent.add("a"), "key", discarded::incrementAndGet, true);
+        queue.add(() -> sent.add("b"), null, null, true);
+        queue.add(() -> sent.add("c"), "key", discarded::incrementAndGet, true);
+
+        Assertions.assertEquals(2, queue.pending());
+        Assertions.assertEquals(1, queue.collapsed());
+        Assertions.assertEquals(1, discarded.get());
+        channel.runPendingTasks();
+        Assertions.assertEquals(Arrays.asList("b", "c"), sent);
+        Assertions.assertEquals(1, discarded.get());
+    }
+
+    @Test
+    void testHoldBackWhileUnwritable() {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setWriteBufferLowWaterMark(1);
+        channel.config().setWriteBufferHighWaterMark(2);
+        channel.write(Unpooled.wrappedBuffer(new byte[16]));
+        Assertions.assertFalse(channel.isWritable());
+
+        final OutboundQueue queue = new UserConnectionImpl(channel).getOutboundQueue();
+        final List<String> sent = new ArrayList<>();
+        queue.add(() -> sent.add("a"), "key", null, true);
+        queue.add(() -> sent.add("b"), null, null, true);
+        channel.runPendingTasks();
+        Assertions.assertEquals(Arrays.asList("b"), sent);
+        Assertions.assertEquals(1, queue.pending());
+        Assertions.assertEquals(1, queue.heldBack());
+
+        // Collapses the held back entry, everything else is still sent right away
+        queue.add(() -> sent.add("c"), "key", null, true);
+        queue.add(() -> sent.add("d"), null, null, true);
+        channel.runPendingTasks();
+        Assertions.assertEquals(Arrays.asList("b", "d"), sent);
+        Assertions.assertEquals(1, queue.pending());
+        Assertions.assertEquals(1, queue.collapsed());
+
+        channel.flush();
+        channel.runPendingTasks();
+        Assertions.assertTrue(channel.isWritable());
+        Assertions.assertEquals(Arrays.asList("b", "d", "c"), sent);
+        Assertions.assertEquals(0, queue.pending());
+        Assertions.assertEquals(0, queue.overflowed());
+        ReferenceCountUtil.release(channel.readOutbound());
+    }
+
+    @Test
+    void testDiscardOnClose() {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        final OutboundQueue queue = new UserConnectionImpl(channel).getOutboundQueue();
+        final AtomicInteger sent = new AtomicInteger();
+        final AtomicInteger discarded = new AtomicInteger();
+        queue.add(sent::incrementAndGet, null, discarded::incrementAndGet, true);
+        queue.add(sent::incrementAndGet, null, discarded::incrementAndGet, false);
+
+        channel.close();
+        channel.runPendingTasks();
+        Assertions.assertEquals(0, sent.get());
+        Assertions.assertEquals(2, discarded.get());
+        Assertions.assertEquals(0, queue.pending());
+    }
+}
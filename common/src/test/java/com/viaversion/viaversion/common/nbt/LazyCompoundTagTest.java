@@ -0,0 +1,82 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.nbt;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.IntTag;
+import com.github.steveice10.opennbt.tag.builtin.ListTag;
+import com.github.steveice10.opennbt.tag.builtin.StringTag;
+import com.viaversion.viaversion.api.minecraft.nbt.LazyCompoundTag;
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LazyCompoundTagTest {
+
+    @Test
+    void testLazyRead() throws Exception {
+        final CompoundTag tag = new CompoundTag();
+        tag.putString("name", "minecraft:overworld");
+        tag.put("height", new IntTag(384));
+        final ListTag<StringTag> list = new ListTag<>(StringTag.class);
+        list.add(new StringTag("a"));
+        tag.put("list", list);
+        final CompoundTag nested = new CompoundTag();
+        nested.put("min_y", new IntTag(-64));
+        tag.put("nested", nested);
+
+        final ByteBuf buf = Unpooled.buffer();
+        Type.NAMED_COMPOUND_TAG.write(buf, tag);
+        final ByteBuf original = buf.copy();
+
+        final LazyCompoundTag lazyTag = Type.LAZY_NAMED_COMPOUND_TAG.read(buf);
+        Assertions.assertFalse(buf.isReadable());
+        Assertions.assertEquals(new IntTag(384), lazyTag.get("height"));
+        Assertions.assertEquals(nested, lazyTag.get("nested"));
+        Assertions.assertNull(lazyTag.get("missing"));
+        Assertions.assertSame(lazyTag.get("nested"), lazyTag.get("nested"));
+        Assertions.assertFalse(lazyTag.isDecoded());
+
+        // Written back as is
+        final ByteBuf written = Unpooled.buffer();
+        Type.LAZY_NAMED_COMPOUND_TAG.write(written, lazyTag);
+        Assertions.assertEquals(original, written);
+
+        Assertions.assertEquals(tag, lazyTag.tag());
+        Assertions.assertTrue(lazyTag.isDecoded());
+    }
+
+    @Test
+    void testMalformedData() {
+        final ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(CompoundTag.ID);
+        buf.writeShort(0);
+        buf.writeByte(13); // Invalid tag id
+        buf.writeShort(0);
+        Assertions.assertThrows(Exception.class, () -> Type.LAZY_NAMED_COMPOUND_TAG.read(buf));
+    }
+
+    @Test
+    void testEmptyTag() {
+        final ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(0);
+        Assertions.assertThrows(Exception.class, () -> Type.LAZY_NAMED_COMPOUND_TAG.read(buf));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.protocol;
+
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.common.dummy.DummyInitializer;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
+import com.viaversion.viaversion.protocols.protocol1_19_4to1_19_3.ClientboundPackets1_19_4;
+import com.viaversion.viaversion.protocols.protocol1_20_2to1_20.storage.ConfigurationState;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ConfigurationStateTest {
+
+    @BeforeAll
+    static void init() {
+        DummyInitializer.init();
+    }
+
+    @Test
+    void testCollapseByUnmappedId() throws Exception {
+        final UserConnectionImpl connection = new UserConnectionImpl(new EmbeddedChannel());
+        final ConfigurationState state = new ConfigurationState();
+        final long collapsed = collapsedPackets();
+
+        // Queued the same way as in the protocol's transform, without a packet type
+        state.addPacketToQueue(packet(ClientboundPackets1_19_4.TAGS.getId(), connection), true);
+        state.addPacketToQueue(packet(ClientboundPackets1_19_4.KEEP_ALIVE.getId(), connection), true);
+        state.addPacketToQueue(packet(ClientboundPackets1_19_4.KEEP_ALIVE.getId(), connection), true);
+        Assertions.assertEquals(collapsed, collapsedPackets());
+
+        state.addPacketToQueue(packet(ClientboundPackets1_19_4.TAGS.getId(), connection), true);
+        Assertions.assertEquals(collapsed + 1, collapsedPackets());
+
+        // Serverbound packets are never collapsed
+        state.addPacketToQueue(packet(ClientboundPackets1_19_4.TAGS.getId(), connection), false);
+        Assertions.assertEquals(collapsed + 1, collapsedPackets());
+        state.onRemove();
+    }
+
+    private static PacketWrapper packet(final int id, final UserConnectionImpl connection) {
+        return new PacketWrapperImpl(id, Unpooled.wrappedBuffer(new byte[]{1, 2, 3}), connection);
+    }
+
+    private static long collapsedPackets() {
+        return ConfigurationState.metrics().get("collapsed-packets").getAsLong();
+    }
+}
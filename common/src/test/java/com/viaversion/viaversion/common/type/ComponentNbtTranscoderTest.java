@@ -0,0 +1,92 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.type;
+
+import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.common.dummy.DummyInitializer;
+import com.viaversion.viaversion.util.ComponentNbtTranscoder;
+import com.viaversion.viaversion.util.ComponentUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ComponentNbtTranscoderTest {
+
+    @BeforeAll
+    static void init() {
+        // Needed for the conversion cache
+        DummyInitializer.init();
+    }
+
+    @Test
+    void testTranscodedComponents() throws Exception {
+        assertTranscoded("\"Hello\"");
+        assertTranscoded("{\"text\":\"Hello\"}");
+        assertTranscoded("{\"text\":\"Hello\",\"bold\":true,\"italic\":false,\"color\":\"gold\"}");
+        assertTranscoded("{\"text\":\"\",\"color\":\"#ff00aa\",\"insertion\":\"test\"}");
+        assertTranscoded("{\"text\":\"\",\"extra\":[\"a\",{\"text\":\"b\"}]}");
+        assertTranscoded("{\"extra\":[{\"bold\":false,\"underlined\":true,\"color\":\"red\",\"text\":\"a\"},{\"text\":\"b\",\"extra\":[{\"text\":\"c\",\"obfuscated\":true}],\"strikethrough\":true}],\"text\":\"\"}");
+    }
+
+    @Test
+    void testFallback() throws Exception {
+        assertNotTranscoded("{\"translate\":\"chat.type.text\",\"with\":[\"a\",\"b\"]}");
+        assertNotTranscoded("{\"text\":\"a\",\"hoverEvent\":{\"action\":\"show_text\",\"value\":\"b\"}}");
+        assertNotTranscoded("{\"text\":\"a\",\"extra\":[\"b\",{\"text\":\"c\",\"bold\":true}]}");
+        assertNotTranscoded("{\"text\":\"a\",\"clickEvent\":{\"action\":\"open_url\",\"value\":\"https://example.com\"}}");
+        assertNotTranscoded("[\"a\",\"b\"]");
+    }
+
+    @Test
+    void testReadBack() throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        final String json = "{\"text\":\"Hello\",\"bold\":true}";
+        ComponentNbtTranscoder.TAG.write(buf, json);
+        Assertions.assertEquals(JsonParser.parseString(json), JsonParser.parseString(ComponentNbtTranscoder.TAG.read(buf)));
+        Assertions.assertFalse(buf.isReadable());
+    }
+
+    private void assertTranscoded(final String json) throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        Assertions.assertTrue(ComponentNbtTranscoder.write(buf, json));
+        Assertions.assertTrue(ComponentNbtTranscoder.isSupported(json));
+
+        final Tag expected = ComponentUtil.jsonToTag(JsonParser.parseString(json));
+        Assertions.assertEquals(expected, Type.TAG.read(buf));
+        Assertions.assertFalse(buf.isReadable());
+        Assertions.assertEquals(expected, ComponentNbtTranscoder.toTag(JsonParser.parseString(json)));
+    }
+
+    private void assertNotTranscoded(final String json) throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        Assertions.assertFalse(ComponentNbtTranscoder.write(buf, json));
+        Assertions.assertFalse(buf.isReadable());
+        Assertions.assertFalse(ComponentNbtTranscoder.isSupported(json));
+
+        // Still written through the tree conversion
+        final JsonElement element = JsonParser.parseString(json);
+        ComponentNbtTranscoder.TAG.write(buf, json);
+        Assertions.assertEquals(ComponentUtil.jsonToTag(element), Type.TAG.read(buf));
+        Assertions.assertEquals(ComponentUtil.jsonToTag(element), ComponentNbtTranscoder.toTag(element));
+    }
+}
@@ -18,9 +18,11 @@
 package com.viaversion.viaversion.common.type;
 
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.types.StringType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -65,4 +67,33 @@ public class StringTypeTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> Type.STRING.write(buf, new String(new char[Short.MAX_VALUE / 2 + 1]).replace("\0", "\uD83E\uDDFD")));
         Assertions.assertThrows(IllegalArgumentException.class, () -> Type.STRING.write(buf, new String(new char[Short.MAX_VALUE + 1])));
     }
+
+    @Test
+    public void testUtf8Encoding() throws Exception {
+        final String[] strings = {"minecraft:stone", "\u00e4\u00f6\u00fc", "\u20ac", "\uD83E\uDDFD", "a\uD83Eb", "\uDDFDa", "\uD83E"};
+        for (final String string : strings) {
+            final ByteBuf buf = Unpooled.buffer();
+            Type.STRING.write(buf, string);
+
+            final byte[] expected = string.getBytes(StandardCharsets.UTF_8);
+            Assertions.assertEquals(expected.length, StringType.utf8Length(string));
+            Assertions.assertEquals(expected.length, Type.VAR_INT.readPrimitive(buf));
+            final byte[] written = new byte[buf.readableBytes()];
+            buf.readBytes(written);
+            Assertions.assertArrayEquals(expected, written);
+        }
+    }
+
+    @Test
+    public void testInternedRead() throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        Type.STRING.write(buf, "minecraft:overworld");
+        Type.STRING.write(buf, "minecraft:overworld");
+        Type.STRING.write(buf, "minecraft:the_nether");
+
+        final String first = Type.IDENTIFIER.read(buf);
+        Assertions.assertEquals("minecraft:overworld", first);
+        Assertions.assertSame(first, Type.IDENTIFIER.read(buf));
+        Assertions.assertEquals("minecraft:the_nether", Type.IDENTIFIER.read(buf));
+    }
 }
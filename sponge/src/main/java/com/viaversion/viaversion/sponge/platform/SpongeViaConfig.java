@@ -26,7 +26,8 @@ import java.util.Map;
 public class SpongeViaConfig extends AbstractViaConfig {
     private static final List<String> UNSUPPORTED = Arrays.asList("bungee-ping-interval",
             "bungee-ping-save", "bungee-servers", "velocity-ping-interval", "velocity-ping-save", "velocity-servers",
-            "quick-move-action-fix", "change-1_9-hitbox", "change-1_14-hitbox", "blockconnection-method");
+            "quick-move-action-fix", "change-1_9-hitbox", "change-1_14-hitbox", "blockconnection-method",
+            "async-chunk-conversion", "async-chunk-conversion-threads", "async-chunk-conversion-queue-size");
 
     public SpongeViaConfig(File folder) {
         super(new File(folder, "config.yml"));
@@ -40,4 +41,9 @@ public class SpongeViaConfig extends AbstractViaConfig {
     public List<String> getUnsupportedOptions() {
         return UNSUPPORTED;
     }
+
+    @Override
+    public boolean isAsyncChunkConversion() {
+        return false;
+    }
 }
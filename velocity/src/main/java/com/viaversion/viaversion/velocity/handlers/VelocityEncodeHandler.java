@@ -20,6 +20,7 @@ package com.viaversion.viaversion.velocity.handlers;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
+import com.viaversion.viaversion.handlers.OrderedConversionQueue;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -29,9 +30,11 @@ import java.util.List;
 @ChannelHandler.Sharable
 public class VelocityEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection info;
+    private final OrderedConversionQueue conversionQueue;
 
     public VelocityEncodeHandler(UserConnection info) {
         this.info = info;
+        this.conversionQueue = OrderedConversionQueue.create(info);
     }
 
     @Override
@@ -44,6 +47,11 @@ public class VelocityEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
 
         ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
         try {
+            if (conversionQueue != null && conversionQueue.offer(ctx, transformedBuf)) {
+                // Written by the queue once converted
+                throw CancelEncoderException.generate(null);
+            }
+
             info.transformOutgoing(transformedBuf, CancelEncoderException::generate);
             out.add(transformedBuf.retain());
         } finally {